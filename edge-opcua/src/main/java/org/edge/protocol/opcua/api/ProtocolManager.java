@@ -32,6 +32,8 @@ import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
 import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
+import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
+import org.edge.protocol.opcua.api.common.EdgePollingGroup;
 import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
@@ -42,18 +44,24 @@ import org.edge.protocol.opcua.api.server.EdgeNodeType;
 import org.edge.protocol.opcua.api.server.EdgeReference;
 import org.edge.protocol.opcua.command.Browse;
 import org.edge.protocol.opcua.command.CommandExecutor;
+import org.edge.protocol.opcua.command.HistoryRead;
 import org.edge.protocol.opcua.command.Method;
 import org.edge.protocol.opcua.command.Read;
 import org.edge.protocol.opcua.command.Subscription;
 import org.edge.protocol.opcua.command.Write;
 import org.edge.protocol.opcua.namespace.EdgeNamespace;
 import org.edge.protocol.opcua.namespace.EdgeNamespaceManager;
+import org.edge.protocol.opcua.node.EdgeAsyncMethodHandler;
 import org.edge.protocol.opcua.providers.EdgeServices;
+import org.edge.protocol.opcua.providers.services.EdgePollingScheduler;
+import org.edge.protocol.opcua.providers.services.browse.EdgeBrowseService;
+import org.edge.protocol.opcua.providers.services.history.EdgeHistoryReadService;
 import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.edge.protocol.opcua.queue.MessageDispatcher;
 import org.edge.protocol.opcua.queue.MessageInterface;
 import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeOpcUaServer;
+import org.edge.protocol.opcua.session.EdgeReconnectSupervisor;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
 
 import org.slf4j.Logger;
@@ -141,6 +149,14 @@ public class ProtocolManager implements MessageInterface {
       return ret;
     }
 
+    if (msg.getCommand() != EdgeCommandType.CMD_START_CLIENT
+        && msg.getCommand() != EdgeCommandType.CMD_STOP_CLIENT
+        && msg.getEdgeEndpointInfo() != null && EdgeReconnectSupervisor.getInstance()
+            .isAvailable(msg.getEdgeEndpointInfo().getEndpointUri()) == false) {
+      logger.info("endpoint is not available : {}", msg.getEdgeEndpointInfo().getEndpointUri());
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_CIRCUIT_OPEN).build();
+    }
+
     return new EdgeResult.Builder(
         ProtocolManager.getProtocolManagerInstance().getSendDispatcher().putQ(msg)
             ? EdgeStatusCode.STATUS_OK : EdgeStatusCode.STATUS_ENQUEUE_ERROR).build();
@@ -175,6 +191,7 @@ public class ProtocolManager implements MessageInterface {
         || msg.getCommand() == EdgeCommandType.CMD_WRITE
         || msg.getCommand() == EdgeCommandType.CMD_BROWSE
         || msg.getCommand() == EdgeCommandType.CMD_METHOD
+        || msg.getCommand() == EdgeCommandType.CMD_HISTORY_READ
         || msg.getCommand() == EdgeCommandType.CMD_SUB) && msg.getRequest() != null
         && msg.getRequest().getEdgeNodeInfo().getValueAlias() == null) {
       logger.info("{} command should use valueAlias", msg.getCommand());
@@ -196,6 +213,10 @@ public class ProtocolManager implements MessageInterface {
             && msg.getRequest().getSubRequest().getSubType() == null))) {
       logger.info("{} command should set both subRequest and subType", msg.getCommand());
       return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    } else if (msg.getCommand() == EdgeCommandType.CMD_HISTORY_READ
+        && msg.getHistoryReadParameter() == null) {
+      logger.info("{} command should set history-read-parameter", msg.getCommand());
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
     } else if (msg.getCommand() == EdgeCommandType.CMD_BROWSE && msg.getBrowseParameter() == null) {
       logger.info("{} command should set browse-parameter", msg.getCommand());
       return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
@@ -234,6 +255,7 @@ public class ProtocolManager implements MessageInterface {
       }
     }
 
+    EdgePollingScheduler.getInstance().close();
     EdgeSessionManager.getInstance().close();
     protocolManager = null;
     Stack.releaseSharedResources();
@@ -263,6 +285,10 @@ public class ProtocolManager implements MessageInterface {
         recvCallback.onResponseMessages(msg);
       }
     }
+    if (msg.getMessageType() == EdgeMessageType.HISTORY_RESPONSE) {
+      // next page of history read is requested after this page is handled
+      EdgeHistoryReadService.getInstance().onPageHandled(msg);
+    }
   }
 
   /**
@@ -361,13 +387,17 @@ public class ProtocolManager implements MessageInterface {
       }
     } else if (msg.getCommand() == EdgeCommandType.CMD_START_CLIENT) {
       try {
-        EdgeSessionManager.getInstance().configure(msg.getEdgeEndpointInfo());
-        EdgeOpcUaClient client =
-            EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
-        if (client != null) {
-          client.connect(msg.getEdgeEndpointInfo().getEndpointUri(),
-              msg.getEdgeEndpointInfo().getFuture());
-        }
+        EdgeSessionManager.getInstance().connectAsync(msg.getEdgeEndpointInfo())
+            .exceptionally(e -> {
+              logger.error("connect failed : {}", e.getMessage());
+              EdgeRequest req = msg.getRequest();
+              ErrorHandler.getInstance().addErrorMessage(msg.getEdgeEndpointInfo(),
+                  req != null ? req.getEdgeNodeInfo() : new EdgeNodeInfo.Builder().build(),
+                  new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
+                  new EdgeVersatility.Builder(e.getMessage()).build(),
+                  req != null ? req.getRequestId() : EdgeOpcUaCommon.DEFAULT_REQUEST_ID);
+              return null;
+            });
       } catch (Exception e) {
         e.printStackTrace();
         ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(),
@@ -452,6 +482,16 @@ public class ProtocolManager implements MessageInterface {
             new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
             msg.getRequest().getRequestId());
       }
+    } else if (msg.getCommand() == EdgeCommandType.CMD_HISTORY_READ) {
+      HistoryRead historyRead = new HistoryRead();
+      try {
+        new CommandExecutor(historyRead).run(msg);
+      } catch (Exception e) {
+        e.printStackTrace();
+        ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(),
+            new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
+            msg.getRequest().getRequestId());
+      }
     } else if (msg.getCommand() == EdgeCommandType.CMD_METHOD) {
       Method method = new Method();
       try {
@@ -466,6 +506,35 @@ public class ProtocolManager implements MessageInterface {
     }
   }
 
+  /**
+   * start cyclic read of the polling group
+   * 
+   * @param group polling group which has group message, cycle time and jitter
+   * @return result
+   */
+  public EdgeResult startPolling(EdgePollingGroup group) {
+    return EdgePollingScheduler.getInstance().start(group);
+  }
+
+  /**
+   * stop cyclic read of the polling group
+   * 
+   * @param name name of polling group
+   * @return result
+   */
+  public EdgeResult stopPolling(String name) {
+    return EdgePollingScheduler.getInstance().stop(name);
+  }
+
+  /**
+   * cancel browse which is in progress and release its continuation points
+   * 
+   * @param msg edge message which is sent with CMD_BROWSE command
+   */
+  public void cancelBrowse(EdgeMessage msg) {
+    EdgeBrowseService.getInstance().cancel(msg);
+  }
+
   /**
    * create Namespace depend on OPC-UA on server side
    * 
@@ -571,6 +640,24 @@ public class ProtocolManager implements MessageInterface {
     }
   }
 
+  /**
+   * get invocation handler of async method node on server side. it has the number of invocations,
+   * failures and rejections and execution time of the method.
+   * 
+   * @param namespaceUri namespace URI of method node
+   * @param browseName browse name of method node
+   * @return handler (null if there is no async method node)
+   */
+  public EdgeAsyncMethodHandler getMethodMetrics(String namespaceUri, String browseName) {
+    try {
+      return EdgeNamespaceManager.getInstance().getNamespace(namespaceUri)
+          .getAsyncMethodHandler(browseName);
+    } catch (Exception e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
   /**
    * add reference with node
    * 
@@ -689,7 +776,9 @@ public class ProtocolManager implements MessageInterface {
         || EdgeStatusCode.STATUS_STOP_CLIENT == status) {
       statusCallback.onStop(ep, status);
     } else if (EdgeStatusCode.STATUS_CONNECTED == status
-        || EdgeStatusCode.STATUS_DISCONNECTED == status) {
+        || EdgeStatusCode.STATUS_DISCONNECTED == status
+        || EdgeStatusCode.STATUS_RECONNECTING == status
+        || EdgeStatusCode.STATUS_CIRCUIT_OPEN == status) {
       statusCallback.onNetworkStatus(ep, status);
     } else {
       logger.info("there is no available status code");
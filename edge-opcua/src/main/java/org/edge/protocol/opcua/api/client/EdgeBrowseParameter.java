@@ -26,10 +26,18 @@ public class EdgeBrowseParameter {
   public static int DIRECTION_BOTH = 2;
   int direction;
   int maxReferencesPerNode;
+  int maxDepth;
+  int maxInFlight;
+  int chunkSize;
+  int pageSize;
 
   public static class Builder {
     int direction = DIRECTION_FORWARD;
     int maxReferencesPerNode = 0;
+    int maxDepth = 0;
+    int maxInFlight = 4;
+    int chunkSize = 100;
+    int pageSize = 500;
 
     public Builder() {}
 
@@ -53,6 +61,46 @@ public class EdgeBrowseParameter {
       return this;
     }
 
+    /**
+     * set maximum depth of recursive browse
+     * @param  maxDepth maximum depth from the requested node (0 is unlimited)
+     * @return this
+     */
+    public Builder setMaxDepth(int maxDepth) {
+      this.maxDepth = maxDepth;
+      return this;
+    }
+
+    /**
+     * set maximum number of browse requests in progress at the same time
+     * @param  maxInFlight maximum browse requests (minimum 1)
+     * @return this
+     */
+    public Builder setMaxInFlight(int maxInFlight) {
+      this.maxInFlight = Math.max(1, maxInFlight);
+      return this;
+    }
+
+    /**
+     * set maximum number of nodes in one browse request
+     * @param  chunkSize maximum nodes per browse request (minimum 1)
+     * @return this
+     */
+    public Builder setChunkSize(int chunkSize) {
+      this.chunkSize = Math.max(1, chunkSize);
+      return this;
+    }
+
+    /**
+     * set maximum number of references in one browse response message
+     * @param  pageSize maximum references per message (minimum 1)
+     * @return this
+     */
+    public Builder setPageSize(int pageSize) {
+      this.pageSize = Math.max(1, pageSize);
+      return this;
+    }
+
     /**
      * create EdgeBrowseParameter instance (builder)
      * @return EdgeBrowseParameter instance
@@ -69,6 +117,10 @@ public class EdgeBrowseParameter {
   private EdgeBrowseParameter(Builder builder) {
     direction = builder.direction;
     maxReferencesPerNode = builder.maxReferencesPerNode;
+    maxDepth = builder.maxDepth;
+    maxInFlight = builder.maxInFlight;
+    chunkSize = builder.chunkSize;
+    pageSize = builder.pageSize;
   }
 
   /**
@@ -94,4 +146,36 @@ public class EdgeBrowseParameter {
   public boolean isMaxReferenceValue() {
     return (maxReferencesPerNode != 0);
   }
+
+  /**
+   * get maximum depth of recursive browse
+   * @return maxDepth (0 is unlimited)
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * get maximum number of browse requests in progress
+   * @return maxInFlight
+   */
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * get maximum number of nodes in one browse request
+   * @return chunkSize
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * get maximum number of references in one browse response message
+   * @return pageSize
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
 }
@@ -0,0 +1,244 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.api.client;
+
+import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
+
+public class EdgeHistoryReadParameter {
+  public static int HISTORY_READ_RAW = 0;
+  public static int HISTORY_READ_PROCESSED = 1;
+  public static int HISTORY_READ_AT_TIME = 2;
+  int mode;
+  long startTime;
+  long endTime;
+  int numValuesPerNode;
+  boolean returnBounds;
+  double processingInterval;
+  EdgeNodeIdentifier aggregateType;
+  long[] reqTimes;
+  boolean useSimpleBounds;
+  int maxPendingPages;
+
+  public static class Builder {
+    int mode = HISTORY_READ_RAW;
+    long startTime = 0;
+    long endTime = 0;
+    int numValuesPerNode = 1000;
+    boolean returnBounds = false;
+    double processingInterval = 0;
+    EdgeNodeIdentifier aggregateType = EdgeNodeIdentifier.AggregateFunction_Average;
+    long[] reqTimes = new long[0];
+    boolean useSimpleBounds = true;
+    int maxPendingPages = 1;
+
+    public Builder() {}
+
+    /**
+     * set mode of history read (HISTORY_READ_RAW, HISTORY_READ_PROCESSED, HISTORY_READ_AT_TIME)
+     * @param  mode history read mode
+     * @return this
+     */
+    public Builder setMode(int mode) {
+      this.mode = mode;
+      return this;
+    }
+
+    /**
+     * set time range of raw and processed history read
+     * @param  startTime start time (milliseconds since epoch)
+     * @param  endTime end time (milliseconds since epoch)
+     * @return this
+     */
+    public Builder setTimeRange(long startTime, long endTime) {
+      this.startTime = startTime;
+      this.endTime = endTime;
+      return this;
+    }
+
+    /**
+     * set maximum number of values of a node in one page of raw history read
+     * @param  numValuesPerNode maximum values per page (minimum 1)
+     * @return this
+     */
+    public Builder setNumValuesPerNode(int numValuesPerNode) {
+      this.numValuesPerNode = Math.max(1, numValuesPerNode);
+      return this;
+    }
+
+    /**
+     * set whether bounding values are returned by raw history read
+     * @param  returnBounds flag of bounding values
+     * @return this
+     */
+    public Builder setReturnBounds(boolean returnBounds) {
+      this.returnBounds = returnBounds;
+      return this;
+    }
+
+    /**
+     * set aggregate of processed history read
+     * @param  aggregateType aggregate function such as AggregateFunction_Average
+     * @param  processingInterval interval of processed values (milliseconds)
+     * @return this
+     */
+    public Builder setAggregate(EdgeNodeIdentifier aggregateType, double processingInterval) {
+      this.aggregateType = aggregateType;
+      this.processingInterval = processingInterval;
+      return this;
+    }
+
+    /**
+     * set timestamps of at-time history read
+     * @param  reqTimes requested times (milliseconds since epoch)
+     * @return this
+     */
+    public Builder setReqTimes(long[] reqTimes) {
+      this.reqTimes = reqTimes != null ? reqTimes : new long[0];
+      return this;
+    }
+
+    /**
+     * set whether simple bounds are used to interpolate values of at-time history read
+     * @param  useSimpleBounds flag of simple bounds
+     * @return this
+     */
+    public Builder setUseSimpleBounds(boolean useSimpleBounds) {
+      this.useSimpleBounds = useSimpleBounds;
+      return this;
+    }
+
+    /**
+     * set maximum number of pages which are delivered but not handled by callback yet. next
+     *        page is not requested while this number of pages is pending.
+     * @param  maxPendingPages maximum pending pages (minimum 1)
+     * @return this
+     */
+    public Builder setMaxPendingPages(int maxPendingPages) {
+      this.maxPendingPages = Math.max(1, maxPendingPages);
+      return this;
+    }
+
+    /**
+     * create EdgeHistoryReadParameter instance (builder)
+     * @return EdgeHistoryReadParameter instance
+     */
+    public EdgeHistoryReadParameter build() {
+      return new EdgeHistoryReadParameter(this);
+    }
+  }
+
+  /**
+   * constructor
+   * @param  builder EdgeHistoryReadParameter Builder
+   */
+  private EdgeHistoryReadParameter(Builder builder) {
+    mode = builder.mode;
+    startTime = builder.startTime;
+    endTime = builder.endTime;
+    numValuesPerNode = builder.numValuesPerNode;
+    returnBounds = builder.returnBounds;
+    processingInterval = builder.processingInterval;
+    aggregateType = builder.aggregateType;
+    reqTimes = builder.reqTimes;
+    useSimpleBounds = builder.useSimpleBounds;
+    maxPendingPages = builder.maxPendingPages;
+  }
+
+  /**
+   * get mode of history read
+   * @return mode
+   */
+  public int getMode() {
+    return mode;
+  }
+
+  /**
+   * get start time of raw and processed history read
+   * @return startTime (milliseconds since epoch)
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * get end time of raw and processed history read
+   * @return endTime (milliseconds since epoch)
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * get maximum number of values of a node in one page of raw history read
+   * @return numValuesPerNode
+   */
+  public int getNumValuesPerNode() {
+    return numValuesPerNode;
+  }
+
+  /**
+   * get whether bounding values are returned by raw history read
+   * @return true or false
+   */
+  public boolean getReturnBounds() {
+    return returnBounds;
+  }
+
+  /**
+   * get interval of processed history read
+   * @return processingInterval (milliseconds)
+   */
+  public double getProcessingInterval() {
+    return processingInterval;
+  }
+
+  /**
+   * get aggregate function of processed history read
+   * @return aggregateType
+   */
+  public EdgeNodeIdentifier getAggregateType() {
+    return aggregateType;
+  }
+
+  /**
+   * get timestamps of at-time history read
+   * @return reqTimes (milliseconds since epoch)
+   */
+  public long[] getReqTimes() {
+    return reqTimes;
+  }
+
+  /**
+   * get whether simple bounds are used by at-time history read
+   * @return true or false
+   */
+  public boolean getUseSimpleBounds() {
+    return useSimpleBounds;
+  }
+
+  /**
+   * get maximum number of pages which are delivered but not handled by callback yet
+   * @return maxPendingPages
+   */
+  public int getMaxPendingPages() {
+    return maxPendingPages;
+  }
+}
@@ -0,0 +1,330 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.api.common;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.ULong;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UShort;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Array value kept as one flat primitive array (row-major) or ByteBuffer with its shape, so that
+ * large array and image values are handed to callbacks without boxed elements.
+ */
+public class EdgeArrayValue {
+  // element types of arrays (class of element -> OPC UA data type)
+  private static final ImmutableMap<Class<?>, EdgeNodeIdentifier> ELEMENT_TYPES =
+      ImmutableMap.<Class<?>, EdgeNodeIdentifier>builder()
+          .put(Double.class, EdgeNodeIdentifier.Double).put(double.class, EdgeNodeIdentifier.Double)
+          .put(Float.class, EdgeNodeIdentifier.Float).put(float.class, EdgeNodeIdentifier.Float)
+          .put(Long.class, EdgeNodeIdentifier.Int64).put(long.class, EdgeNodeIdentifier.Int64)
+          .put(Integer.class, EdgeNodeIdentifier.Int32).put(int.class, EdgeNodeIdentifier.Int32)
+          .put(Short.class, EdgeNodeIdentifier.Int16).put(short.class, EdgeNodeIdentifier.Int16)
+          .put(Byte.class, EdgeNodeIdentifier.SByte).put(byte.class, EdgeNodeIdentifier.SByte)
+          .put(Boolean.class, EdgeNodeIdentifier.Boolean)
+          .put(boolean.class, EdgeNodeIdentifier.Boolean).put(UByte.class, EdgeNodeIdentifier.Byte)
+          .put(UShort.class, EdgeNodeIdentifier.UInt16)
+          .put(UInteger.class, EdgeNodeIdentifier.UInt32)
+          .put(ULong.class, EdgeNodeIdentifier.UInt64).build();
+
+  private final EdgeNodeIdentifier type;
+  private final int[] dimensions;
+  private final Object array;
+  private final ByteBuffer buffer;
+
+  public static class Builder {
+    private final Object value;
+    private int[] dimensions = null;
+    private int mode = EdgeOpcUaCommon.ARRAY_VALUE_PRIMITIVE;
+
+    /**
+     * constructor
+     * @param  value array value (boxed or primitive array of any rank, or ByteString)
+     */
+    public Builder(Object value) {
+      this.value = value;
+    }
+
+    /**
+     * set declared shape of value (ArrayDimensions attribute). it is used when a flat value
+     *        has as many elements as the shape.
+     * @param  dimensions length of each dimension
+     * @return this
+     */
+    public Builder setDimensions(int[] dimensions) {
+      this.dimensions = dimensions;
+      return this;
+    }
+
+    /**
+     * set representation of elements (ARRAY_VALUE_PRIMITIVE, ARRAY_VALUE_BUFFER or
+     *        ARRAY_VALUE_DIRECT_BUFFER of EdgeOpcUaCommon)
+     * @param  mode representation
+     * @return this
+     */
+    public Builder setMode(int mode) {
+      this.mode = mode;
+      return this;
+    }
+
+    /**
+     * create EdgeArrayValue instance (builder)
+     * @return EdgeArrayValue instance
+     */
+    public EdgeArrayValue build() {
+      return new EdgeArrayValue(this);
+    }
+  }
+
+  /**
+   * constructor
+   * @param  builder EdgeArrayValue Builder
+   */
+  private EdgeArrayValue(Builder builder) {
+    type = getElementType(builder.value);
+    if (type == null) {
+      throw new IllegalArgumentException("value is not an array of built-in type");
+    }
+
+    Object flat;
+    int[] shape;
+    if (builder.value instanceof ByteString) {
+      flat = ((ByteString) builder.value).bytesOrEmpty();
+      shape = new int[] {((byte[]) flat).length};
+    } else if (builder.value instanceof Object[]) {
+      shape = getShape((Object[]) builder.value);
+      if (shape == null) {
+        throw new IllegalArgumentException("value is not an array of regular shape");
+      }
+      flat = newArray(type, count(shape));
+      fill((Object[]) builder.value, flat, 0);
+    } else {
+      // already primitive
+      flat = builder.value;
+      shape = new int[] {Array.getLength(flat)};
+    }
+
+    if (shape.length == 1 && builder.dimensions != null && builder.dimensions.length > 1
+        && count(builder.dimensions) == shape[0]) {
+      shape = builder.dimensions.clone();
+    }
+    dimensions = shape;
+
+    if (builder.mode == EdgeOpcUaCommon.ARRAY_VALUE_BUFFER
+        || builder.mode == EdgeOpcUaCommon.ARRAY_VALUE_DIRECT_BUFFER) {
+      array = null;
+      buffer = toBuffer(flat, builder.mode == EdgeOpcUaCommon.ARRAY_VALUE_DIRECT_BUFFER);
+    } else {
+      array = flat;
+      buffer = null;
+    }
+  }
+
+  /**
+   * check whether the value can be kept as EdgeArrayValue
+   * @param  value value
+   * @return true(array of built-in type with regular shape or ByteString) or false
+   */
+  public static boolean isSupported(Object value) {
+    return getElementType(value) != null
+        && (value instanceof Object[] == false || getShape((Object[]) value) != null);
+  }
+
+  private static EdgeNodeIdentifier getElementType(Object value) {
+    if (value instanceof ByteString) {
+      return EdgeNodeIdentifier.Byte;
+    } else if (value == null || value.getClass().isArray() == false) {
+      return null;
+    }
+    Class<?> elementClass = value.getClass().getComponentType();
+    while (elementClass.isArray()) {
+      elementClass = elementClass.getComponentType();
+    }
+    return ELEMENT_TYPES.get(elementClass);
+  }
+
+  private static int[] getShape(Object[] value) {
+    int rank = 1;
+    for (Object level = value; level instanceof Object[] && ((Object[]) level).length > 0
+        && ((Object[]) level)[0] instanceof Object[]; level = ((Object[]) level)[0]) {
+      rank++;
+    }
+    int[] shape = new int[rank];
+    Object level = value;
+    for (int i = 0; i < rank; i++) {
+      shape[i] = ((Object[]) level).length;
+      level = shape[i] > 0 ? ((Object[]) level)[0] : null;
+    }
+    // shape is taken from the first sub-arrays, so the other sub-arrays are checked against it
+    return isRegular(value, shape, 0) ? shape : null;
+  }
+
+  private static boolean isRegular(Object[] value, int[] shape, int depth) {
+    if (value.length != shape[depth]) {
+      return false;
+    }
+    for (Object element : value) {
+      if (depth + 1 < shape.length) {
+        if (element instanceof Object[] == false
+            || isRegular((Object[]) element, shape, depth + 1) == false) {
+          return false;
+        }
+      } else if (element != null && element.getClass().isArray()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int count(int[] shape) {
+    int count = 1;
+    for (int length : shape) {
+      count *= length;
+    }
+    return count;
+  }
+
+  private static Object newArray(EdgeNodeIdentifier type, int length) {
+    switch (type) {
+      case Double:
+        return new double[length];
+      case Float:
+        return new float[length];
+      case Int64:
+      case UInt32:
+      case UInt64:
+        return new long[length];
+      case Int32:
+      case UInt16:
+        return new int[length];
+      case Int16:
+        return new short[length];
+      case Boolean:
+        return new boolean[length];
+      default:
+        return new byte[length];
+    }
+  }
+
+  private static int fill(Object[] value, Object target, int offset) {
+    for (Object element : value) {
+      if (element instanceof Object[]) {
+        offset = fill((Object[]) element, target, offset);
+      } else if (element == null) {
+        offset++;
+      } else if (target instanceof double[]) {
+        ((double[]) target)[offset++] = ((Number) element).doubleValue();
+      } else if (target instanceof float[]) {
+        ((float[]) target)[offset++] = ((Number) element).floatValue();
+      } else if (target instanceof long[]) {
+        ((long[]) target)[offset++] = ((Number) element).longValue();
+      } else if (target instanceof int[]) {
+        ((int[]) target)[offset++] = ((Number) element).intValue();
+      } else if (target instanceof short[]) {
+        ((short[]) target)[offset++] = ((Number) element).shortValue();
+      } else if (target instanceof boolean[]) {
+        ((boolean[]) target)[offset++] = (Boolean) element;
+      } else {
+        ((byte[]) target)[offset++] = ((Number) element).byteValue();
+      }
+    }
+    return offset;
+  }
+
+  private static ByteBuffer toBuffer(Object flat, boolean direct) {
+    if (flat instanceof byte[] && direct == false) {
+      return ByteBuffer.wrap((byte[]) flat);
+    }
+
+    int length = Array.getLength(flat);
+    int size = flat instanceof double[] || flat instanceof long[] ? 8
+        : flat instanceof float[] || flat instanceof int[] ? 4 : flat instanceof short[] ? 2 : 1;
+    ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(length * size)
+        : ByteBuffer.allocate(length * size);
+    buffer.order(ByteOrder.nativeOrder());
+    if (flat instanceof double[]) {
+      buffer.asDoubleBuffer().put((double[]) flat);
+    } else if (flat instanceof float[]) {
+      buffer.asFloatBuffer().put((float[]) flat);
+    } else if (flat instanceof long[]) {
+      buffer.asLongBuffer().put((long[]) flat);
+    } else if (flat instanceof int[]) {
+      buffer.asIntBuffer().put((int[]) flat);
+    } else if (flat instanceof short[]) {
+      buffer.asShortBuffer().put((short[]) flat);
+    } else if (flat instanceof boolean[]) {
+      for (boolean element : (boolean[]) flat) {
+        buffer.put((byte) (element ? 1 : 0));
+      }
+      buffer.flip();
+    } else {
+      buffer.put((byte[]) flat);
+      buffer.flip();
+    }
+    return buffer;
+  }
+
+  /**
+   * get data type of elements (e.g. Double, Byte, UInt16)
+   * @return data type
+   */
+  public EdgeNodeIdentifier getType() {
+    return type;
+  }
+
+  /**
+   * get shape of value
+   * @return length of each dimension
+   */
+  public int[] getDimensions() {
+    return dimensions.clone();
+  }
+
+  /**
+   * get the number of elements
+   * @return the number of elements
+   */
+  public int getLength() {
+    return count(dimensions);
+  }
+
+  /**
+   * get elements as flat primitive array in row-major order. UByte is kept as byte, UInt16 as
+   *        int and UInt32/UInt64 as long.
+   * @return primitive array (null if value is kept as buffer)
+   */
+  public Object getArray() {
+    return array;
+  }
+
+  /**
+   * get elements as buffer in native byte order and row-major order
+   * @return buffer (null if value is kept as primitive array)
+   */
+  public ByteBuffer getBuffer() {
+    return buffer;
+  }
+}
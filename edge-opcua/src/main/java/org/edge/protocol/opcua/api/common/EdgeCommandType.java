@@ -31,7 +31,8 @@ public enum EdgeCommandType {
   CMD_GET_ENDPOINTS(7, "endpoint_discovery", "get endpoints from server"),
   CMD_BROWSE(8, "browse", "browse nodes from server"),
   CMD_METHOD(9, "method", "call method nodes from server"),
-  CMD_READ_SYNC(10, "read_sync", "read sync");
+  CMD_READ_SYNC(10, "read_sync", "read sync"),
+  CMD_HISTORY_READ(11, "history_read", "read history data from server");
   
 
   private int code;
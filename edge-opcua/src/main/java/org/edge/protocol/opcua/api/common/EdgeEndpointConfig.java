@@ -29,6 +29,14 @@ public class EdgeEndpointConfig {
   private int bindPort;
   private boolean viewNodeFlag;
   private int mode;
+  private int sessionPoolSize;
+  private int browsePathCacheSize;
+  private int registerNodesThreshold;
+  private int writeCoalesceWindow;
+  private int metadataCacheTtl;
+  private int arrayValueMode;
+  private int methodWorkerPoolSize;
+  private int methodQueueSize;
 
   public static class Builder {
     private int requestTimeout = 60000;
@@ -41,6 +49,14 @@ public class EdgeEndpointConfig {
     private String bindAddress = EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_ADDRESS.getValue();
     private int bindPort = 12686;
     private boolean viewNodeFlag = false;
+    private int sessionPoolSize = 1;
+    private int browsePathCacheSize = 10000;
+    private int registerNodesThreshold = 3;
+    private int writeCoalesceWindow = 0;
+    private int metadataCacheTtl = 600000;
+    private int arrayValueMode = EdgeOpcUaCommon.ARRAY_VALUE_BOXED;
+    private int methodWorkerPoolSize = 4;
+    private int methodQueueSize = 64;
 
     public Builder() {}
 
@@ -143,6 +159,101 @@ public class EdgeEndpointConfig {
       return this;
     }
 
+    /**
+     * set the number of sessions per endpoint(subscription traffic uses a dedicated session and
+     * read/write traffic is balanced over the others)
+     *
+     * @param  size number of sessions (minimum 1)
+     * @return this
+     */
+    public Builder setSessionPoolSize(int size) {
+      sessionPoolSize = Math.max(1, size);
+      return this;
+    }
+
+    /**
+     * set the maximum number of resolved browse paths kept per endpoint
+     *
+     * @param  size cache size
+     * @return this
+     */
+    public Builder setBrowsePathCacheSize(int size) {
+      browsePathCacheSize = Math.max(0, size);
+      return this;
+    }
+
+    /**
+     * set the access count after which a node is registered with RegisterNodes service
+     *
+     * @param  count access count (0 disables node registration)
+     * @return this
+     */
+    public Builder setRegisterNodesThreshold(int count) {
+      registerNodesThreshold = Math.max(0, count);
+      return this;
+    }
+
+    /**
+     * set the time for which writes are collected before they are sent in one Write request.
+     * writes to the same node in this time are coalesced and only the last value is written.
+     *
+     * @param  millis window (milliseconds, 0 sends writes which are already queued at once)
+     * @return this
+     */
+    public Builder setWriteCoalesceWindow(int millis) {
+      writeCoalesceWindow = Math.max(0, millis);
+      return this;
+    }
+
+    /**
+     * set the time for which metadata (DataType and static properties) of nodes is cached
+     *
+     * @param  millis time to live (milliseconds)
+     * @return this
+     */
+    public Builder setMetadataCacheTtl(int millis) {
+      metadataCacheTtl = Math.max(1, millis);
+      return this;
+    }
+
+    /**
+     * set representation of array values which are read from array items (ArrayItem, ImageItem,
+     * CubeItem and so on) or reported by subscriptions. with ARRAY_VALUE_PRIMITIVE,
+     * ARRAY_VALUE_BUFFER or ARRAY_VALUE_DIRECT_BUFFER of EdgeOpcUaCommon, a value is responded as
+     * EdgeArrayValue which has flat primitive array or ByteBuffer and shape from ArrayDimensions
+     * instead of boxed array.
+     *
+     * @param  mode representation (ARRAY_VALUE_BOXED by default)
+     * @return this
+     */
+    public Builder setArrayValueMode(int mode) {
+      arrayValueMode = mode;
+      return this;
+    }
+
+    /**
+     * set the number of threads which execute async method nodes on server side
+     *
+     * @param  size pool size
+     * @return this
+     */
+    public Builder setMethodWorkerPoolSize(int size) {
+      methodWorkerPoolSize = Math.max(1, size);
+      return this;
+    }
+
+    /**
+     * set the number of async method invocations which can wait for a worker thread. invocations
+     * over the limit are rejected with Bad_TooManyOperations.
+     *
+     * @param  size queue size
+     * @return this
+     */
+    public Builder setMethodQueueSize(int size) {
+      methodQueueSize = Math.max(1, size);
+      return this;
+    }
+
     /**
      * create EdgeEndpointConfig instance (builder)
      *
@@ -167,6 +278,14 @@ public class EdgeEndpointConfig {
     bindPort = builder.bindPort;
     viewNodeFlag = builder.viewNodeFlag;
     mode = builder.mode;
+    sessionPoolSize = builder.sessionPoolSize;
+    browsePathCacheSize = builder.browsePathCacheSize;
+    registerNodesThreshold = builder.registerNodesThreshold;
+    writeCoalesceWindow = builder.writeCoalesceWindow;
+    metadataCacheTtl = builder.metadataCacheTtl;
+    arrayValueMode = builder.arrayValueMode;
+    methodWorkerPoolSize = builder.methodWorkerPoolSize;
+    methodQueueSize = builder.methodQueueSize;
   }
 
   /**
@@ -258,4 +377,76 @@ public class EdgeEndpointConfig {
   public int getMode() {
     return mode;
   }
+
+  /**
+   * get the number of sessions per endpoint
+   *
+   * @return session pool size
+   */
+  public int getSessionPoolSize() {
+    return sessionPoolSize;
+  }
+
+  /**
+   * get the maximum number of resolved browse paths kept per endpoint
+   *
+   * @return browse path cache size
+   */
+  public int getBrowsePathCacheSize() {
+    return browsePathCacheSize;
+  }
+
+  /**
+   * get the access count after which a node is registered with RegisterNodes service
+   *
+   * @return access count (0 if node registration is disabled)
+   */
+  public int getRegisterNodesThreshold() {
+    return registerNodesThreshold;
+  }
+
+  /**
+   * get the time for which writes are collected before they are sent in one Write request
+   *
+   * @return window (milliseconds)
+   */
+  public int getWriteCoalesceWindow() {
+    return writeCoalesceWindow;
+  }
+
+  /**
+   * get the time for which metadata of nodes is cached
+   *
+   * @return time to live (milliseconds)
+   */
+  public int getMetadataCacheTtl() {
+    return metadataCacheTtl;
+  }
+
+  /**
+   * get representation of array values
+   *
+   * @return representation (ARRAY_VALUE_* of EdgeOpcUaCommon)
+   */
+  public int getArrayValueMode() {
+    return arrayValueMode;
+  }
+
+  /**
+   * get the number of threads which execute async method nodes
+   *
+   * @return pool size
+   */
+  public int getMethodWorkerPoolSize() {
+    return methodWorkerPoolSize;
+  }
+
+  /**
+   * get the number of async method invocations which can wait for a worker thread
+   *
+   * @return queue size
+   */
+  public int getMethodQueueSize() {
+    return methodQueueSize;
+  }
 }
@@ -20,6 +20,7 @@ package org.edge.protocol.opcua.api.common;
 
 import java.util.List;
 import org.edge.protocol.opcua.api.client.EdgeBrowseParameter;
+import org.edge.protocol.opcua.api.client.EdgeHistoryReadParameter;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 
 public class EdgeMessage {
@@ -32,6 +33,7 @@ public class EdgeMessage {
   private EdgeResult result;
   private EdgeBrowseParameter browseMsg;
   private List<EdgeBrowseResult> browseResult;
+  private EdgeHistoryReadParameter historyMsg;
 
   public static class Builder {
     private EdgeMessageType type = EdgeMessageType.SEND_REQUEST;
@@ -43,6 +45,7 @@ public class EdgeMessage {
     private EdgeResult result = null;
     private EdgeBrowseParameter browseMsg = null;
     private List<EdgeBrowseResult> browseResult = null;
+    private EdgeHistoryReadParameter historyMsg = null;
 
     public Builder(EdgeEndpointInfo endpointInfo) {
       this.endpointInfo = endpointInfo;
@@ -79,6 +82,16 @@ public class EdgeMessage {
       return this;
     }
 
+    /**
+     * set history read parameter
+     * @param  req parameter of history read
+     * @return this
+     */
+    public Builder setHistoryReadParameter(EdgeHistoryReadParameter req) {
+      this.historyMsg = req;
+      return this;
+    }
+
     /**
      * set browse result
      * @param  browseResult
@@ -153,6 +166,7 @@ public class EdgeMessage {
     result = builder.result;
     browseMsg = builder.browseMsg;
     browseResult = builder.browseResult;
+    historyMsg = builder.historyMsg;
     endpointInfo = builder.endpointInfo;
   }
 
@@ -188,6 +202,14 @@ public class EdgeMessage {
     return browseMsg;
   }
 
+  /**
+   * get history read parameter
+   * @return history read parameter
+   */
+  public EdgeHistoryReadParameter getHistoryReadParameter() {
+    return historyMsg;
+  }
+
   /**
    * get browse results
    * @return browse results
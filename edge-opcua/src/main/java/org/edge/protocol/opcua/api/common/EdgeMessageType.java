@@ -25,6 +25,7 @@ public enum EdgeMessageType {
   SERVER_INFO_PRODUCT_URI(1, "specific product uri for device"),
   GENERAL_RESPONSE(10, "General Data"),
   BROWSE_RESPONSE(11, "Browse Response"),
+  HISTORY_RESPONSE(12, "History Response"),
   REPORT(20, "Report Data"),
   SAMPLING(21, "Sampling Data"),
   SEND_REQUEST(30, "send message"),
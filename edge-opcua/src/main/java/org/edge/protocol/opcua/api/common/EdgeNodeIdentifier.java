@@ -2131,6 +2131,22 @@ public enum EdgeNodeIdentifier {
 
     private final Integer id;
 
+    // dense index of identifiers (numeric id -> identifier), built once on class loading
+    private static final EdgeNodeIdentifier[] identifiers;
+
+    static {
+        int max = 0;
+        for (EdgeNodeIdentifier identifier : values()) {
+            max = Math.max(max, identifier.id);
+        }
+        identifiers = new EdgeNodeIdentifier[max + 1];
+        for (EdgeNodeIdentifier identifier : values()) {
+            if (identifiers[identifier.id] == null) {
+                identifiers[identifier.id] = identifier;
+            }
+        }
+    }
+
     EdgeNodeIdentifier(Integer id) {
         this.id = id;
     }
@@ -2138,4 +2154,28 @@ public enum EdgeNodeIdentifier {
     public Integer value() {
         return id;
     }
+
+    /**
+     * get identifier of numeric id without scanning all identifiers
+     * @param  id numeric id of node
+     * @return identifier, or null if id is unknown
+     */
+    public static EdgeNodeIdentifier fromValue(int id) {
+        if (id < 0 || id >= identifiers.length) {
+            return null;
+        }
+        return identifiers[id];
+    }
+
+    /**
+     * get identifier of numeric identifier object of NodeId (e.g. UInteger)
+     * @param  identifier identifier object of NodeId
+     * @return identifier, or null if it is not numeric or unknown
+     */
+    public static EdgeNodeIdentifier fromValue(Object identifier) {
+        if (identifier instanceof Number) {
+            return fromValue(((Number) identifier).intValue());
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -60,6 +60,12 @@ public enum EdgeOpcUaCommon {
   public static final int CLIENT_MODE = 2;
   public static final int BOTH_MODE = 3;
 
+  // representation of array values in responses
+  public static final int ARRAY_VALUE_BOXED = 0;
+  public static final int ARRAY_VALUE_PRIMITIVE = 1;
+  public static final int ARRAY_VALUE_BUFFER = 2;
+  public static final int ARRAY_VALUE_DIRECT_BUFFER = 3;
+
   private EdgeOpcUaCommon(int code, String value, String description) {
     this.code = code;
     this.value = value;
@@ -0,0 +1,123 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.api.common;
+
+/**
+ * This class provide builder for polling group which reads requests of a group message cyclically
+ */
+public class EdgePollingGroup {
+  private final String name;
+  private final EdgeMessage message;
+  private final long cycleTime;
+  private final long jitter;
+
+  /**
+   * Nested class for build EdgePollingGroup
+   */
+  public static class Builder {
+    private final String name;
+    private final EdgeMessage message;
+    private long cycleTime = 1000;
+    private long jitter = 0;
+
+    /**
+     * CTOR
+     * @param  name name of polling group
+     * @param  message group message (SEND_REQUESTS) which is read in each cycle
+     */
+    public Builder(String name, EdgeMessage message) {
+      this.name = name;
+      this.message = message;
+    }
+
+    /**
+     * set cycle time
+     * @param  val cycle time (milliseconds)
+     * @return this
+     */
+    public Builder setCycleTime(long val) {
+      cycleTime = val;
+      return this;
+    }
+
+    /**
+     * set jitter. each cycle is started with random delay up to jitter so that groups with the
+     * same cycle time are not read at the same time.
+     * @param  val maximum jitter (milliseconds)
+     * @return this
+     */
+    public Builder setJitter(long val) {
+      jitter = val;
+      return this;
+    }
+
+    /**
+     * Build EdgePollingGroup
+     * @return EdgePollingGroup
+     */
+    public EdgePollingGroup build() {
+      return new EdgePollingGroup(this);
+    }
+  }
+
+  /**
+   * CTOR
+   * @param  builder
+   */
+  private EdgePollingGroup(Builder builder) {
+    name = builder.name;
+    message = builder.message;
+    cycleTime = builder.cycleTime;
+    jitter = builder.jitter;
+  }
+
+  /**
+   * get name of polling group
+   * @return name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * get group message
+   * @return message
+   */
+  public EdgeMessage getMessage() {
+    return message;
+  }
+
+  /**
+   * get cycle time
+   * @return cycle time (milliseconds)
+   */
+  public long getCycleTime() {
+    return cycleTime;
+  }
+
+  /**
+   * get maximum jitter
+   * @return jitter (milliseconds)
+   */
+  public long getJitter() {
+    return jitter;
+  }
+}
@@ -27,6 +27,7 @@ public class EdgeRequest {
   private final EdgeNodeInfo nodeInfo;
   private final int requestId;
   private final int returnDiagnostic;
+  private final String indexRange;
   private static Random random = new Random();
   private static int seed = Integer.MAX_VALUE;
 
@@ -36,6 +37,7 @@ public class EdgeRequest {
     private final EdgeNodeInfo nodeInfo;
     private int requestId = getRandom();
     private int returnDiagnostic = 0;
+    private String indexRange = null;
 
     public Builder(EdgeNodeInfo nodeInfo) {
       this.nodeInfo = nodeInfo;
@@ -71,6 +73,17 @@ public class EdgeRequest {
       return this;
     }
 
+    /**
+     * set index range to read or write only a part of array value (e.g. "100:199" or "0:9,2:3"
+     *        for a multi-dimensional array)
+     * @param  indexRange index range (NumericRange format of OPC UA)
+     * @return this
+     */
+    public Builder setIndexRange(String indexRange) {
+      this.indexRange = indexRange;
+      return this;
+    }
+
     /**
      * create EdgeRequest instance (builder)
      * @return EdgeRequest instance
@@ -90,6 +103,7 @@ public class EdgeRequest {
     subMsg = builder.subMsg;
     requestId = builder.requestId;
     returnDiagnostic = builder.returnDiagnostic;
+    indexRange = builder.indexRange;
   }
 
   /**
@@ -132,6 +146,14 @@ public class EdgeRequest {
     return returnDiagnostic;
   }
 
+  /**
+   * get index range of array value
+   * @return indexRange (null if whole value is requested)
+   */
+  public String getIndexRange() {
+    return indexRange;
+  }
+
   /**
    * get random integer value
    * @return random value
@@ -31,6 +31,9 @@ public enum EdgeStatusCode {
   STATUS_STOP_SERVER(7, ""),
   STATUS_STOP_CLIENT(8, ""),
   STATUS_SERVICE_RESULT_BAD(9, "service result is not good"),
+  STATUS_RECONNECTING(10, "session is lost and reconnect is scheduled"),
+  STATUS_CIRCUIT_OPEN(11, "endpoint is known to be down, requests are rejected"),
+  STATUS_REQUEST_TIMEOUT(12, "request is not completed within request timeout"),
   
   STATUS_ENQUEUE_ERROR(20, ""),
   STATUS_READ_LESS_RESPONSE(26, "Return fewer Results than the number of nodes specified in the nodesToRead parameter."),
@@ -57,6 +60,8 @@ public enum EdgeStatusCode {
   STATUS_VIEW_NOTINCLUDE_NODECLASS(68, "nodeclass is not include in browse description nodeclass mask"),
   STATUS_VIEW_BROWSERESULT_EMPTY(69, "browse result is empty"),
   STATUS_VIEW_BROWSEREQUEST_SIZEOVER(70, "browse request's size is over maximum size"),
+
+  STATUS_HISTORY_CONTINUATION(80, "history data has more pages"),
   
   STATUS_SUB_PUB_INTERVAL_DIFFERENCE(100, "check the revised value and if it is different to the requested"), 
   STATUS_SUB_LIFETIME_DIFFERENCE(101, "check the revised value and if it is different to the requested"),
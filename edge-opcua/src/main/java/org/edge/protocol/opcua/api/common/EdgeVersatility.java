@@ -21,36 +21,131 @@
 package org.edge.protocol.opcua.api.common;
 
 import java.sql.Date;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableMap;
 
 public class EdgeVersatility {
+  // built-in types of values, shared by all instances
+  private static final ImmutableMap<Class<?>, EdgeNodeIdentifier> BUILT_IN_TYPES =
+      ImmutableMap.<Class<?>, EdgeNodeIdentifier>builder()
+          .put(Long.class, EdgeNodeIdentifier.Int64).put(Float.class, EdgeNodeIdentifier.Float)
+          .put(Double.class, EdgeNodeIdentifier.Double).put(String.class, EdgeNodeIdentifier.String)
+          .put(Boolean.class, EdgeNodeIdentifier.Boolean).put(Byte.class, EdgeNodeIdentifier.Byte)
+          .put(Short.class, EdgeNodeIdentifier.Int16).put(Integer.class, EdgeNodeIdentifier.Integer)
+          .put(Date.class, EdgeNodeIdentifier.Date).put(long[].class, EdgeNodeIdentifier.Int64)
+          .put(float[].class, EdgeNodeIdentifier.Float)
+          .put(double[].class, EdgeNodeIdentifier.Double)
+          .put(boolean[].class, EdgeNodeIdentifier.Boolean)
+          .put(byte[].class, EdgeNodeIdentifier.Byte).put(short[].class, EdgeNodeIdentifier.Int16)
+          .put(int[].class, EdgeNodeIdentifier.Integer).build();
+
   private final Object value;
+  private final EdgeNodeIdentifier primitiveType;
+  private final long primitiveBits;
 
   public static class Builder {
-    private final Object value;
+    private Object value;
+    private EdgeNodeIdentifier primitiveType;
+    private long primitiveBits;
+
+    public Builder() {}
 
     public Builder(Object value) {
+      setValue(value);
+    }
+
+    /**
+     * set value. builder can be reused to build several instances without allocation of builder.
+     * @param  value value
+     * @return this
+     */
+    public Builder setValue(Object value) {
       try {
-        getClassType(value);
+        checkType(value);
       } catch (Exception e) {
         // TODO Auto-generated catch block
         e.printStackTrace();
       }
-      this.value = value;
+      return set(value, null, 0);
+    }
+
+    /**
+     * set double value without boxing
+     * @param  value value
+     * @return this
+     */
+    public Builder setDouble(double value) {
+      return set(null, EdgeNodeIdentifier.Double, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * set float value without boxing
+     * @param  value value
+     * @return this
+     */
+    public Builder setFloat(float value) {
+      return set(null, EdgeNodeIdentifier.Float, Float.floatToRawIntBits(value));
     }
 
-    private boolean isArray(Object value) {
-      return value.getClass().isArray();
+    /**
+     * set long value without boxing
+     * @param  value value
+     * @return this
+     */
+    public Builder setLong(long value) {
+      return set(null, EdgeNodeIdentifier.Int64, value);
+    }
+
+    /**
+     * set int value without boxing
+     * @param  value value
+     * @return this
+     */
+    public Builder setInt(int value) {
+      return set(null, EdgeNodeIdentifier.Integer, value);
+    }
+
+    /**
+     * set boolean value without boxing
+     * @param  value value
+     * @return this
+     */
+    public Builder setBoolean(boolean value) {
+      return set(null, EdgeNodeIdentifier.Boolean, value ? 1 : 0);
     }
 
-    private Class<?> getClassType(Object value) throws Exception {
-      Class<?> classType = isArray(value) ? value.getClass().getComponentType() : value.getClass();
-      if (EdgeVersatility.class.equals(classType)) {
+    /**
+     * set value. boxed double, float, long, int and boolean values are kept as primitive, so
+     *        that they can be read with getDouble, getLong etc. without unboxing.
+     * @param  value value
+     * @return this
+     */
+    public Builder setUnboxed(Object value) {
+      if (value instanceof Double) {
+        return setDouble((Double) value);
+      } else if (value instanceof Float) {
+        return setFloat((Float) value);
+      } else if (value instanceof Long) {
+        return setLong((Long) value);
+      } else if (value instanceof Integer) {
+        return setInt((Integer) value);
+      } else if (value instanceof Boolean) {
+        return setBoolean((Boolean) value);
+      }
+      return setValue(value);
+    }
+
+    private void checkType(Object value) throws Exception {
+      // instanceof is used instead of reflection, since it is checked for every value
+      if (value instanceof EdgeVersatility || value instanceof EdgeVersatility[]) {
         throw new IllegalArgumentException("EdgeVersatility cannot contain itself");
       }
+    }
 
-      return classType;
+    private Builder set(Object value, EdgeNodeIdentifier primitiveType, long primitiveBits) {
+      this.value = value;
+      this.primitiveType = primitiveType;
+      this.primitiveBits = primitiveBits;
+      return this;
     }
 
     /**
@@ -68,6 +163,8 @@ public class EdgeVersatility {
    */
   private EdgeVersatility(Builder builder) {
     value = builder.value;
+    primitiveType = builder.primitiveType;
+    primitiveBits = builder.primitiveBits;
   }
 
   /**
@@ -76,7 +173,10 @@ public class EdgeVersatility {
    * @return Node Identifier
    */
   public EdgeNodeIdentifier getVariableType() {
-    return BUILT_IN_TYPES.get(value.getClass());
+    if (primitiveType != null) {
+      return primitiveType;
+    }
+    return value != null ? BUILT_IN_TYPES.get(value.getClass()) : null;
   }
 
   /**
@@ -84,22 +184,96 @@ public class EdgeVersatility {
    * @return true(null) or false(not null)
    */
   public boolean isNull() {
-    return value == null;
+    return value == null && primitiveType == null;
   }
-  
+
   /**
-   * get value
+   * check whether the value is kept as primitive (double, float, long, int, boolean)
+   * @return true(primitive) or false(object)
+   */
+  public boolean isPrimitive() {
+    return primitiveType != null;
+  }
+
+  /**
+   * get value. primitive value is boxed when it is requested.
    * @return value
    */
   public Object getValue() {
-    return value;
+    if (primitiveType == null) {
+      return value;
+    } else if (primitiveType == EdgeNodeIdentifier.Double) {
+      return getDouble();
+    } else if (primitiveType == EdgeNodeIdentifier.Float) {
+      return getFloat();
+    } else if (primitiveType == EdgeNodeIdentifier.Int64) {
+      return getLong();
+    } else if (primitiveType == EdgeNodeIdentifier.Integer) {
+      return getInt();
+    } else {
+      return getBoolean();
+    }
   }
 
-  private final BiMap<Class<?>, EdgeNodeIdentifier> BUILT_IN_TYPES =
-      ImmutableBiMap.<Class<?>, EdgeNodeIdentifier>builder()
-          .put(Long.class, EdgeNodeIdentifier.Int64).put(Float.class, EdgeNodeIdentifier.Float)
-          .put(Double.class, EdgeNodeIdentifier.Double).put(String.class, EdgeNodeIdentifier.String)
-          .put(Boolean.class, EdgeNodeIdentifier.Boolean).put(Byte.class, EdgeNodeIdentifier.Byte)
-          .put(Short.class, EdgeNodeIdentifier.Int16).put(Integer.class, EdgeNodeIdentifier.Integer)
-          .put(Date.class, EdgeNodeIdentifier.Date).build();
+  /**
+   * get value as double without boxing
+   * @return value
+   */
+  public double getDouble() {
+    if (primitiveType == EdgeNodeIdentifier.Double) {
+      return Double.longBitsToDouble(primitiveBits);
+    } else if (primitiveType == EdgeNodeIdentifier.Float) {
+      return getFloat();
+    } else if (primitiveType != null) {
+      return getLong();
+    }
+    return ((Number) value).doubleValue();
+  }
+
+  /**
+   * get value as float without boxing
+   * @return value
+   */
+  public float getFloat() {
+    if (primitiveType == EdgeNodeIdentifier.Float) {
+      return Float.intBitsToFloat((int) primitiveBits);
+    } else if (primitiveType != null) {
+      return (float) getDouble();
+    }
+    return ((Number) value).floatValue();
+  }
+
+  /**
+   * get value as long without boxing
+   * @return value
+   */
+  public long getLong() {
+    if (primitiveType == EdgeNodeIdentifier.Double || primitiveType == EdgeNodeIdentifier.Float) {
+      return (long) getDouble();
+    } else if (primitiveType != null) {
+      return primitiveBits;
+    }
+    return ((Number) value).longValue();
+  }
+
+  /**
+   * get value as int without boxing
+   * @return value
+   */
+  public int getInt() {
+    return (int) getLong();
+  }
+
+  /**
+   * get value as boolean without boxing
+   * @return value
+   */
+  public boolean getBoolean() {
+    if (primitiveType == EdgeNodeIdentifier.Boolean) {
+      return primitiveBits != 0;
+    } else if (primitiveType != null) {
+      return getLong() != 0;
+    }
+    return (Boolean) value;
+  }
 }
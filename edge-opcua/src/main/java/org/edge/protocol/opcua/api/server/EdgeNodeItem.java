@@ -33,6 +33,8 @@ public class EdgeNodeItem {
   private boolean forward;
   private Object[][] variableItemSet;
   private EdgeNodeId sourceNodeId;
+  private boolean asyncInvocation;
+  private int maxConcurrentInvocations;
 
   public static class Builder {
     private final String browseName;
@@ -45,6 +47,8 @@ public class EdgeNodeItem {
     private EdgeNodeId sourceNodeId;
     private boolean forward = true;
     private Object[][] variableItemSet = null;
+    private boolean asyncInvocation = false;
+    private int maxConcurrentInvocations = 0;
 
     public Builder(String browseName) {
       this.browseName = browseName;
@@ -123,6 +127,28 @@ public class EdgeNodeItem {
       return this;
     }
 
+    /**
+     * set invocation mode of method node. with async invocation, the method is executed on the
+     *        method worker pool of the server instead of the thread which handles the request.
+     * @param  async flag of async invocation (false by default)
+     * @return Builder
+     */
+    public Builder setAsyncInvocation(boolean async) {
+      this.asyncInvocation = async;
+      return this;
+    }
+
+    /**
+     * set the number of invocations of async method node which can be executed at once.
+     *        invocations over the limit are rejected with Bad_TooManyOperations.
+     * @param  count max concurrent invocations (0 is limited by the method worker pool only)
+     * @return Builder
+     */
+    public Builder setMaxConcurrentInvocations(int count) {
+      this.maxConcurrentInvocations = Math.max(0, count);
+      return this;
+    }
+
     public EdgeNodeItem build() {
       return new EdgeNodeItem(this);
     }
@@ -139,6 +165,8 @@ public class EdgeNodeItem {
     userWriteMask = builder.userWriteMask;
     forward = builder.forward;
     sourceNodeId = builder.sourceNodeId;
+    asyncInvocation = builder.asyncInvocation;
+    maxConcurrentInvocations = builder.maxConcurrentInvocations;
   }
 
   /**
@@ -221,4 +249,20 @@ public class EdgeNodeItem {
   public EdgeNodeId getSourceNode() {
     return sourceNodeId;
   }
+
+  /**
+   * get invocation mode of method node
+   * @return boolean async invocation
+   */
+  public boolean getAsyncInvocation() {
+    return asyncInvocation;
+  }
+
+  /**
+   * get the number of invocations of async method node which can be executed at once
+   * @return max concurrent invocations (0 is limited by the method worker pool only)
+   */
+  public int getMaxConcurrentInvocations() {
+    return maxConcurrentInvocations;
+  }
 }
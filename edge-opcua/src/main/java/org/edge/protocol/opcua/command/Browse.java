@@ -113,7 +113,7 @@ public class Browse implements Command {
       EdgeAttributeProvider attributeProvider =
           EdgeServices.getAttributeProvider(EdgeOpcUaCommon.WELL_KNOWN_DISCOVERY.getValue());
       EdgeBrowseService service = attributeProvider.getBrowseService();
-      service.browse(indent, browseMsg);
+      service.browse(indent, browseMsg, msg);
     } catch (InterruptedException | ExecutionException e) {
       ErrorHandler.getInstance().addErrorMessage(browseMsg.getRequests().get(0).getEdgeNodeInfo(),
           new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
@@ -0,0 +1,91 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.edge.protocol.opcua.api.common.EdgeMessage;
+import org.edge.protocol.opcua.api.common.EdgeMessageType;
+import org.edge.protocol.opcua.api.common.EdgeRequest;
+import org.edge.protocol.opcua.api.common.EdgeResult;
+import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.edge.protocol.opcua.providers.EdgeAttributeProvider;
+import org.edge.protocol.opcua.providers.EdgeServices;
+import org.edge.protocol.opcua.providers.services.da.EdgeAttributeService;
+import org.edge.protocol.opcua.providers.services.history.EdgeHistoryReadService;
+import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class provide history read function
+ */
+public class HistoryRead implements Command {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+
+  /**
+   * execute with EdgeMessage
+   * @param  future result of execution
+   * @param  msg message of history read request
+   */
+  @Override
+  public void execute(CompletableFuture<EdgeResult> future, EdgeMessage msg) throws Exception {
+    EdgeResult ret = historyRead(msg);
+    if (ret != null && ret.getStatusCode() != EdgeStatusCode.STATUS_OK) {
+      EdgeRequest req = msg.getMessageType() == EdgeMessageType.SEND_REQUEST ? msg.getRequest()
+          : msg.getRequests().get(0);
+      ErrorHandler.getInstance().addErrorMessage(req.getEdgeNodeInfo(), ret,
+          req.getRequestId());
+    }
+    future.complete(ret);
+  }
+
+  /**
+   * history read with EdgeMessage
+   * @param  msg message
+   * @return EdgeResult result of history read request
+   */
+  private EdgeResult historyRead(EdgeMessage msg) throws Exception {
+    List<EdgeRequest> requests = new ArrayList<EdgeRequest>();
+    if (msg.getMessageType() == EdgeMessageType.SEND_REQUEST) {
+      logger.info("history read command - request id = {}", msg.getRequest().getRequestId());
+      requests.add(msg.getRequest());
+    } else if (msg.getMessageType() == EdgeMessageType.SEND_REQUESTS) {
+      logger.info("history read command - request size = {}", msg.getRequests().size());
+      requests.addAll(msg.getRequests());
+    } else {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    }
+
+    List<NodeId> nodeIds = new ArrayList<NodeId>(requests.size());
+    for (EdgeRequest req : requests) {
+      String serviceName = req.getEdgeNodeInfo().getValueAlias();
+      EdgeAttributeProvider attributeProvider = serviceName != null ? EdgeServices
+          .getAttributeProvider(serviceName, msg.getEdgeEndpointInfo().getEndpointUri()) : null;
+      EdgeAttributeService service =
+          attributeProvider != null ? attributeProvider.getAttributeService(serviceName) : null;
+      nodeIds.add(service != null ? service.getNodeId() : null);
+    }
+    return EdgeHistoryReadService.getInstance().historyRead(msg, nodeIds);
+  }
+}
@@ -20,13 +20,19 @@
 
 package org.edge.protocol.opcua.command;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.edge.protocol.opcua.api.common.EdgeCommandType;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
+import org.edge.protocol.opcua.api.common.EdgeMessageType;
+import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.edge.protocol.opcua.api.common.EdgeVersatility;
 import org.edge.protocol.opcua.providers.EdgeMethodProvider;
 import org.edge.protocol.opcua.providers.EdgeServices;
+import org.edge.protocol.opcua.providers.services.method.EdgeMethodCaller;
 import org.edge.protocol.opcua.providers.services.method.EdgeMethodService;
 import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.slf4j.Logger;
@@ -46,7 +52,8 @@ public class Method implements Command {
   @Override
   public void execute(CompletableFuture<EdgeResult> future, EdgeMessage msg) throws Exception {
     EdgeResult ret = method(msg);
-    if (ret != null && ret.getStatusCode() != EdgeStatusCode.STATUS_OK) {
+    if (ret != null && ret.getStatusCode() != EdgeStatusCode.STATUS_OK
+        && msg.getRequest() != null) {
       ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(), ret,
           msg.getRequest().getRequestId());
     }
@@ -62,6 +69,10 @@ public class Method implements Command {
     logger.info("method command");
 
     EdgeResult ret = null;
+
+    if (msg.getMessageType() == EdgeMessageType.SEND_REQUESTS) {
+      return methodGroup(msg);
+    }
    
     String methodName = msg.getRequest().getEdgeNodeInfo().getValueAlias();
     if (methodName.isEmpty()) {
@@ -82,4 +93,32 @@ public class Method implements Command {
     }
     return ret;
   }
+
+  /**
+   * call methods of all requests with batched Call service requests
+   * @param  msg message which has requests
+   * @return EdgeResult result of method requests
+   */
+  private EdgeResult methodGroup(EdgeMessage msg) {
+    if (msg.getCommand() != EdgeCommandType.CMD_METHOD) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    }
+    List<EdgeMethodService> services = new ArrayList<EdgeMethodService>();
+    for (EdgeRequest req : msg.getRequests()) {
+      String methodName = req.getEdgeNodeInfo().getValueAlias();
+      EdgeMethodProvider methodProvider =
+          methodName != null ? EdgeServices.getMethodProvider(methodName) : null;
+      services.add(methodProvider != null ? methodProvider.getMethodService(methodName) : null);
+    }
+    EdgeMethodCaller.getInstance().executeGroupAsync(msg, services).exceptionally(e -> {
+      logger.error("error invoking methods", e);
+      for (EdgeRequest req : msg.getRequests()) {
+        ErrorHandler.getInstance().addErrorMessage(req.getEdgeNodeInfo(),
+            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
+            new EdgeVersatility.Builder(e.getMessage()).build(), req.getRequestId());
+      }
+      return null;
+    });
+    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  }
 }
@@ -72,7 +72,8 @@ public class Read implements Command {
         System.out.println("key : " + key);
       }
       
-      EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName);
+      EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName,
+          msg.getEdgeEndpointInfo().getEndpointUri());
       service = attributeProvider.getAttributeService(serviceName);
     } else if (msg.getMessageType() == EdgeMessageType.SEND_REQUESTS) {
       serviceName = EdgeOpcUaCommon.WELL_KNOWN_GROUP.getValue();
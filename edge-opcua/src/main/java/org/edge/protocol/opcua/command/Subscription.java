@@ -62,7 +62,8 @@ public class Subscription implements Command {
    */
   private EdgeResult subscribe(EdgeMessage msg) throws Exception {
     String serviceName = msg.getRequest().getEdgeNodeInfo().getValueAlias();
-    EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName);
+    EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName,
+        msg.getEdgeEndpointInfo().getEndpointUri());
     EdgeAttributeService service = attributeProvider.getAttributeService(serviceName);
     EdgeMonitoredItemService sub = attributeProvider.getMonitoredItemService();
 
@@ -67,7 +67,8 @@ public class Write implements Command {
     if (msg.getMessageType() == EdgeMessageType.SEND_REQUEST) {
       logger.info("write command - request id = {}", msg.getRequest().getRequestId());
       serviceName = msg.getRequest().getEdgeNodeInfo().getValueAlias();
-      EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName);
+      EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName,
+          msg.getEdgeEndpointInfo().getEndpointUri());
       service = attributeProvider.getAttributeService(serviceName);
     } else if (msg.getMessageType() == EdgeMessageType.SEND_REQUESTS) {
       serviceName = EdgeOpcUaCommon.WELL_KNOWN_GROUP.getValue();
@@ -50,6 +50,7 @@ import org.edge.protocol.opcua.api.common.EdgeVersatility;
 import org.edge.protocol.opcua.api.server.EdgeArgumentType;
 import org.edge.protocol.opcua.api.server.EdgeNodeItem;
 import org.edge.protocol.opcua.api.server.EdgeReference;
+import org.edge.protocol.opcua.node.EdgeAsyncMethodHandler;
 import org.edge.protocol.opcua.node.EdgeNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -330,6 +331,17 @@ public class EdgeNamespace implements Namespace {
     return edgeNode.addMethodNode(item, methodObj, type);
   }
 
+  /**
+   * get invocation handler of async method node which has metrics of the method
+   * @param  browseName browse name of method node
+   * @return handler (null if the node is not async method node)
+   */
+  public EdgeAsyncMethodHandler getAsyncMethodHandler(String browseName) {
+    return getInvocationHandler(new NodeId(namespaceIndex, browseName))
+        .filter(handler -> handler instanceof EdgeAsyncMethodHandler)
+        .map(handler -> (EdgeAsyncMethodHandler) handler).orElse(null);
+  }
+
   @Override
   public void onDataItemsCreated(List<DataItem> arg0) {
     subscriptionModel.onDataItemsCreated(arg0);
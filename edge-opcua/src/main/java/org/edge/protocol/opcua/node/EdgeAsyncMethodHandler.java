@@ -0,0 +1,160 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.node;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.milo.opcua.sdk.server.api.MethodInvocationHandler;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invocation handler of async method node. The method is executed on EdgeMethodExecutor and the
+ * CallMethodResult is completed when it is done. It keeps the number of invocations of the method
+ * which are executed at once under its limit and collects timing metrics of the method.
+ */
+public class EdgeAsyncMethodHandler implements MethodInvocationHandler {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final MethodInvocationHandler handler;
+  private final Semaphore permits;
+  private final LongAdder invocations = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder totalTime = new LongAdder();
+  private final AtomicLong maxTime = new AtomicLong();
+
+  /**
+   * constructor
+   *
+   * @param  handler handler which executes the method
+   * @param  maxConcurrentInvocations max invocations executed at once (0 is not limited)
+   */
+  public EdgeAsyncMethodHandler(MethodInvocationHandler handler, int maxConcurrentInvocations) {
+    this.handler = handler;
+    this.permits = maxConcurrentInvocations > 0 ? new Semaphore(maxConcurrentInvocations) : null;
+  }
+
+  @Override
+  public void invoke(CallMethodRequest request, CompletableFuture<CallMethodResult> future) {
+    if (permits != null && permits.tryAcquire() == false) {
+      reject(request, future);
+      return;
+    }
+    try {
+      EdgeMethodExecutor.getInstance().execute(() -> execute(request, future));
+    } catch (RejectedExecutionException e) {
+      release();
+      reject(request, future);
+    }
+  }
+
+  private void execute(CallMethodRequest request, CompletableFuture<CallMethodResult> future) {
+    long start = System.nanoTime();
+    CompletableFuture<CallMethodResult> result = new CompletableFuture<CallMethodResult>();
+    result.whenComplete((r, e) -> {
+      long elapsed = System.nanoTime() - start;
+      release();
+      invocations.increment();
+      totalTime.add(elapsed);
+      maxTime.accumulateAndGet(elapsed, Math::max);
+      if (e != null || r.getStatusCode().isGood() == false) {
+        failures.increment();
+      }
+      if (e != null) {
+        future.completeExceptionally(e);
+      } else {
+        future.complete(r);
+      }
+    });
+    try {
+      handler.invoke(request, result);
+    } catch (Throwable e) {
+      logger.error("error invoking method {}", request.getMethodId(), e);
+      result.completeExceptionally(e);
+    }
+  }
+
+  private void release() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  private void reject(CallMethodRequest request, CompletableFuture<CallMethodResult> future) {
+    logger.info("method {} is busy, invocation is rejected", request.getMethodId());
+    rejections.increment();
+    future.complete(new CallMethodResult(new StatusCode(StatusCodes.Bad_TooManyOperations),
+        new StatusCode[0], null, null));
+  }
+
+  /**
+   * get the number of completed invocations
+   *
+   * @return invocation count
+   */
+  public long getInvocationCount() {
+    return invocations.sum();
+  }
+
+  /**
+   * get the number of completed invocations which failed
+   *
+   * @return failure count
+   */
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  /**
+   * get the number of invocations which were rejected by concurrency limit or full worker queue
+   *
+   * @return rejection count
+   */
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+
+  /**
+   * get average execution time of completed invocations
+   *
+   * @return average time (nanoseconds)
+   */
+  public long getAverageTime() {
+    long count = invocations.sum();
+    return count > 0 ? totalTime.sum() / count : 0;
+  }
+
+  /**
+   * get the longest execution time of completed invocations
+   *
+   * @return max time (nanoseconds)
+   */
+  public long getMaxTime() {
+    return maxTime.get();
+  }
+}
@@ -0,0 +1,115 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.node;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded worker pool which executes async method nodes on server side, so that slow methods do
+ * not block the threads which handle requests of clients.
+ */
+public class EdgeMethodExecutor {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static EdgeMethodExecutor executor = null;
+  private static Object lock = new Object();
+  private final AtomicInteger threadCount = new AtomicInteger();
+  private ThreadPoolExecutor workers = null;
+  private int poolSize = 4;
+  private int queueSize = 64;
+
+  private EdgeMethodExecutor() {}
+
+  /**
+   * get EdgeMethodExecutor Instance
+   *
+   * @return EdgeMethodExecutor Instance
+   */
+  public static EdgeMethodExecutor getInstance() {
+    synchronized (lock) {
+      if (null == executor) {
+        executor = new EdgeMethodExecutor();
+      }
+      return executor;
+    }
+  }
+
+  /**
+   * set size of worker pool. it is applied when the pool is created by the first invocation.
+   *
+   * @param  poolSize number of worker threads
+   * @param  queueSize number of invocations which can wait for a worker thread
+   */
+  public void configure(int poolSize, int queueSize) {
+    synchronized (lock) {
+      this.poolSize = Math.max(1, poolSize);
+      this.queueSize = Math.max(1, queueSize);
+      if (workers != null) {
+        workers.setCorePoolSize(this.poolSize);
+        workers.setMaximumPoolSize(this.poolSize);
+      }
+    }
+  }
+
+  /**
+   * execute task on worker pool
+   *
+   * @param  task task to execute
+   * @throws RejectedExecutionException if all workers are busy and the queue is full
+   */
+  public void execute(Runnable task) {
+    getWorkers().execute(task);
+  }
+
+  private ThreadPoolExecutor getWorkers() {
+    synchronized (lock) {
+      if (workers == null) {
+        workers = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(queueSize), r -> {
+              Thread thread = new Thread(r, "edge-method-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        workers.allowCoreThreadTimeOut(true);
+        logger.info("method worker pool size={}, queue size={}", poolSize, queueSize);
+      }
+      return workers;
+    }
+  }
+
+  /**
+   * close EdgeMethodExecutor Instance. invocations which are already queued are completed.
+   */
+  public void close() {
+    synchronized (lock) {
+      if (workers != null) {
+        workers.shutdown();
+        workers = null;
+      }
+      executor = null;
+    }
+  }
+}
@@ -224,7 +224,7 @@ public class EdgeNode {
         (String) item.getSourceNode().getIdentifier()));
     if (node != null) {
       logger.info("add method node ={}", node.getBrowseName());
-      addCustomMethodNode(node, item.getBrowseName(), methodObj, type);
+      addCustomMethodNode(node, item, methodObj, type);
     } else {
       logger.info("node is not available");
       code = EdgeStatusCode.STATUS_ERROR;
@@ -643,9 +643,10 @@ public class EdgeNode {
     }
   }
 
-  private EdgeResult addCustomMethodNode(UaNode pNode, String nodeName, Object method,
+  private EdgeResult addCustomMethodNode(UaNode pNode, EdgeNodeItem item, Object method,
       EdgeArgumentType type) {
     EdgeStatusCode code = EdgeStatusCode.STATUS_OK;
+    String nodeName = item.getBrowseName();
     UaMethodNode methodNode =
         UaMethodNode.builder(nodeManager).setNodeId(new NodeId(namespaceIndex, nodeName))
             .setBrowseName(new QualifiedName(namespaceIndex, nodeName))
@@ -671,7 +672,12 @@ public class EdgeNode {
           methodNode.setProperty(UaMethodNode.OutputArguments,
               invocationHandler.getOutputArguments());
         }
-        methodNode.setInvocationHandler(invocationHandler);
+        if (item.getAsyncInvocation()) {
+          methodNode.setInvocationHandler(new EdgeAsyncMethodHandler(invocationHandler,
+              item.getMaxConcurrentInvocations()));
+        } else {
+          methodNode.setInvocationHandler(invocationHandler);
+        }
 
         nodeManager.addNode(methodNode);
 
@@ -21,9 +21,13 @@ package org.edge.protocol.opcua.providers;
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.toList;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.function.BiFunction;
 import org.eclipse.milo.opcua.sdk.client.api.nodes.VariableNode;
 import org.eclipse.milo.opcua.stack.core.Identifiers;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
@@ -46,6 +50,7 @@ import org.edge.protocol.opcua.providers.services.browse.EdgeViewService;
 import org.edge.protocol.opcua.providers.services.da.EdgeAnalogItemService;
 import org.edge.protocol.opcua.providers.services.da.EdgeArrayItemService;
 import org.edge.protocol.opcua.providers.services.da.EdgeAttributeService;
+import org.edge.protocol.opcua.providers.services.da.EdgeCubeItemService;
 import org.edge.protocol.opcua.providers.services.da.EdgeDataItemService;
 import org.edge.protocol.opcua.providers.services.da.EdgeImageItemService;
 import org.edge.protocol.opcua.providers.services.da.EdgeMultiStateDiscreteService;
@@ -68,6 +73,28 @@ public class EdgeProviderGenerator {
   private static HashSet<String> visitedNode = new HashSet<String>();
   private static HashSet<String> visitedViewNode = new HashSet<String>();
   private static List<NodeId> viewNodeList = new ArrayList<NodeId>();
+  // service factory of Data Access types (type -> service)
+  private static final Map<EdgeNodeIdentifier, BiFunction<Integer, String, EdgeAttributeService>>
+      dataAccessServices = new EnumMap<EdgeNodeIdentifier,
+          BiFunction<Integer, String, EdgeAttributeService>>(EdgeNodeIdentifier.class);
+
+  static {
+    dataAccessServices.put(EdgeNodeIdentifier.DataItemType, EdgeDataItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.AnalogItemType, EdgeAnalogItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.ArrayItemType, EdgeArrayItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.ImageItemType, EdgeImageItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.CubeItemType, EdgeCubeItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.NDimensionArrayItemType,
+        EdgeNDimensionArrayItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.XYArrayItemType, EdgeXYArrayItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.YArrayItemType, EdgeYArrayItemService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.MultiStateDiscreteType,
+        EdgeMultiStateDiscreteService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.MultiStateValueDiscreteType,
+        EdgeMultiStateValueDiscreteService::new);
+    dataAccessServices.put(EdgeNodeIdentifier.TwoStateDiscreteType,
+        EdgeTwoStateDiscreteService::new);
+  }
 
   /**
    * get provider generator instance
@@ -89,16 +116,15 @@ public class EdgeProviderGenerator {
     return sb.toString();
   }
 
+  /**
+   * get variable node handle without reading its attributes. attributes are read from server
+   * when service accesses them at first.
+   * @param  id node id
+   * @param  client EdgeOpcUaClient instance
+   * @return variable node
+   */
   private static VariableNode getVariableNode(NodeId id, EdgeOpcUaClient client) {
-    try {
-      VariableNode v =
-          (VariableNode) client.getClientInstance().getAddressSpace().createNode(id).get();
-      return v;
-
-    } catch (InterruptedException | ExecutionException | NumberFormatException e) {
-      e.printStackTrace();
-    }
-    return null;
+    return client.getClientInstance().getAddressSpace().createVariableNode(id);
   }
 
   private static EdgeAttributeService generateServerService(NodeId id, EdgeOpcUaClient client) {
@@ -115,48 +141,16 @@ public class EdgeProviderGenerator {
   private static EdgeAttributeService generateDataAccessItemService(NodeId id,
       EdgeOpcUaClient client) {
     try {
-      int idIntValue = Integer.parseInt(id.getIdentifier().toString());
-
-      EdgeAttributeService service = null;
-      if (idIntValue == EdgeNodeIdentifier.AnalogItemType.value()) {
-        service =
-            new EdgeAnalogItemService(id.getNamespaceIndex().intValue(), client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.ImageItemType.value()) {
-        service = new EdgeImageItemService(id.getNamespaceIndex().intValue(), client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.DataItemType.value()) {
-        service = new EdgeDataItemService(id.getNamespaceIndex().intValue(), client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.ArrayItemType.value()) {
-        service = new EdgeArrayItemService(id.getNamespaceIndex().intValue(), client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.MultiStateDiscreteType.value()) {
-        service = new EdgeMultiStateDiscreteService(id.getNamespaceIndex().intValue(),
-            client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.MultiStateValueDiscreteType.value()) {
-        service = new EdgeMultiStateValueDiscreteService(id.getNamespaceIndex().intValue(),
-            client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.NDimensionArrayItemType.value()) {
-        service = new EdgeNDimensionArrayItemService(id.getNamespaceIndex().intValue(),
-            client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.TwoStateDiscreteType.value()) {
-        service = new EdgeTwoStateDiscreteService(id.getNamespaceIndex().intValue(),
-            client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.XYArrayItemType.value()) {
-        service =
-            new EdgeXYArrayItemService(id.getNamespaceIndex().intValue(), client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
-      } else if (idIntValue == EdgeNodeIdentifier.YArrayItemType.value()) {
-        service =
-            new EdgeYArrayItemService(id.getNamespaceIndex().intValue(), client.getEndpoint());
-        service.setProperty(getVariableNode(id, client));
+      EdgeNodeIdentifier type = EdgeNodeIdentifier.fromValue(id.getIdentifier());
+      BiFunction<Integer, String, EdgeAttributeService> factory =
+          type != null ? dataAccessServices.get(type) : null;
+      if (factory == null) {
+        return null;
       }
 
+      EdgeAttributeService service =
+          factory.apply(id.getNamespaceIndex().intValue(), client.getEndpoint());
+      service.setProperty(getVariableNode(id, client));
       return service;
     } catch (Exception e) {
       e.printStackTrace();
@@ -168,7 +162,7 @@ public class EdgeProviderGenerator {
     try {
       EdgeAttributeService service =
           new EdgeCustomService.Builder(id.getNamespaceIndex().intValue(),
-              id.getIdentifier().toString()).build();
+              id.getIdentifier().toString()).setNodeId(id).build();
       service.setProperty(getVariableNode(id, client));
       return service;
     } catch (Exception e) {
@@ -182,20 +176,11 @@ public class EdgeProviderGenerator {
     EdgeAttributeService service = null;
     String uri = null;
     if (id.getType() == IdType.Numeric) {
-      int idIntValue = Integer.parseInt(id.getIdentifier().toString());
-      if (idIntValue == EdgeNodeIdentifier.Server_ServerStatus_BuildInfo.value()) {
+      EdgeNodeIdentifier type = EdgeNodeIdentifier.fromValue(id.getIdentifier());
+      if (type == EdgeNodeIdentifier.Server_ServerStatus_BuildInfo) {
         uri = EdgeOpcUaCommon.WELL_KNOWN_SERVER_NODE.getValue();
         service = generateServerService(id, client);
-      } else if (idIntValue == EdgeNodeIdentifier.AnalogItemType.value()
-          || idIntValue == EdgeNodeIdentifier.ImageItemType.value()
-          || idIntValue == EdgeNodeIdentifier.DataItemType.value()
-          || idIntValue == EdgeNodeIdentifier.ArrayItemType.value()
-          || idIntValue == EdgeNodeIdentifier.MultiStateDiscreteType.value()
-          || idIntValue == EdgeNodeIdentifier.MultiStateValueDiscreteType.value()
-          || idIntValue == EdgeNodeIdentifier.NDimensionArrayItemType.value()
-          || idIntValue == EdgeNodeIdentifier.TwoStateDiscreteType.value()
-          || idIntValue == EdgeNodeIdentifier.XYArrayItemType.value()
-          || idIntValue == EdgeNodeIdentifier.YArrayItemType.value()) {
+      } else if (dataAccessServices.containsKey(type)) {
         // DataAccess Node
         uri = generateUri(uriStackTop);
         logger.debug("DataAccess(Numeric type) Node = " + browseName + ", " + uri);
@@ -357,6 +342,41 @@ public class EdgeProviderGenerator {
     return ret;
   }
 
+  /**
+   * generate providers of value aliases which are not registered by initializeProvider. value
+   *        alias is resolved as browse path (TranslateBrowsePathsToNodeIds) and the target node is
+   *        registered as custom node.
+   * @param  aliases value aliases
+   * @param  client EdgeOpcUaClient instance to resolve browse paths
+   * @return future which is completed when providers are registered
+   */
+  public CompletableFuture<Void> resolveAttributeProviders(List<String> aliases,
+      EdgeOpcUaClient client) {
+    List<String> unknownAliases = new ArrayList<String>();
+    for (String alias : aliases) {
+      if (alias != null && EdgeServices.hasAttributeProvider(alias) == false
+          && unknownAliases.contains(alias) == false) {
+        unknownAliases.add(alias);
+      }
+    }
+    if (unknownAliases.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return client.getPathResolver().resolve(unknownAliases).thenAccept(nodeIds -> {
+      for (int i = 0; i < unknownAliases.size(); i++) {
+        EdgeAttributeService service =
+            nodeIds.get(i) != null ? generateCustomService(nodeIds.get(i), client) : null;
+        if (service != null) {
+          logger.debug("resolved browse path = {}, {}", unknownAliases.get(i), nodeIds.get(i));
+          EdgeServices.registerAttributeProvider(unknownAliases.get(i),
+              new EdgeAttributeProvider(EdgeMonitoredItemService.getInstance(),
+                  EdgeBrowseService.getInstance())
+                      .registerAttributeService(unknownAliases.get(i), service));
+        }
+      }
+    });
+  }
+
   public void close() {
     providerGenerator = null;
   }
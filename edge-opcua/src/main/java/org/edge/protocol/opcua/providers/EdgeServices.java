@@ -19,13 +19,21 @@
 package org.edge.protocol.opcua.providers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
+import org.edge.protocol.opcua.session.EdgeSessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +50,11 @@ public class EdgeServices {
       new ConcurrentHashMap<String, EdgeViewProvider>();
   public static final String DEFAULT_PROVIDER_NAME =
       EdgeOpcUaCommon.WELL_KNOWN_SERVER_NODE.getValue();
+  // key values which could not be resolved as browse path (endpoint uri + key value). they are
+  // not resolved again for a while, so unknown key values do not send a request every time
+  private static final long UNRESOLVED_TTL = 10000;
+  private static final Cache<String, Boolean> unresolved = CacheBuilder.newBuilder()
+      .expireAfterWrite(UNRESOLVED_TTL, TimeUnit.MILLISECONDS).maximumSize(10000).build();
 
   /**
    * register new provider related attribute type of opcua.
@@ -75,6 +88,7 @@ public class EdgeServices {
    */
   public static void removeAttributeProvider() {
     attributeProviders.clear();
+    unresolved.invalidateAll();
   }
 
   /**
@@ -118,6 +132,44 @@ public class EdgeServices {
     return attributeProvider;
   }
 
+  /**
+   * check whether provider related attribute type of opcua is registered.
+   * @param  name provider key value
+   * @return true if provider is registered
+   */
+  public static boolean hasAttributeProvider(String name) {
+    return attributeProviders.containsKey(name);
+  }
+
+  /**
+   * get provider related attribute type of opcua. if it is not registered, the key value is
+   *        resolved as browse path on the endpoint and the provider is registered. the caller
+   *        waits for the request timeout of the endpoint at most, and key values which are not
+   *        resolved are not tried again for a while.
+   * @param  name provider key value
+   * @param  endpointUri endpoint uri to resolve the key value
+   * @return attribute type instance base on getAttributeProvider
+   */
+  public static EdgeAttributeProvider getAttributeProvider(String name, String endpointUri) {
+    EdgeOpcUaClient client = EdgeSessionManager.getInstance().getSession(endpointUri);
+    String key = endpointUri + name;
+    if (attributeProviders.containsKey(name) == false && client != null
+        && unresolved.getIfPresent(key) == null) {
+      try {
+        EdgeProviderGenerator.getInstance()
+            .resolveAttributeProviders(Collections.singletonList(name), client)
+            .get(client.getClientInstance().getConfig().getRequestTimeout().longValue(),
+                TimeUnit.MILLISECONDS);
+      } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        logger.info("browse path is not resolved : {}, {}", name, e.toString());
+      }
+      if (attributeProviders.containsKey(name) == false) {
+        unresolved.put(key, Boolean.TRUE);
+      }
+    }
+    return getAttributeProvider(name);
+  }
+
   /**
    * get provider related attribute type of opcua.
    * @param  name provider key value
@@ -0,0 +1,98 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.providers.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.milo.opcua.sdk.client.api.nodes.VariableNode;
+import org.edge.protocol.mapper.api.EdgeMapper;
+import org.edge.protocol.mapper.api.EdgeMapperCommon;
+import org.edge.protocol.opcua.api.common.EdgeIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AccessLevel attribute of a variable node which is read from the server on first use. The read
+ * does not block the caller, only one read is in flight at a time and a failed read is retried by
+ * the next load.
+ */
+public class EdgeAccessLevel {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static final int DEFAULT_ACCESS_LEVEL = 1;
+  private final AtomicReference<CompletableFuture<Integer>> future =
+      new AtomicReference<CompletableFuture<Integer>>();
+  private volatile VariableNode node = null;
+
+  /**
+   * set variable node of which access level is read
+   * @param  node variable node
+   */
+  public void setNode(VariableNode node) {
+    this.node = node;
+    future.set(null);
+  }
+
+  /**
+   * read access level of the node (result of the first successful read is kept)
+   * @return future of access level (default access level if there is no node or the read failed)
+   */
+  public CompletableFuture<Integer> load() {
+    CompletableFuture<Integer> current = future.get();
+    if (current != null) {
+      return current;
+    }
+    VariableNode v = node;
+    if (v == null) {
+      return CompletableFuture.completedFuture(DEFAULT_ACCESS_LEVEL);
+    }
+    CompletableFuture<Integer> created = new CompletableFuture<Integer>();
+    if (future.compareAndSet(null, created) == false) {
+      // another caller started the read (or it already failed and was cleared)
+      return load();
+    }
+    v.readAccessLevel().whenComplete((value, e) -> {
+      Object level = (e == null && value != null) ? value.getValue().getValue() : null;
+      if (level == null) {
+        logger.debug("read of access level failed : {}", e != null ? e.getMessage() : value);
+        future.compareAndSet(created, null);
+        created.complete(DEFAULT_ACCESS_LEVEL);
+        return;
+      }
+      created.complete(Integer.parseInt(level.toString()));
+    });
+    return created;
+  }
+
+  /**
+   * add access level to the mapper when it is read
+   * @param  mapper mapper of the node
+   */
+  public void addMappingData(EdgeMapper mapper) {
+    load().thenAccept(level -> {
+      try {
+        mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
+            EdgeIdentifier.convertAccessLevel(level));
+      } catch (Exception e) {
+        e.printStackTrace();
+      }
+    });
+  }
+}
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.sdk.client.api.nodes.VariableNode;
 import org.eclipse.milo.opcua.sdk.client.nodes.UaVariableNode;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
@@ -46,7 +47,6 @@ import org.edge.protocol.opcua.api.client.EdgeDiagnosticInfo;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -57,7 +57,9 @@ import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.api.common.EdgeVersatility;
 import org.edge.protocol.opcua.providers.services.da.EdgeAttributeService;
 import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.edge.protocol.opcua.session.EdgeTrafficClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,19 +67,32 @@ public class EdgeCustomService implements EdgeAttributeService {
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final int nameSpace;
   private final String browseName;
-  private int readAccessLevel = 1;
+  private final NodeId nodeId;
+  private final EdgeAccessLevel accessLevel = new EdgeAccessLevel();
   private String dataType = null;
   private EdgeMapper mapper = null;
 
   public static class Builder {
     private final int nameSpace;
     private final String browseName;
+    private NodeId nodeId = null;
 
     public Builder(int nameSpace, String browseName) {
       this.nameSpace = nameSpace;
       this.browseName = browseName;
     }
 
+    /**
+     * set node id of target node when its identifier is not string type (e.g. node id
+     * resolved from browse path)
+     * @param  nodeId node id
+     * @return this
+     */
+    public Builder setNodeId(NodeId nodeId) {
+      this.nodeId = nodeId;
+      return this;
+    }
+
     public EdgeCustomService build() {
       return new EdgeCustomService(this);
     }
@@ -86,6 +101,7 @@ public class EdgeCustomService implements EdgeAttributeService {
   private EdgeCustomService(Builder builder) {
     nameSpace = builder.nameSpace;
     browseName = builder.browseName;
+    nodeId = builder.nodeId != null ? builder.nodeId : new NodeId(nameSpace, browseName);
   }
 
   public String getBrowseName() {
@@ -115,16 +131,19 @@ public class EdgeCustomService implements EdgeAttributeService {
   public EdgeResult readSync(EdgeMessage msg) throws Exception {
     logger.debug("readSync - browseName={}", browseName);
     EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    NodeId nodeId = new NodeId(nameSpace, browseName);
     VariableNode vNode = null;
     boolean isGood = true;
+    EdgeOpcUaClient session =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    long start = System.nanoTime();
+    boolean recorded = false;
     try {
-      vNode =
-          EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri())
-              .getClientInstance().getAddressSpace().createVariableNode(nodeId);
+      vNode = session.getClientInstance().getAddressSpace().createVariableNode(nodeId);
       logger.debug("response : id={}, value={}, dataType={})",
           vNode.getNodeId().get().getIdentifier(), vNode.getValue().get(),
           vNode.getDataType().getNow(nodeId));
+      session.report(session.getClientInstance(), start, null);
+      recorded = true;
 
       EdgeEndpointInfo epInfo =
           new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
@@ -138,6 +157,9 @@ public class EdgeCustomService implements EdgeAttributeService {
 
     } catch (Exception ex) {
       logger.error("exception throw={}", ex.getMessage());
+      if (recorded == false) {
+        session.report(session.getClientInstance(), start, ex);
+      }
       isGood = false;
     }
     return new EdgeResult.Builder(isGood ? EdgeStatusCode.STATUS_OK : EdgeStatusCode.STATUS_ERROR)
@@ -154,44 +176,38 @@ public class EdgeCustomService implements EdgeAttributeService {
   }
 
   protected CompletableFuture<Map<String, Object>> writeData(EdgeMessage msg) {
-    WriteValue writeValue =
-        new WriteValue(new NodeId(nameSpace, browseName), AttributeId.Value.uid(), null,
-            new DataValue(new Variant(msg.getRequest().getMessage().getValue())));
-    return EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri())
-        .getClientInstance()
-
-        // TODO UA-milo commit
-        // .write(newArrayList(writeValue),
-        // UInteger.valueOf(msg.getRequest().getReturnDiagnostic()))
-
-        .write(newArrayList(writeValue)).thenApply(value -> {
-          StatusCode status = value.getResults()[0];
-          if (checkStatusGood(status) == false) {
-            String errorStatusCode = EdgeStatusCode.UNKNOWN_STATUS_CODE;
-            Optional<String[]> statusCodes = StatusCodes.lookup(status.getValue());
-            if (statusCodes.isPresent() == true) {
-              errorStatusCode = statusCodes.get()[0];
-            }
-            logger.error("error type : {}", errorStatusCode);
-            ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(),
-                new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-                new EdgeVersatility.Builder(errorStatusCode).build(),
-                msg.getRequest().getRequestId());
-            return null;
-          }
-          Map<String, Object> data = new HashMap<String, Object>();
-          data.put(EdgeNodeIdentifier.DiagnosticInfo.name(),
-              checkDiagnosticInfo(value.getResults().length, value.getDiagnosticInfos(),
-                  msg.getRequest().getReturnDiagnostic()));
-          data.put(EdgeNodeIdentifier.StatusCode.name(), value.getResults()[0]);
-          return data;
-        }).exceptionally(e -> {
-          logger.error("error type : {}", e.getMessage());
-          ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(),
-              new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-              new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-          return null;
-        });
+    EdgeOpcUaClient session =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    WriteValue writeValue = new WriteValue(nodeId, AttributeId.Value.uid(), null,
+        new DataValue(new Variant(msg.getRequest().getMessage().getValue())));
+
+    // write is coalesced and batched with other writes to the endpoint
+    return session.getWriteBatcher().write(writeValue).thenApply(status -> {
+      if (checkStatusGood(status) == false) {
+        String errorStatusCode = EdgeStatusCode.UNKNOWN_STATUS_CODE;
+        Optional<String[]> statusCodes = StatusCodes.lookup(status.getValue());
+        if (statusCodes.isPresent() == true) {
+          errorStatusCode = statusCodes.get()[0];
+        }
+        logger.error("error type : {}", errorStatusCode);
+        ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(),
+            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
+            new EdgeVersatility.Builder(errorStatusCode).build(),
+            msg.getRequest().getRequestId());
+        return null;
+      }
+      Map<String, Object> data = new HashMap<String, Object>();
+      data.put(EdgeNodeIdentifier.DiagnosticInfo.name(),
+          checkDiagnosticInfo(1, null, msg.getRequest().getReturnDiagnostic()));
+      data.put(EdgeNodeIdentifier.StatusCode.name(), status);
+      return data;
+    }).exceptionally(e -> {
+      logger.error("error type : {}", e.getMessage());
+      ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(),
+          new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
+          new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
+      return null;
+    });
   }
 
   /**
@@ -299,11 +315,13 @@ public class EdgeCustomService implements EdgeAttributeService {
   }
 
   protected boolean checkNaNData(DataValue value) {
-    if (value.getValue().getDataType().get().getIdentifier() == EdgeNodeIdentifier.Double) {
+    EdgeNodeIdentifier type = value.getValue().getDataType()
+        .map(nodeId -> EdgeNodeIdentifier.fromValue(nodeId.getIdentifier())).orElse(null);
+    if (type == EdgeNodeIdentifier.Double) {
       if (value.getValue().getValue().equals(Double.NaN)) {
         return false;
       }
-    } else if (value.getValue().getDataType().get().getIdentifier() == EdgeNodeIdentifier.Float) {
+    } else if (type == EdgeNodeIdentifier.Float) {
       if (value.getValue().getValue().equals(Float.NaN)) {
         return false;
       }
@@ -383,20 +401,23 @@ public class EdgeCustomService implements EdgeAttributeService {
 
     EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
     UaVariableNode node = new UaVariableNode(EdgeSessionManager.getInstance()
-        .getSession(msg.getEdgeEndpointInfo().getEndpointUri()).getClientInstance(),
-        new NodeId(nameSpace, browseName));
+        .getSession(msg.getEdgeEndpointInfo().getEndpointUri()).getClientInstance(), nodeId);
 
-    ReadValueId readValueId = new ReadValueId(new NodeId(nameSpace, browseName),
+    EdgeOpcUaClient session =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    OpcUaClient client = session.getClientInstance(EdgeTrafficClass.READ_WRITE);
+    ReadValueId readValueId = new ReadValueId(session.getNodeRegistry().lookup(client, nodeId),
         AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE);
 
-    CompletableFuture<Map<String, Object>> future =
-        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri())
+    long start = System.nanoTime();
+    CompletableFuture<Map<String, Object>> future = client
 
             // TODO UA-milo commit
             // .getClientInstance().read(maxAge, timestamp, newArrayList(readValueId),
             // UInteger.valueOf(msg.getRequest().getReturnDiagnostic()))
 
-            .getClientInstance().read(maxAge, timestamp, newArrayList(readValueId))
+            .read(maxAge, timestamp, newArrayList(readValueId))
+            .whenComplete((values, e) -> session.report(client, start, e))
             .thenApply(values -> {
               if (values.getResults().length < 1) { // Only 1 Request in this method
                 ErrorHandler.getInstance().addErrorMessage(ep,
@@ -494,12 +515,11 @@ public class EdgeCustomService implements EdgeAttributeService {
    * get mapper instance this function is provided metadata such as access-level, data-type.
    * @return mapper instance
    */
-  public EdgeMapper getMapper() {
+  public synchronized EdgeMapper getMapper() {
     if (mapper == null) {
       mapper = new EdgeMapper();
       try {
-        mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-            EdgeIdentifier.convertAccessLevel(this.readAccessLevel));
+        accessLevel.addMappingData(mapper);
 
         if (null != this.dataType) {
           mapper.addMappingData(EdgeMapperCommon.DEVICEOBJECT_ATTRIBUTE_DATATYPE.name(),
@@ -523,7 +543,7 @@ public class EdgeCustomService implements EdgeAttributeService {
   public void setProperty(VariableNode v) throws Exception {
     if (v == null)
       return;
-    readAccessLevel = Integer.parseInt(v.readAccessLevel().get().getValue().getValue().toString());
+    accessLevel.setNode(v);
     // for (EdgeNodeIdentifier id : EdgeNodeIdentifier.values()) {
     // if (id.value() ==
     // Integer.parseInt(v.getDataType().get().getIdentifier().toString())) {
@@ -536,6 +556,6 @@ public class EdgeCustomService implements EdgeAttributeService {
 
   @Override
   public NodeId getNodeId() {
-    return new NodeId(nameSpace, browseName);
+    return nodeId;
   }
 }
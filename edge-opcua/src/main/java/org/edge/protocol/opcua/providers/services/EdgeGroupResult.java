@@ -0,0 +1,254 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.providers.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.edge.protocol.opcua.api.ProtocolManager;
+import org.edge.protocol.opcua.api.client.EdgeResponse;
+import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
+import org.edge.protocol.opcua.api.common.EdgeMessage;
+import org.edge.protocol.opcua.api.common.EdgeMessageType;
+import org.edge.protocol.opcua.api.common.EdgeRequest;
+import org.edge.protocol.opcua.api.common.EdgeResult;
+import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.edge.protocol.opcua.api.common.EdgeVersatility;
+import org.edge.protocol.opcua.providers.EdgeAttributeProvider;
+import org.edge.protocol.opcua.providers.EdgeServices;
+import org.edge.protocol.opcua.providers.services.da.EdgeAttributeService;
+import org.edge.protocol.opcua.session.EdgeChunkedRequest;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class keeps explicit mapping between requests of group message and ReadValueIds sent to
+ * the server, and assembles one response message with values and errors of all requests.
+ */
+public class EdgeGroupResult {
+  private static final Logger logger = LoggerFactory.getLogger(EdgeGroupResult.class);
+
+  private final EdgeMessage msg;
+  private final List<EdgeAttributeService> services;
+  private final List<ReadValueId> readValueIds;
+  private final List<Integer> requestIndexes;
+
+  EdgeGroupResult(EdgeMessage msg, List<EdgeAttributeService> services,
+      List<ReadValueId> readValueIds) {
+    this.msg = msg;
+    this.services = services;
+    this.readValueIds = readValueIds;
+    this.requestIndexes = new ArrayList<Integer>(readValueIds.size());
+    for (int index = 0; index < readValueIds.size(); index++) {
+      if (readValueIds.get(index) != null) {
+        requestIndexes.add(index);
+      }
+    }
+  }
+
+  /**
+   * create group result with ReadValueId of each request
+   * @param  session EdgeOpcUaClient instance of endpoint
+   * @param  msg edge message set
+   * @return future of EdgeGroupResult
+   */
+  public static CompletableFuture<EdgeGroupResult> create(EdgeOpcUaClient session,
+      EdgeMessage msg) {
+    List<EdgeAttributeService> services = new ArrayList<EdgeAttributeService>();
+    List<CompletableFuture<ReadValueId>> futures =
+        new ArrayList<CompletableFuture<ReadValueId>>();
+    for (EdgeRequest req : msg.getRequests()) {
+      EdgeAttributeService service = getAttributeService(req);
+      services.add(service);
+      if (service == null) {
+        futures.add(CompletableFuture.completedFuture(null));
+        continue;
+      }
+      futures.add(service.getReadValueId(session, req).exceptionally(e -> {
+        logger.info("read value id is not available : {}", e.getMessage());
+        return null;
+      }));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+        .thenApply(v -> {
+          List<ReadValueId> ids = new ArrayList<ReadValueId>(futures.size());
+          for (CompletableFuture<ReadValueId> future : futures) {
+            ids.add(future.join());
+          }
+          return new EdgeGroupResult(msg, services, ids);
+        });
+  }
+
+  private static EdgeAttributeService getAttributeService(EdgeRequest req) {
+    String serviceName = req.getEdgeNodeInfo().getValueAlias();
+    EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName);
+    if (attributeProvider == null) {
+      return null;
+    }
+    return attributeProvider.getAttributeService(serviceName);
+  }
+
+  /**
+   * get ReadValueIds to send. the n-th ReadValueId belongs to request of getRequestIndex(n)
+   * @return ReadValueId list
+   */
+  public List<ReadValueId> getReadValueIds() {
+    List<ReadValueId> ids = new ArrayList<ReadValueId>(requestIndexes.size());
+    for (int index : requestIndexes) {
+      ids.add(readValueIds.get(index));
+    }
+    return ids;
+  }
+
+  /**
+   * get request index of ReadValueId
+   * @param  readIndex index in getReadValueIds
+   * @return index of request in message
+   */
+  public int getRequestIndex(int readIndex) {
+    return requestIndexes.get(readIndex);
+  }
+
+  /**
+   * get request of ReadValueId
+   * @param  readIndex index in getReadValueIds
+   * @return edge request
+   */
+  public EdgeRequest getRequest(int readIndex) {
+    return msg.getRequests().get(getRequestIndex(readIndex));
+  }
+
+  /**
+   * get responses of read. each request has value or error with status code of its item.
+   * @param  values values of getReadValueIds in the same order
+   * @return response list in order of requests
+   */
+  public List<EdgeResponse> getReadResponses(List<DataValue> values) {
+    List<EdgeResponse> responses = new ArrayList<EdgeResponse>(msg.getRequests().size());
+    int readIndex = 0;
+    // one builder is reused for all values of the group
+    EdgeVersatility.Builder message = new EdgeVersatility.Builder(null);
+    for (int index = 0; index < readValueIds.size(); index++) {
+      EdgeRequest req = msg.getRequests().get(index);
+      if (readValueIds.get(index) == null) {
+        responses.add(getErrorResponse(req, new StatusCode(StatusCodes.Bad_NotSupported)));
+        continue;
+      }
+      DataValue value = readIndex < values.size() ? values.get(readIndex) : null;
+      readIndex++;
+      if (value == null) {
+        responses.add(getErrorResponse(req, new StatusCode(StatusCodes.Bad_UnexpectedError)));
+      } else if (value.getStatusCode().isGood() == false) {
+        responses.add(getErrorResponse(req, value.getStatusCode()));
+      } else {
+        responses.add(new EdgeResponse.Builder(req.getEdgeNodeInfo(), req.getRequestId())
+            .setMessage(message.setValue(services.get(index).convertValue(req, value)).build())
+            .setResult(new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build())
+            .setDateTime(value.getSourceTime()).build());
+      }
+    }
+    if (readIndex != values.size()) {
+      logger.info("read result size is mismatched : {}, {}", readIndex, values.size());
+    }
+    return responses;
+  }
+
+  /**
+   * get responses of write. each request has status code of its item.
+   * @param  results status codes of getReadValueIds in the same order
+   * @return response list in order of requests
+   */
+  public List<EdgeResponse> getWriteResponses(List<StatusCode> results) {
+    List<EdgeResponse> responses = new ArrayList<EdgeResponse>(msg.getRequests().size());
+    int readIndex = 0;
+    for (int index = 0; index < readValueIds.size(); index++) {
+      EdgeRequest req = msg.getRequests().get(index);
+      if (readValueIds.get(index) == null) {
+        responses.add(getErrorResponse(req, new StatusCode(StatusCodes.Bad_NotSupported)));
+        continue;
+      }
+      StatusCode code = readIndex < results.size() ? results.get(readIndex) : null;
+      readIndex++;
+      if (code == null) {
+        responses.add(getErrorResponse(req, new StatusCode(StatusCodes.Bad_UnexpectedError)));
+      } else if (code.isGood() == false) {
+        responses.add(getErrorResponse(req, code));
+      } else {
+        responses.add(new EdgeResponse.Builder(req.getEdgeNodeInfo(), req.getRequestId())
+            .setMessage(new EdgeVersatility.Builder(code).build())
+            .setResult(new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build()).build());
+      }
+    }
+    if (readIndex != results.size()) {
+      logger.info("write result size is mismatched : {}, {}", readIndex, results.size());
+    }
+    return responses;
+  }
+
+  /**
+   * send error of the whole group (e.g. ReadValueIds or operation limits are not available) to
+   *        all requests in one response message
+   * @param  msg edge message set
+   * @param  cause exception of the group
+   */
+  public static void sendError(EdgeMessage msg, Throwable cause) {
+    send(msg, getErrorResponses(msg, cause));
+  }
+
+  static List<EdgeResponse> getErrorResponses(EdgeMessage msg, Throwable cause) {
+    StatusCode code = EdgeChunkedRequest.getStatusCode(cause);
+    List<EdgeResponse> responses = new ArrayList<EdgeResponse>(msg.getRequests().size());
+    for (EdgeRequest req : msg.getRequests()) {
+      responses.add(getErrorResponse(req, code));
+    }
+    return responses;
+  }
+
+  private static EdgeResponse getErrorResponse(EdgeRequest req, StatusCode code) {
+    return new EdgeResponse.Builder(req.getEdgeNodeInfo(), req.getRequestId())
+        .setMessage(new EdgeVersatility.Builder(code).build())
+        .setResult(new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR)
+            .setEndpoint(req.getEdgeNodeInfo()).build())
+        .build();
+  }
+
+  /**
+   * send responses of all requests in one response message
+   * @param  responses response list
+   */
+  public void send(List<EdgeResponse> responses) {
+    send(msg, responses);
+  }
+
+  private static void send(EdgeMessage msg, List<EdgeResponse> responses) {
+    EdgeEndpointInfo epInfo =
+        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
+            .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
+    EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
+        .setMessageType(EdgeMessageType.GENERAL_RESPONSE).setResponses(responses).build();
+    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
+  }
+}
@@ -18,37 +18,33 @@
 
 package org.edge.protocol.opcua.providers.services;
 
-import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.toList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.sdk.client.api.nodes.VariableNode;
-import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
-import org.eclipse.milo.opcua.stack.core.types.structured.WriteResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
 import org.edge.protocol.mapper.api.EdgeMapper;
-import org.edge.protocol.opcua.api.ProtocolManager;
-import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
-import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
-import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
-import org.edge.protocol.opcua.api.common.EdgeVersatility;
-import org.edge.protocol.opcua.providers.EdgeAttributeProvider;
-import org.edge.protocol.opcua.providers.EdgeServices;
+import org.edge.protocol.opcua.providers.EdgeProviderGenerator;
 import org.edge.protocol.opcua.providers.services.da.EdgeAttributeService;
-import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.edge.protocol.opcua.providers.services.da.EdgeDataItemService;
+import org.edge.protocol.opcua.session.EdgeChunkedRequest;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.edge.protocol.opcua.session.EdgeTrafficClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +52,7 @@ public class EdgeGroupService implements EdgeAttributeService {
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private static EdgeGroupService service = null;
   private static Object lock = new Object();
+  private static final int MAX_CHUNKS_IN_FLIGHT = 4;
   private double maxAge = 0.0;
 
   /**
@@ -71,26 +68,66 @@ public class EdgeGroupService implements EdgeAttributeService {
     }
   }
 
-  private CompletableFuture<List<DataValue>> readData(String endpointUri, EdgeMessage messages) {
-    List<NodeId> nodeIds = new ArrayList<NodeId>();
+  private CompletableFuture<Void> resolveAttributeProviders(EdgeOpcUaClient session,
+      EdgeMessage messages) {
+    List<String> aliases = new ArrayList<String>();
     for (EdgeRequest req : messages.getRequests()) {
-      // get NodoID from each services
-      String serviceName = req.getEdgeNodeInfo().getValueAlias();
-      EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName);
-      EdgeAttributeService service = attributeProvider.getAttributeService(serviceName);
-      EdgeNodeIdentifier nodeType = null;
-      try {
-        nodeType = service.getNodeType();
-      } catch (Exception e) {
-        // TODO Auto-generated catch block
-        e.printStackTrace();
-      }
-      if (nodeType == EdgeNodeIdentifier.Edge_Node_Custom_Type) {
-        nodeIds.add(service.getNodeId());
-      }
+      aliases.add(req.getEdgeNodeInfo().getValueAlias());
     }
-    return EdgeSessionManager.getInstance().getSession(endpointUri).getClientInstance()
-        .readValues(maxAge, TimestampsToReturn.Both, nodeIds);
+    return EdgeProviderGenerator.getInstance().resolveAttributeProviders(aliases, session);
+  }
+
+  private CompletableFuture<EdgeGroupResult> getGroupResult(EdgeOpcUaClient session,
+      EdgeMessage messages) {
+    return resolveAttributeProviders(session, messages)
+        .thenCompose(v -> EdgeGroupResult.create(session, messages));
+  }
+
+  private CompletableFuture<List<DataValue>> readData(EdgeOpcUaClient session,
+      EdgeGroupResult group) {
+    return session.getOperationLimits().load()
+        .thenCompose(limits -> EdgeChunkedRequest.send(group.getReadValueIds(),
+            limits.getMaxNodesPerRead(), MAX_CHUNKS_IN_FLIGHT, chunk -> readChunk(session, chunk),
+            (id, e) -> new DataValue(EdgeChunkedRequest.getStatusCode(e))));
+  }
+
+  private CompletableFuture<List<DataValue>> readChunk(EdgeOpcUaClient session,
+      List<ReadValueId> ids) {
+    OpcUaClient client = session.getClientInstance(EdgeTrafficClass.READ_WRITE);
+    List<ReadValueId> registered = new ArrayList<ReadValueId>(ids.size());
+    for (ReadValueId id : ids) {
+      registered.add(new ReadValueId(session.getNodeRegistry().lookup(client, id.getNodeId()),
+          id.getAttributeId(), id.getIndexRange(), id.getDataEncoding()));
+    }
+    long start = System.nanoTime();
+    return client.read(maxAge, TimestampsToReturn.Both, registered)
+        .whenComplete((response, e) -> session.report(client, start, e))
+        .thenApply(response -> toList(response.getResults()));
+  }
+
+  /**
+   * read data for requests and send one response message
+   * @param  msg edge message set
+   * @return future which is completed when the response message is sent
+   */
+  public CompletableFuture<Void> read(EdgeMessage msg) {
+    String endpointUri = msg.getEdgeEndpointInfo().getEndpointUri();
+    EdgeOpcUaClient session = EdgeSessionManager.getInstance().getSession(endpointUri);
+    if (checkIndexRange(msg) == false) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    // good values and errors of each request are sent together in one response message. when
+    // the whole group fails, each request gets the error in one response message as well
+    return getGroupResult(session, msg)
+        .thenCompose(group -> readData(session, group)
+            .thenAccept(values -> group.send(group.getReadResponses(values))))
+        .whenComplete((v, e) -> {
+          if (e != null) {
+            logger.info("group read is failed : {}", e.getMessage());
+            EdgeGroupResult.sendError(msg, e);
+          }
+        });
   }
 
   /**
@@ -100,42 +137,11 @@ public class EdgeGroupService implements EdgeAttributeService {
    */
   @Override
   public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    // TODO Auto-generated method stub
-    String endpointUri = msg.getEdgeEndpointInfo().getEndpointUri();
-    List<EdgeResponse> responses = new ArrayList<EdgeResponse>();
-
-    readData(endpointUri, msg).thenAccept(values -> {
-
-      int index = 0;
-      for (DataValue var : values) {
-        logger.info("response size={}, var={} result={}", values.size(), var.getValue().getValue(),
-            var.getStatusCode());
-
-        if (var.getStatusCode().isGood() == false) {
-          ErrorHandler.getInstance().addErrorMessage(msg.getRequests().get(index).getEdgeNodeInfo(),
-              new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-              new EdgeVersatility.Builder(var.getStatusCode()).build(),
-              msg.getRequests().get(index).getRequestId());
-          continue;
-        }
-        responses.add(new EdgeResponse.Builder(msg.getRequests().get(index).getEdgeNodeInfo(),
-            msg.getRequests().get(index).getRequestId())
-                .setMessage(new EdgeVersatility.Builder(var.getValue().getValue()).build())
-                .build());
-        index++;
-      }
-
-      EdgeEndpointInfo epInfo =
-          new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-              .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-      EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-          .setMessageType(EdgeMessageType.GENERAL_RESPONSE).setResponses(responses).build();
-      ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-
-    }).exceptionally(e -> {
-      logger.info("error type : {}", e.getMessage());
-      return null;
-    });
+    if (checkIndexRange(msg) == false) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    }
+    // errors are sent to requests by read()
+    read(msg);
     logger.info("readAsyc is called");
     return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
   }
@@ -147,30 +153,26 @@ public class EdgeGroupService implements EdgeAttributeService {
     return null;
   }
 
-  private CompletableFuture<WriteResponse> writeData(String endpointUri, EdgeMessage messages)
-      throws InterruptedException, ExecutionException {
-    List<WriteValue> wrtievalue = new ArrayList<WriteValue>();
+  private static boolean checkIndexRange(EdgeMessage msg) {
+    boolean valid = true;
+    for (EdgeRequest req : msg.getRequests()) {
+      valid &= EdgeDataItemService.checkIndexRange(req, req.getIndexRange());
+    }
+    return valid;
+  }
 
-    for (EdgeRequest req : messages.getRequests()) {
-      // get NodoID from each services
-      String serviceName = req.getEdgeNodeInfo().getValueAlias();
-      EdgeAttributeProvider attributeProvider = EdgeServices.getAttributeProvider(serviceName);
-      EdgeAttributeService service = attributeProvider.getAttributeService(serviceName);
-      EdgeNodeIdentifier nodeType = null;
-      try {
-        nodeType = service.getNodeType();
-      } catch (Exception e) {
-        // TODO Auto-generated catch block
-        e.printStackTrace();
-      }
-      if (nodeType == EdgeNodeIdentifier.Edge_Node_Custom_Type) {
-        logger.info("value = {}", req.getMessage().getValue());
-        wrtievalue.add(new WriteValue(service.getNodeId(), uint(AttributeId.Value.id()), null,
-            new DataValue(new Variant(req.getMessage().getValue()))));
-      }
+  private CompletableFuture<List<StatusCode>> writeData(EdgeOpcUaClient session,
+      EdgeGroupResult group) {
+    List<ReadValueId> ids = group.getReadValueIds();
+    List<WriteValue> wrtievalue = new ArrayList<WriteValue>(ids.size());
+    for (int index = 0; index < ids.size(); index++) {
+      EdgeRequest req = group.getRequest(index);
+      logger.info("value = {}", req.getMessage().getValue());
+      ReadValueId id = ids.get(index);
+      wrtievalue.add(new WriteValue(id.getNodeId(), id.getAttributeId(), id.getIndexRange(),
+          new DataValue(new Variant(req.getMessage().getValue()))));
     }
-    return EdgeSessionManager.getInstance().getSession(endpointUri).getClientInstance()
-        .write(wrtievalue);
+    return session.getWriteBatcher().write(wrtievalue);
   }
 
   /**
@@ -181,60 +183,22 @@ public class EdgeGroupService implements EdgeAttributeService {
   @Override
   public EdgeResult write(EdgeMessage msg) throws Exception {
     String endpointUri = msg.getEdgeEndpointInfo().getEndpointUri();
-    List<EdgeResponse> responses = new ArrayList<EdgeResponse>();
-
-    writeData(endpointUri, msg).thenApply(response -> {
-
-      boolean isError = false;
-      EdgeStatusCode statusCode = EdgeStatusCode.STATUS_OK;
-      if (response.getResults().length == 0) {
-        statusCode = EdgeStatusCode.STATUS_WRITE_EMPTY_RESULT;
-        isError = true;
-      } else if (msg.getRequests().size() > response.getResults().length) {
-        statusCode = EdgeStatusCode.STATUS_WRITE_LESS_RESPONSE;
-        isError = true;
-      } else if (msg.getRequests().size() < response.getResults().length) {
-        statusCode = EdgeStatusCode.STATUS_WRITE_TOO_MANY_RESPONSE;
-        isError = true;
-      }
-
-      if (isError == true) {
-        ErrorHandler.getInstance().addErrorMessage(msg.getRequests().get(0).getEdgeNodeInfo(),
-            new EdgeResult.Builder(statusCode).build(), msg.getRequests().get(0).getRequestId());
-      } else {
-        int index = 0;
-        for (StatusCode code : response.getResults()) {
-          logger.info("response status code={}", code);
-
-          if (code.isGood() != true) {
-            ErrorHandler.getInstance().addErrorMessage(
-                msg.getRequests().get(index).getEdgeNodeInfo(),
-                new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-                new EdgeVersatility.Builder(code).build(),
-                msg.getRequests().get(index).getRequestId());
-            if (response.getResponseHeader().getServiceResult().isGood() != true) {
-              continue;
-            }
-
-          }
-          responses.add(new EdgeResponse.Builder(msg.getRequests().get(index).getEdgeNodeInfo(),
-              msg.getRequests().get(index).getRequestId())
-                  .setMessage(new EdgeVersatility.Builder(code).build()).build());
-          index++;
-        }
+    EdgeOpcUaClient session = EdgeSessionManager.getInstance().getSession(endpointUri);
+    if (msg.getRequests() == null || msg.getRequests().isEmpty()) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_WRITE_EMPTY_RESULT).build();
+    } else if (checkIndexRange(msg) == false) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    }
 
-        EdgeEndpointInfo epInfo =
-            new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-        EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-            .setMessageType(EdgeMessageType.GENERAL_RESPONSE).setResponses(responses).build();
-        ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-      }
-      return new EdgeResult.Builder(statusCode).build();
-    }).exceptionally(e -> {
-      logger.info("error type : {}", e.getMessage());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    });
+    // status of each request (good or not) is sent together in one response message
+    getGroupResult(session, msg)
+        .thenCompose(group -> writeData(session, group)
+            .thenAccept(results -> group.send(group.getWriteResponses(results))))
+        .exceptionally(e -> {
+          logger.info("group write is failed : {}", e.getMessage());
+          EdgeGroupResult.sendError(msg, e);
+          return null;
+        });
     logger.info("write is called");
     return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
   }
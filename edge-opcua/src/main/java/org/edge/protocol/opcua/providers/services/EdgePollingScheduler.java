@@ -0,0 +1,244 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.providers.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import org.edge.protocol.opcua.api.common.EdgeMessage;
+import org.edge.protocol.opcua.api.common.EdgePollingGroup;
+import org.edge.protocol.opcua.api.common.EdgeResult;
+import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.edge.protocol.opcua.session.EdgeHealthMonitor;
+import org.edge.protocol.opcua.session.EdgeReconnectSupervisor;
+import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls read groups cyclically as an alternative to subscriptions. All groups share one hashed
+ * wheel timer, a cycle is skipped (and counted as overrun) when the read of the previous cycle is
+ * still in flight, and cycle metrics are kept in the shared metric registry under
+ * "edge.opcua.polling.[group name].*".
+ */
+public class EdgePollingScheduler {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static EdgePollingScheduler scheduler = null;
+  private static Object lock = new Object();
+  private static final String[] METRIC_NAMES = {"cycle", "overruns", "errors"};
+  private static final long TICK_DURATION = 10;
+  private static final int TICKS_PER_WHEEL = 512;
+  private final ConcurrentMap<String, PollingTask> tasks =
+      new ConcurrentHashMap<String, PollingTask>();
+  private HashedWheelTimer timer = null;
+
+  private EdgePollingScheduler() {}
+
+  /**
+   * get EdgePollingScheduler instance
+   * @return EdgePollingScheduler instance
+   */
+  public static EdgePollingScheduler getInstance() {
+    synchronized (lock) {
+      if (null == scheduler) {
+        scheduler = new EdgePollingScheduler();
+      }
+      return scheduler;
+    }
+  }
+
+  private synchronized HashedWheelTimer getTimer() {
+    if (null == timer) {
+      timer = new HashedWheelTimer(r -> {
+        Thread thread = new Thread(r, "edge-polling-scheduler");
+        thread.setDaemon(true);
+        return thread;
+      }, TICK_DURATION, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+    }
+    return timer;
+  }
+
+  /**
+   * start polling of the group
+   * @param  group polling group
+   * @return result
+   */
+  public EdgeResult start(EdgePollingGroup group) {
+    if (group == null || group.getName() == null || group.getMessage() == null
+        || group.getMessage().getEdgeEndpointInfo() == null
+        || group.getMessage().getEdgeEndpointInfo().getEndpointUri() == null
+        || group.getMessage().getRequests() == null || group.getMessage().getRequests().isEmpty()
+        || group.getCycleTime() <= 0 || group.getJitter() < 0) {
+      logger.info("polling group is invalid");
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    }
+    PollingTask task = new PollingTask(group);
+    if (tasks.putIfAbsent(group.getName(), task) != null) {
+      logger.info("polling group is already started : {}", group.getName());
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ALREADY_INIT).build();
+    }
+    task.schedule(getTimer());
+    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  }
+
+  /**
+   * stop polling of the group
+   * @param  name name of polling group
+   * @return result
+   */
+  public EdgeResult stop(String name) {
+    PollingTask task = name != null ? tasks.remove(name) : null;
+    if (task == null) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    }
+    task.cancel();
+    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  }
+
+  /**
+   * get the number of cycles which are skipped because the previous cycle was still in flight
+   * @param  name name of polling group
+   * @return overrun count
+   */
+  public long getOverrunCount(String name) {
+    PollingTask task = tasks.get(name);
+    return task != null ? task.overruns.getCount() : 0;
+  }
+
+  /**
+   * stop polling of all groups and the timer
+   */
+  public void close() {
+    for (String name : tasks.keySet()) {
+      stop(name);
+    }
+    synchronized (this) {
+      if (timer != null) {
+        timer.stop();
+        timer = null;
+      }
+    }
+  }
+
+  private class PollingTask implements TimerTask {
+    private final EdgePollingGroup group;
+    private final String prefix;
+    private final long cycle;
+    private final AtomicBoolean inFlight = new AtomicBoolean(false);
+    private final Timer cycleTime;
+    private final Counter overruns;
+    private final Counter errors;
+    private volatile Timeout timeout = null;
+    private volatile boolean cancelled = false;
+    private long nextCycle;
+
+    private PollingTask(EdgePollingGroup group) {
+      MetricRegistry registry = EdgeHealthMonitor.getMetricRegistry();
+      this.group = group;
+      this.prefix = "edge.opcua.polling." + group.getName() + ".";
+      this.cycle = TimeUnit.MILLISECONDS.toNanos(group.getCycleTime());
+      this.cycleTime = registry.timer(prefix + METRIC_NAMES[0]);
+      this.overruns = registry.counter(prefix + METRIC_NAMES[1]);
+      this.errors = registry.counter(prefix + METRIC_NAMES[2]);
+      this.nextCycle = System.nanoTime();
+    }
+
+    private void schedule(HashedWheelTimer wheel) {
+      long jitter = group.getJitter() > 0
+          ? TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(group.getJitter()))
+          : 0;
+      long delay = Math.max(0, nextCycle - System.nanoTime()) + jitter;
+      timeout = wheel.newTimeout(this, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void cancel() {
+      cancelled = true;
+      Timeout current = timeout;
+      if (current != null) {
+        current.cancel();
+      }
+      for (String name : METRIC_NAMES) {
+        EdgeHealthMonitor.getMetricRegistry().remove(prefix + name);
+      }
+    }
+
+    @Override
+    public void run(Timeout current) throws Exception {
+      if (cancelled) {
+        return;
+      }
+      // cycles are kept on the nominal schedule, cycles which the timer missed are not caught up
+      long now = System.nanoTime();
+      nextCycle += cycle;
+      if (nextCycle < now) {
+        nextCycle += ((now - nextCycle) / cycle + 1) * cycle;
+      }
+      try {
+        poll();
+      } catch (Exception e) {
+        errors.inc();
+        logger.info("polling of {} is failed : {}", group.getName(), e.getMessage());
+      } finally {
+        // the group keeps polling even if a cycle could not be started
+        if (cancelled == false) {
+          schedule((HashedWheelTimer) current.timer());
+        }
+      }
+    }
+
+    private void poll() {
+      EdgeMessage msg = group.getMessage();
+      String endpointUri = msg.getEdgeEndpointInfo().getEndpointUri();
+      if (EdgeReconnectSupervisor.getInstance().isAvailable(endpointUri) == false
+          || EdgeSessionManager.getInstance().getSession(endpointUri) == null) {
+        logger.debug("endpoint is not available, polling is skipped : {}", group.getName());
+        return;
+      }
+      if (inFlight.compareAndSet(false, true) == false) {
+        overruns.inc();
+        logger.debug("previous cycle is in flight, cycle is skipped : {}", group.getName());
+        return;
+      }
+
+      // read is started off the timer thread so that other groups are not delayed
+      long start = System.nanoTime();
+      CompletableFuture.completedFuture(msg)
+          .thenComposeAsync(m -> EdgeGroupService.getInstance().read(m))
+          .whenComplete((v, e) -> {
+            cycleTime.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (e != null) {
+              errors.inc();
+              logger.info("polling of {} is failed : {}", group.getName(), e.getMessage());
+            }
+            inFlight.set(false);
+          });
+    }
+  }
+}
@@ -25,12 +25,10 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.ServerState;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.edge.protocol.mapper.api.EdgeMapper;
-import org.edge.protocol.mapper.api.EdgeMapperCommon;
 import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -50,7 +48,7 @@ public class EdgeServerService implements EdgeAttributeService {
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private static EdgeServerService service = null;
   private static Object lock = new Object();
-  private int readAccessLevel = 1;
+  private final EdgeAccessLevel accessLevel = new EdgeAccessLevel();
   private EdgeMapper mapper = null;
 
   public static EdgeServerService getInstance() {
@@ -196,19 +194,10 @@ public class EdgeServerService implements EdgeAttributeService {
    * get mapper instance this function is provided metadata such as access-level, data-type.
    * @return mapper instance
    */
-  public EdgeMapper getMapper() {
+  public synchronized EdgeMapper getMapper() {
     if (mapper == null) {
       mapper = new EdgeMapper();
-      try {
-        mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-            EdgeIdentifier.convertAccessLevel(this.readAccessLevel));
-      } catch (Exception e) {
-        // TODO Auto-generated catch block
-        ErrorHandler.getInstance().addErrorMessage(new EdgeNodeInfo.Builder().build(),
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
-            EdgeOpcUaCommon.DEFAULT_REQUEST_ID);
-        e.printStackTrace();
-      }
+      accessLevel.addMappingData(mapper);
     }
     return mapper;
   }
@@ -222,7 +211,7 @@ public class EdgeServerService implements EdgeAttributeService {
     // TODO Auto-generated method stub
     if (v == null)
       return;
-    readAccessLevel = Integer.parseInt(v.readAccessLevel().get().getValue().getValue().toString());
+    accessLevel.setNode(v);
   }
 
   @Override
@@ -20,12 +20,19 @@ package org.edge.protocol.opcua.providers.services.browse;
 
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.toList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.stack.core.Identifiers;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
@@ -38,7 +45,6 @@ import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseResultMask;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseNextResponse;
-import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.BrowseResult;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
 import org.eclipse.milo.opcua.stack.core.types.structured.ViewDescription;
@@ -60,6 +66,7 @@ import org.edge.protocol.opcua.api.common.EdgeVersatility;
 import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.edge.protocol.opcua.session.EdgeTrafficClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static com.google.common.collect.Lists.newArrayList;
@@ -69,17 +76,12 @@ public class EdgeBrowseService {
   private final Logger logger = LoggerFactory.getLogger(EdgeBrowseService.class);
   private static EdgeBrowseService service = null;
   private static Object lock = new Object();
-  // private static HashSet<NodeId> visitedNode = new HashSet<NodeId>();
-  private static List<ByteString> visitedCP = new ArrayList<ByteString>();
   private static final int BROWSE_DESCRIPTION_NODECLASS_MASK =
       NodeClass.Object.getValue() | NodeClass.Variable.getValue()
           | NodeClass.ReferenceType.getValue() | NodeClass.Method.getValue();
 
-  private static HashMap<Integer, HashSet<NodeId>> visitedNodeId =
-      new HashMap<Integer, HashSet<NodeId>>();
-  private static final int visitedMapSize = EdgeOpcUaCommon.MAX_BROWSEREQUEST_SIZE + 10;
-  private static int visitedMapQueue[] = new int[visitedMapSize];
-  private static int visitedMapIdx = 0;
+  // browse tasks in progress. each task belongs to the message which is sent by the caller
+  private static Set<BrowseTask> activeTasks = ConcurrentHashMap.newKeySet();
 
   private EdgeBrowseService() {
 
@@ -98,27 +100,24 @@ public class EdgeBrowseService {
     }
   }
 
-  private static void initializeVisitedNode(int requestId) {
-    if (visitedNodeId.containsKey(visitedMapQueue[visitedMapIdx]) == true) {
-      visitedNodeId.get(visitedMapQueue[visitedMapIdx]).clear();
-      visitedNodeId.remove(visitedMapQueue[visitedMapIdx]);
-    }
-    visitedMapQueue[visitedMapIdx] = requestId;
-    if (visitedMapIdx + 1 == visitedMapSize) {
-      visitedMapIdx = 0;
-    } else {
-      visitedMapIdx++;
-    }
-    visitedNodeId.put(requestId, new HashSet<NodeId>());
+  /**
+   * browse target parent node and its child node
+   * @param  indent empty space
+   * @param  msg edge message set
+   * @return void
+   */
+  public void browse(String indent, EdgeMessage msg) throws Exception {
+    browse(indent, msg, msg);
   }
 
   /**
    * browse target parent node and its child node
    * @param  indent empty space
    * @param  msg edge message set
+   * @param  origin edge message which is sent by the caller (it is used to cancel the browse)
    * @return void
    */
-  public void browse(String indent, EdgeMessage msg) throws Exception {
+  public void browse(String indent, EdgeMessage msg, EdgeMessage origin) throws Exception {
     logger.debug("Browse request size={}, msg type={}", msg.getRequests().size(),
         msg.getMessageType());
     EdgeOpcUaClient client =
@@ -126,7 +125,6 @@ public class EdgeBrowseService {
     List<NodeId> nodeIdList = new ArrayList<NodeId>();
     List<Integer> msgIdxList = new ArrayList<Integer>();
     if (msg.getMessageType() == EdgeMessageType.SEND_REQUEST) {
-      initializeVisitedNode(msg.getRequest().getRequestId());
       nodeIdList.add(getNodeId(msg.getRequest().getEdgeNodeInfo()));
       msgIdxList.add(Integer.valueOf(0));
     } else if (msg.getMessageType() == EdgeMessageType.SEND_REQUESTS) {
@@ -141,13 +139,12 @@ public class EdgeBrowseService {
       }
       int msgIdx = 0;
       for (EdgeRequest req : msg.getRequests()) {
-        initializeVisitedNode(req.getRequestId());
         nodeIdList.add(getNodeId(req.getEdgeNodeInfo()));
         msgIdxList.add(Integer.valueOf(msgIdx++));
       }
     }
     logger.debug("browseNodeIdList : {}", nodeIdList);
-    browse(nodeIdList, msgIdxList, client, msg);
+    browse(nodeIdList, msgIdxList, client, msg, origin);
   }
 
   /**
@@ -160,6 +157,18 @@ public class EdgeBrowseService {
     logger.info("not support");
   }
 
+  /**
+   * cancel browse which is in progress and release its continuation points
+   * @param  origin edge message which is sent by the caller to start browse
+   */
+  public void cancel(EdgeMessage origin) {
+    for (BrowseTask task : activeTasks) {
+      if (task.origin == origin) {
+        task.cancel();
+      }
+    }
+  }
+
   private boolean checkStatusGood(StatusCode status) {
     if (status.isGood() == false || status.getValue() == StatusCodes.Good_Clamped
         || status.getValue() == StatusCodes.Good_CompletesAsynchronously) {
@@ -171,17 +180,11 @@ public class EdgeBrowseService {
 
   private CompletableFuture<List<BrowseResult>> requestBrowse(OpcUaClient client,
       List<BrowseDescription> browseList, EdgeMessage msg) {
-    client.browse(browseList);
-    return client.browse(browseList).thenApply(browseResult -> {
-      logger.debug("browse result: {}", browseResult);
-      return browseResult;
-    }).exceptionally(e -> {
-      logger.debug("error types : {}", e.getMessage());
-      ErrorHandler.getInstance().addErrorMessage(getEndpoint(msg, 0),
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-          new EdgeVersatility.Builder(e.getMessage()).build(), getRequestId(msg, 0));
-      return null;
-    });
+    return client.browse(new ViewDescription(), uint(getMaxReference(msg)), browseList)
+        .thenApply(browseResponse -> {
+          logger.debug("browse result: {}", browseResponse.getResults().length);
+          return toList(browseResponse.getResults());
+        });
   }
 
   private boolean checkContinuationPoint(ByteString continuationPoint, EdgeNodeInfo ep, int reqId) {
@@ -320,13 +323,7 @@ public class EdgeBrowseService {
     return ret;
   }
 
-  private void addVisitedNodeId(NodeId id, int requestId) {
-    visitedNodeId.get(requestId).add(id);
-  }
-
-  private List<BrowseDescription> getBrowseDescriptions(List<NodeId> nodeIdList,
-      List<Integer> msgIdxList, EdgeMessage msg) {
-    List<BrowseDescription> browseList = new ArrayList<BrowseDescription>();
+  private BrowseDescription getBrowseDescription(NodeId id, EdgeMessage msg) {
     int direct = msg.getBrowseParameter().getDirection();
     BrowseDirection directionParam = BrowseDirection.Forward;
     if (BrowseDirection.Inverse.ordinal() == direct) {
@@ -334,177 +331,400 @@ public class EdgeBrowseService {
     } else if (BrowseDirection.Both.ordinal() == direct) {
       directionParam = BrowseDirection.Both;
     }
-    int idx = 0;
-    for (NodeId id : nodeIdList) {
-      addVisitedNodeId(id, getRequestId(msg, msgIdxList.get(idx++)));
-      BrowseDescription browse = new BrowseDescription(id, directionParam, Identifiers.References,
-          true, uint(BROWSE_DESCRIPTION_NODECLASS_MASK), uint(BrowseResultMask.All.getValue()));
-      browseList.add(browse);
-    }
-    return browseList;
+    return new BrowseDescription(id, directionParam, Identifiers.References, true,
+        uint(BROWSE_DESCRIPTION_NODECLASS_MASK), uint(BrowseResultMask.All.getValue()));
   }
 
-  private EdgeResult browseNext(String indent, EdgeOpcUaClient client, EdgeMessage msg) {
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_NOT_SUPPROT).build();
+  private EdgeResult browse(List<NodeId> nodeIdList, List<Integer> msgIdxList,
+      EdgeOpcUaClient client, EdgeMessage msg, EdgeMessage origin) {
+    logger.debug("requestBrowse");
+    // task is registered before operation limits are read, so that it can be cancelled already
+    BrowseTask task = new BrowseTask(client, msg, origin);
+    activeTasks.add(task);
+    client.getOperationLimits().load().thenAccept(limits -> task.start(nodeIdList, msgIdxList,
+        Math.min(msg.getBrowseParameter().getChunkSize(), limits.getMaxNodesPerBrowse())));
+    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
   }
 
-  private EdgeResult browse(List<NodeId> nodeIdList, List<Integer> msgIdxList,
-      EdgeOpcUaClient client, EdgeMessage msg) {
-    List<BrowseDescription> browseList = getBrowseDescriptions(nodeIdList, msgIdxList, msg);
-    logger.debug("browseList: {}", browseList);
-    if (isMaxReferenceValue(msg)) {
-      logger.info("requestBrowseWithMaxReference");
-      requestBrowseWithMaxReference(client.getClientInstance(), browseList, msg)
-          .thenApply(browseResponse -> {
-            logger.info("continuationPoint = {}, ret={}",
-                browseResponse.getResults()[0].getContinuationPoint().bytes(),
-                browseResponse.getResponseHeader().getServiceResult());
-
-            List<ByteString> bytes = new ArrayList<ByteString>();
-            bytes.add(browseResponse.getResults()[0].getContinuationPoint());
-
-            requestBrowseNext(client.getClientInstance(), msg, bytes).thenApply(response -> {
-              checkBrowseNextErrorStatus(response, msg, browseResponse);
-              return response;
-            });
-            return browseResponse;
-          });
-    } else {
-      logger.debug("requestBrowse");
-      requestBrowse(client.getClientInstance(), browseList, msg).thenAccept(browseResults -> {
-        if (Optional.ofNullable(browseResults).isPresent()) {
-          if (browseResults.isEmpty() == true) {
-            ErrorHandler.getInstance().addErrorMessage(getEndpoint(msg, 0),
-                new EdgeResult.Builder(EdgeStatusCode.STATUS_VIEW_BROWSERESULT_EMPTY).build(),
-                new EdgeVersatility.Builder(
-                    EdgeStatusCode.STATUS_VIEW_BROWSERESULT_EMPTY.getDescription()).build(),
-                getRequestId(msg, 0));
-          }
-          int retIdx = 0;
-          boolean isError = false;
-          int nodeIdUnknownCount = 0;
-          for (BrowseResult ret : browseResults) {
-            StatusCode status = ret.getStatusCode();
-            int msgIdx = msgIdxList.get(retIdx);
-            EdgeNodeInfo ep = getEndpoint(msg, msgIdx);
-            int reqId = getRequestId(msg, msgIdx);
-            int direct = getDirection(msg);
-
-            if (checkStatusGood(status) == false) {
-              logger.info("error");
-              String errorStatusCode = EdgeStatusCode.UNKNOWN_STATUS_CODE;
-              Optional<String[]> statusCodes = StatusCodes.lookup(status.getValue());
-              if (statusCodes.isPresent() == true) {
-                errorStatusCode = statusCodes.get()[0];
-              }
-              logger.info("error types : {}", errorStatusCode);
-              if (ret.getStatusCode().getValue() == StatusCodes.Bad_NodeIdUnknown) {
-                nodeIdUnknownCount++;
-              }
-
-              // Check Err-005 of basic View CTT
-              if (nodeIdUnknownCount == browseResults.size()) {
-                ErrorHandler.getInstance().addErrorMessage(ep,
-                    new EdgeResult.Builder(EdgeStatusCode.STATUS_VIEW_NOIDID_UNKNOWN_ALL_RESULTS)
-                        .build(),
-                    new EdgeVersatility.Builder(
-                        EdgeStatusCode.STATUS_VIEW_NOIDID_UNKNOWN_ALL_RESULTS.getDescription())
-                            .build(),
-                    reqId);
-              } else {
-                ErrorHandler.getInstance().addErrorMessage(ep,
-                    new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-                    new EdgeVersatility.Builder(errorStatusCode).build(), reqId);
-              }
-              isError = true;
-            }
+  /**
+   * recursive browse of one message. nodes to browse are kept in a frontier queue and sent in
+   * chunks (one Browse request per chunk) with a limited number of requests in progress. returned
+   * continuation points are followed with BrowseNext before the frontier is expanded further, and
+   * found references are delivered in pages of BROWSE_RESPONSE messages.
+   */
+  private class BrowseTask {
+    private final EdgeOpcUaClient client;
+    // continuation points are valid only on the session which returned them, so all requests of
+    // the task are sent through one of the pooled sessions
+    private final OpcUaClient pooled;
+    private final EdgeMessage msg;
+    private final EdgeMessage origin;
+    private final EdgeBrowseParameter param;
+    private int chunkSize = 1;
+    private final Queue<BrowseNode> frontier = new ArrayDeque<BrowseNode>();
+    private final Queue<BrowseNode> continuations = new ArrayDeque<BrowseNode>();
+    private final Set<ByteString> usedContinuationPoints = new HashSet<ByteString>();
+    private final Map<Integer, Set<NodeId>> visitedNodeId =
+        new ConcurrentHashMap<Integer, Set<NodeId>>();
+    private final Map<Integer, List<EdgeBrowseResult>> pages =
+        new HashMap<Integer, List<EdgeBrowseResult>>();
+    private final List<BrowseNode> rootErrors = new ArrayList<BrowseNode>();
+    private int rootCount = 0;
+    private int rootResults = 0;
+    private int rootNodeIdUnknown = 0;
+    private int inFlight = 0;
+    private boolean cancelled = false;
+    private boolean finished = false;
+
+    BrowseTask(EdgeOpcUaClient client, EdgeMessage msg, EdgeMessage origin) {
+      this.client = client;
+      this.pooled = client.getClientInstance(EdgeTrafficClass.BROWSE);
+      this.msg = msg;
+      this.origin = origin;
+      this.param = msg.getBrowseParameter();
+    }
 
-            checkContinuationPoint(ret.getContinuationPoint(), ep, reqId);
-            List<ReferenceDescription> references = toList(ret.getReferences());
-            List<NodeId> nextNodeIdList = new ArrayList<NodeId>();
-            List<Integer> nextMsgIdxList = new ArrayList<Integer>();
-            for (ReferenceDescription rd : references) {
-              // logger.debug("direction = {}, cur_direct = {}", direct, rd.getIsForward());
-              // logger.info("browseName = {}", rd.getBrowseName());
-
-              if ((direct == EdgeBrowseParameter.DIRECTION_FORWARD && rd.getIsForward() == false)
-                  || (direct == EdgeBrowseParameter.DIRECTION_INVERSE
-                      && rd.getIsForward() == true)) {
-                callErrorMessageCB(msg, EdgeStatusCode.STATUS_VIEW_DIRECTION_NOT_MATCH, msgIdx);
-              }
-
-              if (checkBrowseName(rd.getBrowseName().getName(), ep, reqId) == false)
-                isError = true;
-              if (checkNodeClass(rd.getNodeClass(), ep, reqId) == false)
-                isError = true;
-              if (checkDisplayName(rd.getDisplayName().getText(), ep, reqId) == false)
-                isError = true;
-              if (checkNodeId(rd.getNodeId(), ep, reqId) == false)
-                isError = true;
-              if (checkReferenceTypeId(rd.getReferenceTypeId(), ep, reqId) == false)
-                isError = true;
-              // recursively browse to children
-              if (isError == false) {
-                List<EdgeBrowseResult> browseResponses = new ArrayList<EdgeBrowseResult>();
-                EdgeBrowseResult res = new EdgeBrowseResult.Builder()
-                    .setBrowseName(rd.getBrowseName().toString()).build();
-                browseResponses.add(res);
-                callResponseMessage(msg, browseResponses, msgIdx);
-              }
-
-              try {
-                rd.getNodeId().local().ifPresent(nodeId -> {
-                  if (visitedNodeId.get(reqId).contains(nodeId) == false) {
-                    nextNodeIdList.add(nodeId);
-                    nextMsgIdxList.add(msgIdx);
-                  }
-                });
-              } catch (Exception e) {
-                e.printStackTrace();
-              }
-            }
-            if (nextNodeIdList.isEmpty() == false) {
-              browse(nextNodeIdList, nextMsgIdxList, client, msg);
-            }
-            retIdx++;
+    synchronized void start(List<NodeId> nodeIdList, List<Integer> msgIdxList, int chunkSize) {
+      this.chunkSize = Math.max(1, chunkSize);
+      if (cancelled) {
+        return;
+      }
+      for (int i = 0; i < nodeIdList.size(); i++) {
+        int msgIdx = msgIdxList.get(i);
+        visit(msgIdx, nodeIdList.get(i));
+        frontier.add(new BrowseNode(nodeIdList.get(i), msgIdx, 0, null, null));
+        rootCount++;
+      }
+      dispatch();
+      finishIfDone();
+    }
+
+    synchronized void cancel() {
+      if (cancelled || finished) {
+        return;
+      }
+      logger.debug("browse is cancelled, pending continuation points={}", continuations.size());
+      cancelled = true;
+      frontier.clear();
+      pages.clear();
+      release(continuations);
+      continuations.clear();
+      finishIfDone();
+    }
+
+    private OpcUaClient getClientInstance() {
+      return pooled;
+    }
+
+    private void dispatch() {
+      while (cancelled == false && inFlight < param.getMaxInFlight()) {
+        Queue<BrowseNode> queue = continuations.isEmpty() ? frontier : continuations;
+        if (queue.isEmpty()) {
+          return;
+        }
+        List<BrowseNode> chunk = new ArrayList<BrowseNode>();
+        while (chunk.size() < chunkSize && queue.isEmpty() == false) {
+          chunk.add(queue.poll());
+        }
+        inFlight++;
+        if (queue == continuations) {
+          List<ByteString> points = new ArrayList<ByteString>();
+          for (BrowseNode node : chunk) {
+            points.add(node.continuationPoint);
           }
+          requestBrowseNext(getClientInstance(), points, false)
+              .whenComplete((response, e) -> onBrowseResults(chunk,
+                  response != null ? toList(response.getResults()) : null, e));
         } else {
+          List<BrowseDescription> browseList = new ArrayList<BrowseDescription>();
+          for (BrowseNode node : chunk) {
+            browseList.add(getBrowseDescription(node.nodeId, msg));
+          }
+          requestBrowse(getClientInstance(), browseList, msg)
+              .whenComplete((browseResults, e) -> onBrowseResults(chunk, browseResults, e));
+        }
+      }
+    }
+
+    private synchronized void onBrowseResults(List<BrowseNode> chunk,
+        List<BrowseResult> browseResults, Throwable cause) {
+      inFlight--;
+      if (browseResults == null) {
+        // whole chunk failed. continuation points of BrowseNext chunk are still held by server
+        logger.debug("error types : {}", cause != null ? cause.getMessage() : null);
+        onChunkFailed(chunk, EdgeStatusCode.STATUS_ERROR, cause != null ? cause.getMessage()
+            : EdgeStatusCode.STATUS_SERVICE_RESULT_BAD.getDescription());
+      } else if (browseResults.size() < chunk.size()) {
+        // nodes which have no result in response
+        onChunkFailed(chunk.subList(browseResults.size(), chunk.size()),
+            EdgeStatusCode.STATUS_VIEW_BROWSERESULT_EMPTY,
+            EdgeStatusCode.STATUS_VIEW_BROWSERESULT_EMPTY.getDescription());
+      }
+      if (cancelled) {
+        // release continuation points which are returned after cancel
+        List<BrowseNode> points = new ArrayList<BrowseNode>();
+        for (int i = 0; browseResults != null && i < browseResults.size(); i++) {
+          if (hasContinuationPoint(browseResults.get(i).getContinuationPoint())) {
+            points.add(
+                new BrowseNode(null, 0, 0, browseResults.get(i).getContinuationPoint(), null));
+          }
+        }
+        release(points);
+      } else if (Optional.ofNullable(browseResults).isPresent()) {
+        for (int retIdx = 0; retIdx < browseResults.size() && retIdx < chunk.size(); retIdx++) {
+          onBrowseResult(chunk.get(retIdx), browseResults.get(retIdx));
+        }
+      }
+      dispatch();
+      finishIfDone();
+    }
+
+    private void onBrowseResult(BrowseNode node, BrowseResult ret) {
+      StatusCode status = ret.getStatusCode();
+      int msgIdx = node.msgIdx;
+      EdgeNodeInfo ep = getEndpoint(msg, msgIdx);
+      int reqId = getRequestId(msg, msgIdx);
+      int direct = getDirection(msg);
+      boolean isBrowseNext = node.continuationPoint != null;
+
+      if (isBrowseNext) {
+        if (checkBrowseNextResult(node, ret) == false) {
           return;
         }
+      } else if (checkStatusGood(status) == false) {
+        String errorStatusCode = EdgeStatusCode.UNKNOWN_STATUS_CODE;
+        Optional<String[]> statusCodes = StatusCodes.lookup(status.getValue());
+        if (statusCodes.isPresent() == true) {
+          errorStatusCode = statusCodes.get()[0];
+        }
+        logger.info("error types : {}", errorStatusCode);
+        if (node.depth == 0) {
+          // errors of requested nodes are reported when results of all of them are received
+          if (status.getValue() == StatusCodes.Bad_NodeIdUnknown) {
+            rootNodeIdUnknown++;
+          }
+          rootErrors.add(new BrowseNode(node.nodeId, msgIdx, errorStatusCode));
+          onRootResult();
+        } else {
+          ErrorHandler.getInstance().addErrorMessage(ep,
+              new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
+              new EdgeVersatility.Builder(errorStatusCode).build(), reqId);
+        }
+        return;
+      } else if (node.depth == 0) {
+        onRootResult();
+      }
+
+      ByteString continuationPoint = ret.getContinuationPoint();
+      if (continuationPoint != null && checkContinuationPoint(continuationPoint, ep, reqId)
+          && hasContinuationPoint(continuationPoint)) {
+        if (usedContinuationPoints.add(continuationPoint) == false) {
+          callErrorMessageCB(msg, EdgeStatusCode.STATUS_VIEW_CONTINUATION_POINT_REUSED, msgIdx);
+        } else {
+          continuations.add(new BrowseNode(node.nodeId, msgIdx, node.depth, continuationPoint,
+              isBrowseNext ? node.typeDefinitions : getTypeDefinitions(ret)));
+        }
+      }
+
+      boolean expand = param.getMaxDepth() == 0 || node.depth < param.getMaxDepth();
+      for (ReferenceDescription rd : toList(ret.getReferences())) {
+        if ((direct == EdgeBrowseParameter.DIRECTION_FORWARD && rd.getIsForward() == false)
+            || (direct == EdgeBrowseParameter.DIRECTION_INVERSE && rd.getIsForward() == true)) {
+          callErrorMessageCB(msg, EdgeStatusCode.STATUS_VIEW_DIRECTION_NOT_MATCH, msgIdx);
+        }
+
+        boolean isValid = checkBrowseName(rd.getBrowseName().getName(), ep, reqId)
+            & checkNodeClass(rd.getNodeClass(), ep, reqId)
+            & checkDisplayName(rd.getDisplayName().getText(), ep, reqId)
+            & checkNodeId(rd.getNodeId(), ep, reqId)
+            & checkReferenceTypeId(rd.getReferenceTypeId(), ep, reqId);
+        if (isValid) {
+          addPage(msgIdx,
+              new EdgeBrowseResult.Builder().setBrowseName(rd.getBrowseName().toString()).build());
+        }
+
+        // recursively browse to children
+        if (expand) {
+          rd.getNodeId().local().ifPresent(nodeId -> {
+            if (visit(msgIdx, nodeId) == true) {
+              frontier.add(new BrowseNode(nodeId, msgIdx, node.depth + 1, null, null));
+            }
+          });
+        }
+      }
+    }
+
+    // Check Err-005 of basic View CTT over all requested nodes of the message
+    private void onRootResult() {
+      rootResults++;
+      if (rootResults < rootCount) {
+        return;
+      }
+      boolean allNodeIdUnknown = rootNodeIdUnknown == rootCount;
+      for (BrowseNode node : rootErrors) {
+        EdgeNodeInfo ep = getEndpoint(msg, node.msgIdx);
+        int reqId = getRequestId(msg, node.msgIdx);
+        if (allNodeIdUnknown) {
+          ErrorHandler.getInstance().addErrorMessage(ep,
+              new EdgeResult.Builder(EdgeStatusCode.STATUS_VIEW_NOIDID_UNKNOWN_ALL_RESULTS)
+                  .build(),
+              new EdgeVersatility.Builder(
+                  EdgeStatusCode.STATUS_VIEW_NOIDID_UNKNOWN_ALL_RESULTS.getDescription()).build(),
+              reqId);
+        } else {
+          ErrorHandler.getInstance().addErrorMessage(ep,
+              new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
+              new EdgeVersatility.Builder(node.error).build(), reqId);
+        }
+      }
+      rootErrors.clear();
+    }
+
+    // Check BrowseNext results with the View CTT (status, reference data and its type)
+    private boolean checkBrowseNextResult(BrowseNode node, BrowseResult ret) {
+      if (ret.getStatusCode().isGood() == false) {
+        callErrorMessageCB(msg, EdgeStatusCode.STATUS_VIEW_RESULT_STATUS_CODE_BAD, node.msgIdx);
+        return false;
+      }
+      ReferenceDescription[] references = ret.getReferences();
+      if ((hasContinuationPoint(ret.getContinuationPoint()) && references == null)
+          || (references != null && references.length == 0)) {
+        callErrorMessageCB(msg, EdgeStatusCode.STATUS_VIEW_REFERENCE_DATA_INVALID, node.msgIdx);
+      }
+      for (int i = 0; references != null && node.typeDefinitions != null
+          && i < references.length && i < node.typeDefinitions.length; i++) {
+        if (Objects.equals(node.typeDefinitions[i], references[i].getTypeDefinition()) == false) {
+          callErrorMessageCB(msg, EdgeStatusCode.STATUS_VIEW_REFERENCE_DATA_NOT_MATCH,
+              node.msgIdx);
+          break;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * mark node as visited for the request of msgIdx
+     * @param  msgIdx index of request in message
+     * @param  nodeId node id to visit
+     * @return true if the node was not visited yet
+     */
+    private boolean visit(int msgIdx, NodeId nodeId) {
+      return visitedNodeId.computeIfAbsent(msgIdx, idx -> ConcurrentHashMap.newKeySet())
+          .add(nodeId);
+    }
+
+    private void onChunkFailed(List<BrowseNode> nodes, EdgeStatusCode code, String error) {
+      List<BrowseNode> points = new ArrayList<BrowseNode>();
+      for (BrowseNode node : nodes) {
+        if (hasContinuationPoint(node.continuationPoint)) {
+          points.add(node);
+        }
+        if (cancelled == false) {
+          ErrorHandler.getInstance().addErrorMessage(getEndpoint(msg, node.msgIdx),
+              new EdgeResult.Builder(code).build(), new EdgeVersatility.Builder(error).build(),
+              getRequestId(msg, node.msgIdx));
+        }
+        if (node.depth == 0 && node.continuationPoint == null) {
+          onRootResult();
+        }
+      }
+      release(points);
+    }
+
+    private void release(Collection<BrowseNode> nodes) {
+      if (nodes.isEmpty()) {
+        return;
+      }
+      List<ByteString> points = new ArrayList<ByteString>();
+      for (BrowseNode node : nodes) {
+        points.add(node.continuationPoint);
+      }
+      requestBrowseNext(getClientInstance(), points, true).exceptionally(e -> {
+        logger.debug("continuation points are not released : {}", e.getMessage());
+        return null;
       });
     }
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+
+    private void addPage(int msgIdx, EdgeBrowseResult result) {
+      List<EdgeBrowseResult> page = pages.get(msgIdx);
+      if (page == null) {
+        page = new ArrayList<EdgeBrowseResult>();
+        pages.put(msgIdx, page);
+      }
+      page.add(result);
+      if (page.size() >= param.getPageSize()) {
+        pages.remove(msgIdx);
+        callResponseMessage(msg, page, msgIdx);
+      }
+    }
+
+    private void finishIfDone() {
+      if (finished || inFlight != 0
+          || (cancelled == false && (frontier.isEmpty() == false
+              || continuations.isEmpty() == false))) {
+        return;
+      }
+      finished = true;
+      for (Map.Entry<Integer, List<EdgeBrowseResult>> page : pages.entrySet()) {
+        callResponseMessage(msg, page.getValue(), page.getKey());
+      }
+      pages.clear();
+      visitedNodeId.clear();
+      usedContinuationPoints.clear();
+      activeTasks.remove(this);
+    }
   }
 
-  private CompletableFuture<BrowseResponse> requestBrowseWithMaxReference(OpcUaClient client,
-      List<BrowseDescription> browseList, EdgeMessage msg) {
-    logger.info("requestBrowseWithMaxRefer");
-    return client.browse(new ViewDescription(), uint(getMaxReference(msg)), browseList)
-        .thenApply(browseResult -> {
-          return browseResult;
-        }).exceptionally(e -> {
-          logger.debug("error type : {}", e.getMessage());
-          ErrorHandler.getInstance().addErrorMessage(getEndpoint(msg, 0),
-              new EdgeResult.Builder(EdgeStatusCode.STATUS_SERVICE_RESULT_BAD).build(),
-              new EdgeVersatility.Builder(EdgeStatusCode.STATUS_SERVICE_RESULT_BAD).build(),
-              EdgeOpcUaCommon.DEFAULT_REQUEST_ID);
-          return null;
-        });
+  private static class BrowseNode {
+    private final NodeId nodeId;
+    private final int msgIdx;
+    private final int depth;
+    private final ByteString continuationPoint;
+    // type definitions of references in first result, to check results of BrowseNext
+    private final ExpandedNodeId[] typeDefinitions;
+    private final String error;
+
+    BrowseNode(NodeId nodeId, int msgIdx, int depth, ByteString continuationPoint,
+        ExpandedNodeId[] typeDefinitions) {
+      this.nodeId = nodeId;
+      this.msgIdx = msgIdx;
+      this.depth = depth;
+      this.continuationPoint = continuationPoint;
+      this.typeDefinitions = typeDefinitions;
+      this.error = null;
+    }
+
+    BrowseNode(NodeId nodeId, int msgIdx, String error) {
+      this.nodeId = nodeId;
+      this.msgIdx = msgIdx;
+      this.depth = 0;
+      this.continuationPoint = null;
+      this.typeDefinitions = null;
+      this.error = error;
+    }
   }
 
-  private CompletableFuture<BrowseNextResponse> requestBrowseNext(OpcUaClient client,
-      EdgeMessage msg, List<ByteString> continuationPoint) {
-    logger.info("requestBrowseNext");
-    return client.browseNext(false, continuationPoint).thenApply(browseNextResponse -> {
-      return browseNextResponse;
-    }).exceptionally(e -> {
-      logger.debug("error type : {}", e.getMessage());
-      ErrorHandler.getInstance().addErrorMessage(getEndpoint(msg, 0),
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_SERVICE_RESULT_BAD).build(),
-          new EdgeVersatility.Builder(EdgeStatusCode.STATUS_SERVICE_RESULT_BAD).build(),
-          EdgeOpcUaCommon.DEFAULT_REQUEST_ID);
+  private static ExpandedNodeId[] getTypeDefinitions(BrowseResult ret) {
+    ReferenceDescription[] references = ret.getReferences();
+    if (references == null) {
       return null;
-    });
+    }
+    ExpandedNodeId[] typeDefinitions = new ExpandedNodeId[references.length];
+    for (int i = 0; i < references.length; i++) {
+      typeDefinitions[i] = references[i].getTypeDefinition();
+    }
+    return typeDefinitions;
+  }
+
+  private static boolean hasContinuationPoint(ByteString continuationPoint) {
+    return continuationPoint != null && continuationPoint.isNull() == false
+        && continuationPoint.length() > 0;
+  }
+
+  private CompletableFuture<BrowseNextResponse> requestBrowseNext(OpcUaClient client,
+      List<ByteString> continuationPoint, boolean release) {
+    logger.debug("requestBrowseNext size={}, release={}", continuationPoint.size(), release);
+    return client.browseNext(release, continuationPoint);
   }
 
   private NodeId getNodeId(EdgeNodeInfo ep) {
@@ -548,51 +768,6 @@ public class EdgeBrowseService {
     return msg.getBrowseParameter().getMaxReferenceValue();
   }
 
-  private boolean isMaxReferenceValue(EdgeMessage msg) {
-    return msg.getBrowseParameter().isMaxReferenceValue();
-  }
-
-  private void checkBrowseNextErrorStatus(BrowseNextResponse response, EdgeMessage msg,
-      BrowseResponse browseResponse) {
-    EdgeStatusCode code = EdgeStatusCode.STATUS_OK;
-    int retIdx = 0;
-    for (BrowseResult ret : response.getResults()) {
-      logger.debug("browseNext ret = {} ", ret.getStatusCode());
-      if (visitedCP.contains(ret.getContinuationPoint())) {
-        code = EdgeStatusCode.STATUS_VIEW_CONTINUATION_POINT_REUSED;
-        callErrorMessageCB(msg, code, retIdx);
-      } else {
-        visitedCP.add(ret.getContinuationPoint());
-      }
-
-      if (retIdx == 0 && ret.getStatusCode().isGood() == false) {
-        code = EdgeStatusCode.STATUS_VIEW_RESULT_STATUS_CODE_BAD;
-      } else if (retIdx == 0 && (ret.getContinuationPoint() != null && ret.getReferences() == null)
-          || (ret.getStatusCode().isGood() && ret.getReferences().length == 0)) {
-        code = EdgeStatusCode.STATUS_VIEW_REFERENCE_DATA_INVALID;
-        callErrorMessageCB(msg, code, retIdx);
-      }
-
-      int referIdx = 0;
-      int direct = getDirection(msg);
-      for (ReferenceDescription reference : ret.getReferences()) {
-        logger.debug("direction = {}, cur_direct = {}", direct, reference.getIsForward());
-        if ((direct == EdgeBrowseParameter.DIRECTION_FORWARD && reference.getIsForward() == false)
-            || (direct == EdgeBrowseParameter.DIRECTION_INVERSE
-                && reference.getIsForward() == true)) {
-          code = EdgeStatusCode.STATUS_VIEW_DIRECTION_NOT_MATCH;
-          callErrorMessageCB(msg, code, retIdx);
-        } else if (browseResponse.getResults()[0].getReferences()[referIdx]
-            .getTypeDefinition() != reference.getTypeDefinition()) {
-          code = EdgeStatusCode.STATUS_VIEW_REFERENCE_DATA_NOT_MATCH;
-          callErrorMessageCB(msg, code, retIdx);
-        }
-        referIdx++;
-      }
-      retIdx++;
-    }
-  }
-
   private void callErrorMessageCB(EdgeMessage msg, EdgeStatusCode code, int msgIdx) {
     ErrorHandler.getInstance().addErrorMessage(getEndpoint(msg, msgIdx),
         new EdgeResult.Builder(code).build(),
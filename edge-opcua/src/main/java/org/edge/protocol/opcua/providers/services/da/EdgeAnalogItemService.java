@@ -19,10 +19,11 @@
 package org.edge.protocol.opcua.providers.services.da;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.AnalogItemNode;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.PropertyNode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
@@ -35,7 +36,6 @@ import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -51,7 +51,6 @@ import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeAnalogItemService extends EdgeDataItemService {
   private AnalogItemNode node = null;
-  private EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
@@ -65,14 +64,9 @@ public class EdgeAnalogItemService extends EdgeDataItemService {
    * @return EdgeBrowseService Instance
    */
   public EdgeAnalogItemService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   /**
@@ -89,6 +83,15 @@ public class EdgeAnalogItemService extends EdgeDataItemService {
     return node;
   }
 
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
   /**
    * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(UA-Milo).
    * @param  valueAilas service provider key
@@ -102,94 +105,42 @@ public class EdgeAnalogItemService extends EdgeDataItemService {
   }
 
   /**
-   * overriding method for read sync
-   * @param  msg edgeMessage
-   * @return EdgeResult
+   * add readers of the properties of analog item to dispatch table
+   * @param  table dispatch table
    */
   @Override
-  public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      ret = readValue(getNodeInstance().getValue().get());
-    } else if (EdgeNodeIdentifier.AnalogItemType_Definition == id) {
-      ret = readDefinition(getNodeInstance().getDefinition().get());
-    } else if (EdgeNodeIdentifier.AnalogItemType_InstrumentRange == id) {
-      ret = readInstrumentRange();
-    } else if (EdgeNodeIdentifier.AnalogItemType_EngineeringUnits == id) {
-      ret = readEngineeringUnits();
-    } else if (EdgeNodeIdentifier.AnalogItemType_EURange == id) {
-      ret = readEURange();
-    } else if (EdgeNodeIdentifier.AnalogItemType_ValuePrecision == id) {
-      ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-    } else {
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
-    }
-
-    if (ret != null && ret.isNotNull()) {
-      EdgeEndpointInfo epInfo =
-          new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-              .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-      EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-          .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-          .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-              .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-          .build();
-      ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-    }
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "InstrumentRange", value -> readInstrumentRange(value));
+    addProperty(table, "EngineeringUnits", value -> readEngineeringUnits(value));
+    addProperty(table, "EURange", value -> readEURange(value));
   }
 
   /**
    * read instrument range
+   * @param  value instrument range
    * @return Variant of instrument range
    */
-  private Variant readInstrumentRange() throws InterruptedException, ExecutionException {
-    ExtensionObject extensionObj =
-        (ExtensionObject) getNodeInstance().instrumentRange().get().getValue().get();
-    Range instrumentRange = extensionObj.decode();
-    HashMap<String, String> range = new HashMap<String, String>();
-    range.put("High", instrumentRange.getHigh().toString());
-    range.put("Low", instrumentRange.getLow().toString());
-
-    return new Variant(range);
+  private Variant readInstrumentRange(Object value) {
+    return new Variant(convertToRangeInfo(value));
   }
 
   /**
    * read engineering units
+   * @param  value engineering units
    * @return Variant of engineering units
    */
-  private Variant readEngineeringUnits() throws InterruptedException, ExecutionException {
-    ExtensionObject extensionObj =
-        (ExtensionObject) getNodeInstance().engineeringUnits().get().getValue().get();
-    EUInformation euInfo = extensionObj.decode();
-    HashMap<String, String> info = new HashMap<String, String>();
-    info.put("Description", euInfo.getDescription().getText());
-    info.put("DisplayName", euInfo.getDisplayName().getText());
-
-    return new Variant(info);
+  private Variant readEngineeringUnits(Object value) {
+    return new Variant(convertToEUInfo(value));
   }
 
   /**
    * read EU range
+   * @param  value EU range
    * @return Variant of EU range
    */
-  private Variant readEURange() throws InterruptedException, ExecutionException {
-    ExtensionObject extensionObj =
-        (ExtensionObject) getNodeInstance().eURange().get().getValue().get();
-    Range EURange = extensionObj.decode();
-    HashMap<String, String> range = new HashMap<String, String>();
-    range.put("High", EURange.getHigh().toString());
-    range.put("Low", EURange.getLow().toString());
-
-    return new Variant(range);
+  private Variant readEURange(Object value) {
+    return new Variant(convertToRangeInfo(value));
   }
 
   /**
@@ -324,95 +275,6 @@ public class EdgeAnalogItemService extends EdgeDataItemService {
     return EdgeNodeIdentifier.AnalogItemType;
   }
 
-  /**
-   * read node data asynchronously
-   * @param  EdgeMessage msg
-   * @return result
-   */
-  @Override
-  public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          EdgeEndpointInfo epInfo =
-              new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                  .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-          EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-              .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-              .setResponses(
-                  newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                      .setMessage(new EdgeVersatility.Builder(value.getValue().getValue()).build())
-                      .build()))
-              .build();
-          ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-        });
-      });
-    } else if (EdgeNodeIdentifier.AnalogItemType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          EdgeEndpointInfo epInfo =
-              new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                  .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-          EdgeMessage inputData =
-              new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-                  .setResponses(
-                      newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                          .setMessage(new EdgeVersatility.Builder(value).build()).build()))
-                  .build();
-          ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-        });
-      });
-    } else if (EdgeNodeIdentifier.AnalogItemType_InstrumentRange == id
-        || EdgeNodeIdentifier.AnalogItemType_EngineeringUnits == id
-        || EdgeNodeIdentifier.AnalogItemType_EURange == id) {
-      final EdgeNodeIdentifier ID = id;
-      readAsyncData(id, msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, ID).thenAccept(info -> {
-            EdgeEndpointInfo epInfo =
-                new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                    .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-            EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-                .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-                .setResponses(
-                    newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                        .setMessage(new EdgeVersatility.Builder(info).build()).build()))
-                .build();
-            ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.AnalogItemType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          EdgeEndpointInfo epInfo =
-              new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                  .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-          EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-              .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-              .setResponses(
-                  newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                      .setMessage(new EdgeVersatility.Builder(values).build()).build()))
-              .build();
-          ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-        });
-      });
-    } else {
-      ErrorHandler.getInstance().addErrorMessage(ep,
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-          msg.getRequest().getRequestId());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-  }
-
   /**
    * set edge mapper
    */
@@ -425,8 +287,7 @@ public class EdgeAnalogItemService extends EdgeDataItemService {
     }
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.Number.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
@@ -487,12 +348,4 @@ public class EdgeAnalogItemService extends EdgeDataItemService {
       });
     });
   }
-
-  /**
-   * get edge mapper
-   * @return EdgeMapper
-   */
-  public EdgeMapper getMapper() {
-    return mapper;
-  }
 }
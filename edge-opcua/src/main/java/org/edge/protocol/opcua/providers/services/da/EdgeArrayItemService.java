@@ -19,12 +19,16 @@
 package org.edge.protocol.opcua.providers.services.da;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.ArrayItemNode;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.PropertyNode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
 import org.eclipse.milo.opcua.stack.core.types.structured.EUInformation;
@@ -35,7 +39,6 @@ import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -46,12 +49,15 @@ import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.api.common.EdgeVersatility;
 import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeArrayItemService extends EdgeDataItemService {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
   private ArrayItemNode node = null;
-  private EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
@@ -72,14 +78,9 @@ public class EdgeArrayItemService extends EdgeDataItemService {
    * @param endpointUri uri of endpoint
    */
   public EdgeArrayItemService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   /**
@@ -96,6 +97,19 @@ public class EdgeArrayItemService extends EdgeDataItemService {
     return node;
   }
 
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
+  private ArrayItemNode getArrayItemNode() throws Exception {
+    return (ArrayItemNode) getItemNode();
+  }
+
   /**
    * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(Milo).
    * @param  valueAilas service provider key
@@ -109,52 +123,66 @@ public class EdgeArrayItemService extends EdgeDataItemService {
   }
 
   /**
-   * read node data synchronously
-   * @param  msg message
-   * @return result
+   * add readers of the properties of array item to dispatch table
+   * @param  table dispatch table
    */
   @Override
-  public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "EURange", value -> readEURange(value));
+    addProperty(table, "InstrumentRange", value -> readInstrumentRange(value));
+    addProperty(table, "EngineeringUnits", value -> readEngineeringUnits(value));
+    addProperty(table, "Title", value -> readTitle(((LocalizedText) value).getText()));
+    addProperty(table, "AxisScaleType", value -> readAxisScaleType(value));
+  }
 
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      ret = readValue(getNodeInstance().getValue().get());
-    } else if (EdgeNodeIdentifier.ArrayItemType_Definition == id) {
-      ret = readDefinition(getNodeInstance().getDefinition().get());
-    } else if (EdgeNodeIdentifier.ArrayItemType_EURange == id) {
-      ret = readEURange(getNodeInstance().eURange().get().getValue().get());
-    } else if (EdgeNodeIdentifier.ArrayItemType_InstrumentRange == id) {
-      ret = readInstrumentRange(getNodeInstance().instrumentRange().get().getValue().get());
-    } else if (EdgeNodeIdentifier.ArrayItemType_EngineeringUnits == id) {
-      ret = readEngineeringUnits(getNodeInstance().engineeringUnits().get().getValue().get());
-    } else if (EdgeNodeIdentifier.ArrayItemType_ValuePrecision == id) {
-      ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-    } else if (EdgeNodeIdentifier.ArrayItemType_Title == id) {
-      ret = readTitle(getNodeInstance().getTitle().get().getText());
-    } else if (EdgeNodeIdentifier.ArrayItemType_AxisScaleType == id) {
-      ret = readAxisScaleType(getNodeInstance().axisScaleType().get().getValue().get());
-    } else {
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
-    }
+  /**
+   * get index range of request. array item reads or writes only the part of value.
+   * @param  request edge request
+   * @return index range (null if whole value is requested)
+   */
+  @Override
+  protected String getIndexRange(EdgeRequest request) {
+    return request != null ? request.getIndexRange() : null;
+  }
+
+  /**
+   * read value of array item. array value is converted to EdgeArrayValue (flat primitive array
+   *        or ByteBuffer with shape) if it is configured with array value mode of endpoint.
+   * @param  value value
+   * @return Variant
+   */
+  @Override
+  protected Variant readValue(Object value) {
+    return new Variant(toArrayValue(value));
+  }
 
-    if (ret != null && ret.isNotNull()) {
-      EdgeEndpointInfo epInfo =
-          new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-              .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-      EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-          .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-          .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-              .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-          .build();
-      ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  /**
+   * convert DataValue of value or property to response value. array value is converted as
+   *        readValue does.
+   * @param  request edge request
+   * @param  value data value
+   * @return response value
+   */
+  @Override
+  public Object convertValue(EdgeRequest request, DataValue value) {
+    Object converted = super.convertValue(request, value);
+    return converted == value.getValue().getValue() ? toArrayValue(converted) : converted;
+  }
+
+  private Object toArrayValue(Object value) {
+    EdgeOpcUaClient session =
+        endpointUri != null ? EdgeSessionManager.getInstance().getSession(endpointUri) : null;
+    if (session == null) {
+      return value;
     }
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
+    NodeId nodeId = null;
+    try {
+      nodeId = getItemNode().getNodeId().getNow(null);
+    } catch (Exception e) {
+      logger.debug("node id is not available : {}", e.getMessage());
+    }
+    return session.convertArrayValue(nodeId, value);
   }
 
   /**
@@ -166,25 +194,6 @@ public class EdgeArrayItemService extends EdgeDataItemService {
     return new Variant(title);
   }
 
-  /**
-   * read title asynchronously
-   * @param  aNode arrayItemNode 
-   * @param  msg message
-   * @return variant which has title
-   */
-  protected CompletableFuture<String> readAsyncTitle(ArrayItemNode aNode, EdgeMessage msg) {
-    return aNode.getTitle().thenApply(values -> {
-      return values.getText();
-    }).exceptionally(e -> {
-      Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
-        ErrorHandler.getInstance().addErrorMessage(endpoint,
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-            new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-      });
-      return null;
-    });
-  }
-
   /**
    * read AxisScaleType
    * @param  axisScaleType axisScaleType
@@ -244,26 +253,6 @@ public class EdgeArrayItemService extends EdgeDataItemService {
     return new Variant(convertToRangeInfo(euRange));
   }
 
-  /**
-   * read instrument range (Async)
-   * @param  aNode arrayItemNode
-   * @param  msg message
-   * @return instrumentRage
-   */
-  protected CompletableFuture<PropertyNode> readAsyncInstrumentRange(ArrayItemNode aNode,
-      EdgeMessage msg) {
-    return aNode.instrumentRange().thenApply(property -> {
-      return property;
-    }).exceptionally(e -> {
-      Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
-        ErrorHandler.getInstance().addErrorMessage(endpoint,
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-            new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-      });
-      return null;
-    });
-  }
-
   /**
    * read engineering units (Async)
    * @param  aNode arrayItemNode
@@ -354,96 +343,6 @@ public class EdgeArrayItemService extends EdgeDataItemService {
     return info;
   }
 
-  /**
-   * read node data asynchronously
-   * @param  msg edge message
-   * @return result
-   */
-  @Override
-  public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(value, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.ArrayItemType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(value, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.ArrayItemType_EURange == id) {
-      readAsyncEURange(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.Range).thenAccept(info -> {
-            addResponse(value, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.ArrayItemType_InstrumentRange == id) {
-      readAsyncInstrumentRange(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.Range).thenAccept(info -> {
-            addResponse(value, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.ArrayItemType_EngineeringUnits == id) {
-      readAsyncEngineeringUnits(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.EUInformation).thenAccept(info -> {
-            addResponse(value, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.ArrayItemType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(value, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.ArrayItemType_Title == id) {
-      readAsyncTitle(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(value, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.ArrayItemType_AxisScaleType == id) {
-      readAsyncAxisScaleType(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-
-        });
-      });
-    } else {
-      ErrorHandler.getInstance().addErrorMessage(ep,
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-          msg.getRequest().getRequestId());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-  }
-
-  private void addResponse(Object value, EdgeNodeInfo nodeInfo, EdgeMessage msg) {
-    EdgeEndpointInfo epInfo =
-        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-            .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-    EdgeMessage inputData =
-        new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(
-                newArrayList(new EdgeResponse.Builder(nodeInfo, msg.getRequest().getRequestId())
-                    .setMessage(new EdgeVersatility.Builder(value).build()).build()))
-            .build();
-    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-  }
-
   /**
    * write edge message
    * @param  msg edge message
@@ -451,7 +350,7 @@ public class EdgeArrayItemService extends EdgeDataItemService {
    */
   @Override
   public EdgeResult write(EdgeMessage msg) throws Exception {
-    writeAsyncValue(getNodeInstance(), msg).thenAccept(status -> {
+    writeAsyncValue(getArrayItemNode(), msg).thenAccept(status -> {
       Optional.ofNullable(status).ifPresent(value -> {
         EdgeEndpointInfo epInfo =
             new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
@@ -489,15 +388,14 @@ public class EdgeArrayItemService extends EdgeDataItemService {
     }
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.BaseDataType.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
     EdgeMessage msg = new EdgeMessage.Builder(epInfo)
         .setRequest(new EdgeRequest.Builder(new EdgeNodeInfo.Builder().build()).build()).build();
 
-    readAsyncDescription(getNodeInstance()).thenAccept(values -> {
+    readAsyncDescription(getArrayItemNode()).thenAccept(values -> {
       Optional.ofNullable(values).ifPresent(value -> {
         try {
           mapper.addMappingData(EdgeMapperCommon.DEVICEOBJECT_DESCRIPTION.name(), values.getText());
@@ -506,7 +404,7 @@ public class EdgeArrayItemService extends EdgeDataItemService {
         }
       });
     });
-    readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
+    readAsyncDefinition(getArrayItemNode(), msg).thenAccept(values -> {
       Optional.ofNullable(values).ifPresent(value -> {
         try {
           mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_ASSERTION.name(), values);
@@ -515,7 +413,7 @@ public class EdgeArrayItemService extends EdgeDataItemService {
         }
       });
     });
-    readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
+    readAsyncValuePrecision(getArrayItemNode(), msg).thenAccept(values -> {
       Optional.ofNullable(values).ifPresent(value -> {
         try {
           mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_PRECISION.name(), value.toString());
@@ -524,7 +422,7 @@ public class EdgeArrayItemService extends EdgeDataItemService {
         }
       });
     });
-    readAsyncEngineeringUnits(getNodeInstance(), msg).thenAccept(property -> {
+    readAsyncEngineeringUnits(getArrayItemNode(), msg).thenAccept(property -> {
       Optional.ofNullable(property).ifPresent(value -> {
         convertProperty(property, EdgeNodeIdentifier.EUInformation).thenAccept(values -> {
           try {
@@ -535,7 +433,7 @@ public class EdgeArrayItemService extends EdgeDataItemService {
         });
       });
     });
-    readAsyncEURange(getNodeInstance(), msg).thenAccept(property -> {
+    readAsyncEURange(getArrayItemNode(), msg).thenAccept(property -> {
       Optional.ofNullable(property).ifPresent(value -> {
         convertProperty(property, EdgeNodeIdentifier.Range).thenAccept(values -> {
           try {
@@ -547,7 +445,7 @@ public class EdgeArrayItemService extends EdgeDataItemService {
         });
       });
     });
-    readAsyncAxisScaleType(getNodeInstance(), msg).thenAccept(property -> {
+    readAsyncAxisScaleType(getArrayItemNode(), msg).thenAccept(property -> {
       Optional.ofNullable(property).ifPresent(value -> {
         property.getValue().thenAccept(values -> {
           try {
@@ -559,12 +457,4 @@ public class EdgeArrayItemService extends EdgeDataItemService {
       });
     });
   }
-
-  /**
-   * get mapper
-   * @return EdgeMapper
-   */
-  public EdgeMapper getMapper() {
-    return mapper;
-  }
 }
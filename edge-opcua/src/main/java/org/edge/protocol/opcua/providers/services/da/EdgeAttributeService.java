@@ -18,14 +18,21 @@
 
 package org.edge.protocol.opcua.providers.services.da;
 
+import java.util.concurrent.CompletableFuture;
 import org.eclipse.milo.opcua.sdk.client.api.nodes.VariableNode;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.edge.protocol.mapper.api.EdgeMapper;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
+import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.providers.EdgeBaseService;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 
 public interface EdgeAttributeService extends EdgeBaseService {
 
@@ -85,4 +92,27 @@ public interface EdgeAttributeService extends EdgeBaseService {
    * @return NodeId
    */
   public NodeId getNodeId();
+
+  /**
+   * get ReadValueId of request to read it together with other requests in one Read service
+   * @param  session EdgeOpcUaClient instance of endpoint
+   * @param  request edge request
+   * @return future of ReadValueId (null if request can not be read in a group)
+   */
+  public default CompletableFuture<ReadValueId> getReadValueId(EdgeOpcUaClient session,
+      EdgeRequest request) {
+    NodeId nodeId = getNodeId();
+    return CompletableFuture.completedFuture(nodeId == null ? null
+        : new ReadValueId(nodeId, AttributeId.Value.uid(), null, QualifiedName.NULL_VALUE));
+  }
+
+  /**
+   * convert DataValue which is read with ReadValueId of request to response value
+   * @param  request edge request
+   * @param  value data value
+   * @return response value
+   */
+  public default Object convertValue(EdgeRequest request, DataValue value) {
+    return value.getValue().getValue();
+  }
 }
@@ -0,0 +1,113 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.providers.services.da;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.CubeItemNode;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.AxisInformation;
+import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
+import org.edge.protocol.opcua.api.common.EdgeNodeId;
+import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
+import org.edge.protocol.opcua.session.EdgeSessionManager;
+
+public class EdgeCubeItemService extends EdgeArrayItemService {
+  private CubeItemNode node = null;
+
+  private final int nameSpace;
+  private final String endpointUri;
+
+  private static Object lock = new Object();
+
+  public EdgeCubeItemService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
+    this.nameSpace = nameSpace;
+    this.endpointUri = endpointUri;
+  }
+
+  private CubeItemNode getNodeInstance() {
+    synchronized (lock) {
+      if (null == node)
+        node = new CubeItemNode(
+            EdgeSessionManager.getInstance().getSession(endpointUri).getClientInstance(),
+            new NodeId(nameSpace, EdgeNodeIdentifier.CubeItemType.value()));
+    }
+    return node;
+  }
+
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
+  /**
+   * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(Milo).
+   * @param  valueAilas service provider key
+   * @return EdgeNodeInfo
+   */
+  @Override
+  public EdgeNodeInfo getNodeInfo(String valueAilas) {
+    return new EdgeNodeInfo.Builder()
+        .setEdgeNodeId(new EdgeNodeId.Builder(nameSpace, EdgeNodeIdentifier.CubeItemType).build())
+        .setValueAlias(valueAilas).build();
+  }
+
+  /**
+   * add readers of the properties of cube item to dispatch table
+   * @param  table dispatch table
+   */
+  @Override
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "XAxisDefinition", value -> readAxisDefinition(value));
+    addProperty(table, "YAxisDefinition", value -> readAxisDefinition(value));
+    addProperty(table, "ZAxisDefinition", value -> readAxisDefinition(value));
+  }
+
+  private Variant readAxisDefinition(Object value) {
+    return new Variant(convertToAxisDefInfo(value));
+  }
+
+  private HashMap<String, String> convertToAxisDefInfo(Object obj) {
+    ExtensionObject extensionObject = (ExtensionObject) obj;
+    AxisInformation axisInfo = (AxisInformation) extensionObject.decode();
+
+    HashMap<String, String> info = new HashMap<String, String>();
+    info.put("Title", axisInfo.getTitle().getText().toString());
+    info.put("High", axisInfo.getEURange().getHigh().toString());
+    info.put("Low", axisInfo.getEURange().getLow().toString());
+
+    return info;
+  }
+
+  @Override
+  public EdgeNodeIdentifier getNodeType() throws Exception {
+    return EdgeNodeIdentifier.CubeItemType;
+  }
+}
@@ -19,25 +19,50 @@
 package org.edge.protocol.opcua.providers.services.da;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.sdk.client.api.nodes.VariableNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
+import org.eclipse.milo.opcua.sdk.core.NumericRange;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.EUInformation;
+import org.eclipse.milo.opcua.stack.core.types.structured.Range;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
 import org.edge.protocol.mapper.api.EdgeMapper;
 import org.edge.protocol.mapper.api.EdgeMapperCommon;
 import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -47,23 +72,39 @@ import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.api.common.EdgeVersatility;
+import org.edge.protocol.opcua.providers.services.EdgeAccessLevel;
 import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.edge.protocol.opcua.session.EdgeMetadataCache;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.edge.protocol.opcua.session.EdgeTrafficClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeDataItemService implements EdgeAttributeService {
   private DataItemNode node = null;
-  private EdgeMapper mapper = null;
+  protected EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
 
   private static Object lock = new Object();
 
-  protected int readAccessLevel = 1;
+  private final EdgeAccessLevel accessLevel = new EdgeAccessLevel();
   protected String dataType = null;
+  private volatile List<String> metadataProperties = null;
+  private volatile Map<EdgeNodeIdentifier, PropertyReader> readers = null;
+  private static final String PROPERTY_DEFINITION = "Definition";
+  private static final String PROPERTY_VALUE_PRECISION = "ValuePrecision";
+  private static final List<String> DYNAMIC_PROPERTIES = Arrays.asList("ValueAsText");
+  private static final long DEFAULT_REQUEST_TIMEOUT = 60000;
+  private static final ScheduledExecutorService timeoutScheduler =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "edge-read-timeout");
+        thread.setDaemon(true);
+        return thread;
+      });
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -83,12 +124,6 @@ public class EdgeDataItemService implements EdgeAttributeService {
   public EdgeDataItemService(int nameSpace, String endpointUri) {
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   /**
@@ -118,47 +153,214 @@ public class EdgeDataItemService implements EdgeAttributeService {
   }
 
   /**
-   * read node data synchronously
+   * read node data synchronously. the calling thread is not blocked, the response is added to
+   * receive queue when the read is completed (or an error when it is not completed in time)
    * @param  EdgeMessage msg
    * @return result
    */
   @Override
   public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    if (ep.getEdgeNodeID() == null) {
+    EdgeNodeIdentifier id = getRequestedId(msg);
+    if (checkIndexRange(msg) == false) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    } else if (EdgeNodeIdentifier.ReadValueId == id && getIndexRange(msg.getRequest()) != null) {
+      // only the requested part of array value is read
+      return completeRead(msg, convertAsync(readAsyncValueAttribute(getItemNode(), msg)
+          .thenApply(value -> getGoodValue(value)), value -> readValue(value)));
+    }
+
+    PropertyReader reader = getReaders().get(id);
+    if (reader == null) {
       return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
     }
-    EdgeNodeIdentifier id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
+    return completeRead(msg, reader.read());
+  }
 
+  /**
+   * reader of a value or property of the item (async)
+   */
+  @FunctionalInterface
+  protected interface PropertyReader {
+    CompletableFuture<Variant> read() throws Exception;
+  }
+
+  /**
+   * get dispatch table of the item type. it maps id of request to reader of the value or the
+   *        property, and it is generated once when the item is read at first.
+   * @return dispatch table
+   */
+  protected Map<EdgeNodeIdentifier, PropertyReader> getReaders() throws Exception {
+    Map<EdgeNodeIdentifier, PropertyReader> table = readers;
+    if (table == null) {
+      table = new EnumMap<EdgeNodeIdentifier, PropertyReader>(EdgeNodeIdentifier.class);
+      initReaders(table);
+      readers = table;
+    }
+    return table;
+  }
+
+  /**
+   * add readers of the value and the properties of the item type to dispatch table
+   * @param  table dispatch table
+   */
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    table.put(EdgeNodeIdentifier.ReadValueId, () -> {
+      DataItemNode item = getItemNode();
+      return convertAsync(reportRead(() -> item.getValue()), value -> readValue(value));
+    });
+    addProperty(table, PROPERTY_DEFINITION, value -> readDefinition((String) value));
+    addProperty(table, PROPERTY_VALUE_PRECISION, value -> readValuePrecision((Double) value));
+  }
+
+  /**
+   * add reader of static property to dispatch table. value of the property is read from metadata
+   *        cache and converted with the decoder.
+   * @param  table dispatch table
+   * @param  browseName browse name of property
+   * @param  decoder value converter
+   */
+  protected void addProperty(Map<EdgeNodeIdentifier, PropertyReader> table, String browseName,
+      ValueConverter decoder) throws Exception {
+    table.put(EdgeNodeIdentifier.valueOf(getNodeType().name() + "_" + browseName),
+        () -> readAsyncProperty(endpointUri, browseName, decoder));
+  }
+
+  /**
+   * get index range of request. only array items read or write a part of value, so the index
+   *        range is not used by default.
+   * @param  request edge request
+   * @return index range (null if whole value is requested)
+   */
+  protected String getIndexRange(EdgeRequest request) {
+    return null;
+  }
+
+  /**
+   * check format of index range of request. error is reported if it is invalid.
+   * @param  msg edge message
+   * @return true(valid or not requested) or false(invalid)
+   */
+  protected boolean checkIndexRange(EdgeMessage msg) {
+    return checkIndexRange(msg.getRequest(), getIndexRange(msg.getRequest()));
+  }
+
+  /**
+   * check format of index range of request. error is reported if it is invalid.
+   * @param  request edge request
+   * @param  indexRange index range of request (null if whole value is requested)
+   * @return true(valid or not requested) or false(invalid)
+   */
+  public static boolean checkIndexRange(EdgeRequest request, String indexRange) {
+    if (indexRange == null) {
+      return true;
+    }
     try {
-      if (EdgeNodeIdentifier.ReadValueId == id) {
-        ret = readValue(getNodeInstance().getValue().get());
-      } else if (EdgeNodeIdentifier.DataItemType_Definition == id) {
-        ret = readDefinition(getNodeInstance().getDefinition().get());
-      } else if (EdgeNodeIdentifier.DataItemType_ValuePrecision == id) {
-        ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-      } else {
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+      NumericRange.parse(indexRange);
+      return true;
+    } catch (UaException e) {
+      ErrorHandler.getInstance().addErrorMessage(request.getEdgeNodeInfo(),
+          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
+          new EdgeVersatility.Builder("index range is invalid : " + indexRange).build(),
+          request.getRequestId());
+      return false;
+    }
+  }
+
+  private static Object getGoodValue(DataValue value) {
+    if (value.getStatusCode().isBad()) {
+      throw new CompletionException(new UaException(value.getStatusCode()));
+    }
+    return value.getValue().getValue();
+  }
+
+  private EdgeNodeIdentifier getRequestedId(EdgeMessage msg) {
+    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
+    if (ep.getEdgeNodeID() == null) {
+      return EdgeNodeIdentifier.ReadValueId;
+    }
+    return ep.getEdgeNodeID().getEdgeNodeIdentifier();
+  }
+
+  /**
+   * converter of a value read from server to the value of response
+   */
+  @FunctionalInterface
+  protected interface ValueConverter {
+    Variant convert(Object value) throws Exception;
+  }
+
+  /**
+   * convert value with converter when it is read (async)
+   * @param  future future of value
+   * @param  converter value converter
+   * @return future of converted value
+   */
+  protected CompletableFuture<Variant> convertAsync(CompletableFuture<?> future,
+      ValueConverter converter) {
+    return future.thenApply(value -> {
+      try {
+        return converter.convert(value);
+      } catch (Exception e) {
+        throw new CompletionException(e);
       }
+    });
+  }
 
-      if (ret != null && ret.isNotNull()) {
-        EdgeEndpointInfo epInfo =
-            new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-        EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-            .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-            .build();
-        ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  /**
+   * read value of static property from metadata cache and convert it (async)
+   * @param  endpointUri endpoint uri of the item
+   * @param  browseName browse name of property
+   * @param  converter value converter
+   * @return future of converted value
+   */
+  protected CompletableFuture<Variant> readAsyncProperty(String endpointUri, String browseName,
+      ValueConverter converter) {
+    return convertAsync(readAsyncMetadata(endpointUri, browseName), converter);
+  }
+
+  /**
+   * add response of read request to receive queue when future is completed. error is reported
+   *        when it fails or is not completed within request timeout of the endpoint
+   * @param  msg edge message of read request
+   * @param  future future of read value
+   * @return result
+   */
+  protected EdgeResult completeRead(EdgeMessage msg, CompletableFuture<Variant> future) {
+    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
+    CompletableFuture<Variant> result = new CompletableFuture<Variant>();
+    ScheduledFuture<?> timer = timeoutScheduler.schedule(() -> {
+      result.completeExceptionally(new TimeoutException());
+    }, getRequestTimeout(msg.getEdgeEndpointInfo().getEndpointUri()), TimeUnit.MILLISECONDS);
+
+    future.whenComplete((value, e) -> {
+      if (e != null) {
+        result.completeExceptionally(e);
+      } else {
+        result.complete(value);
       }
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
+    });
+    result.whenComplete((value, e) -> {
+      timer.cancel(false);
+      if (e == null && value != null && value.isNotNull()) {
+        addResponse(value.getValue(), ep, msg);
+        return;
+      }
+      Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+      EdgeStatusCode code = cause instanceof TimeoutException
+          ? EdgeStatusCode.STATUS_REQUEST_TIMEOUT : EdgeStatusCode.STATUS_ERROR;
+      String message = cause != null ? String.valueOf(cause.getMessage()) : "value is empty";
+      ErrorHandler.getInstance().addErrorMessage(ep, new EdgeResult.Builder(code).build(),
+          new EdgeVersatility.Builder(message).build(), msg.getRequest().getRequestId());
+    });
+    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  }
 
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
+  private long getRequestTimeout(String endpointUri) {
+    EdgeOpcUaClient session = EdgeSessionManager.getInstance().getSession(endpointUri);
+    if (session == null) {
+      return DEFAULT_REQUEST_TIMEOUT;
+    }
+    return session.getClientInstance().getConfig().getRequestTimeout().longValue();
   }
 
   /**
@@ -191,11 +393,13 @@ public class EdgeDataItemService implements EdgeAttributeService {
    * @return boolean result
    */
   protected boolean checkNaNData(DataValue value) {
-    if (value.getValue().getDataType().get().getIdentifier() == EdgeNodeIdentifier.Double) {
+    EdgeNodeIdentifier type = value.getValue().getDataType()
+        .map(nodeId -> EdgeNodeIdentifier.fromValue(nodeId.getIdentifier())).orElse(null);
+    if (type == EdgeNodeIdentifier.Double) {
       if (value.getValue().getValue().equals(Double.NaN)) {
         return false;
       }
-    } else if (value.getValue().getDataType().get().getIdentifier() == EdgeNodeIdentifier.Float) {
+    } else if (type == EdgeNodeIdentifier.Float) {
       if (value.getValue().getValue().equals(Float.NaN)) {
         return false;
       }
@@ -252,9 +456,9 @@ public class EdgeDataItemService implements EdgeAttributeService {
    * @return CompletableFuture<DataValue>
    */
   protected CompletableFuture<DataValue> readAsyncValue(DataItemNode dNode, EdgeMessage msg) {
-    CompletableFuture<DataValue> future = dNode.readValue().thenApply(values -> {
-      return values;
-    }).exceptionally(e -> {
+    EdgeOpcUaClient session =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    CompletableFuture<DataValue> future = readAsyncValueAttribute(dNode, msg).exceptionally(e -> {
       ErrorHandler.getInstance().addErrorMessage(msg.getRequest().getEdgeNodeInfo(),
           new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
           new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
@@ -262,26 +466,131 @@ public class EdgeDataItemService implements EdgeAttributeService {
       return null;
     });
 
-    CompletableFuture<NodeId> dataType = dNode.getDataType().thenApply(values -> {
-      return values;
-    }).exceptionally(e -> {
-      return null;
-    });
+    // data type is kept in metadata cache, so only the value is read from server. the value is
+    // compared with the built-in type of the data type, so abstract or derived data types match.
+    CompletableFuture<NodeId> dataType = dNode.getNodeId()
+        .thenCompose(nodeId -> session.getMetadataCache().get(nodeId, getMetadataProperties()))
+        .thenApply(metadata -> metadata.getBuiltinType()).exceptionally(e -> {
+          return null;
+        });
 
     return dataType.thenCombineAsync(future, (nId, values) -> {
       if (Optional.ofNullable(nId).isPresent() && Optional.ofNullable(values).isPresent()) {
-        logger.info("{} {}", nId.getIdentifier(),
-            values.getValue().getDataType().get().getIdentifier());
-        if (nId.getIdentifier().equals(values.getValue().getDataType().get().getIdentifier())) {
+        NodeId valueType = values.getValue().getDataType().orElse(null);
+        logger.info("{} {}", nId.getIdentifier(), valueType);
+        if (EdgeMetadataCache.isInstanceOf(valueType, nId)) {
           if (Optional.ofNullable(checkValidation(values, msg)).isPresent()) {
             return values;
           }
+        } else {
+          // data type of node is changed (model change), metadata is read again
+          dNode.getNodeId().thenAccept(nodeId -> session.getMetadataCache().invalidate(nodeId));
         }
       }
       return null;
     });
   }
 
+  /**
+   * read Value attribute of the item. only the part of index range is read if it is requested.
+   * @param  dNode item node
+   * @param  msg edge message
+   * @return future of value
+   */
+  private CompletableFuture<DataValue> readAsyncValueAttribute(DataItemNode dNode,
+      EdgeMessage msg) {
+    String indexRange = getIndexRange(msg.getRequest());
+    if (indexRange == null) {
+      return reportRead(() -> dNode.readValue());
+    }
+    EdgeOpcUaClient session =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    return dNode.getNodeId().thenCompose(nodeId -> {
+      OpcUaClient client = session.getClientInstance(EdgeTrafficClass.READ_WRITE);
+      ReadValueId id = new ReadValueId(session.getNodeRegistry().lookup(client, nodeId),
+          AttributeId.Value.uid(), indexRange, QualifiedName.NULL_VALUE);
+      long start = System.nanoTime();
+      return client.read(0.0, TimestampsToReturn.Both, newArrayList(id))
+          .whenComplete((response, e) -> session.report(client, start, e))
+          .thenApply(response -> response.getResults()[0]);
+    });
+  }
+
+  /**
+   * read through the item node and report the result to the primary session of the endpoint,
+   *        so the reads of the node are counted in health metrics and session latency as well.
+   * @param  read read of the item node
+   * @return future of the read
+   */
+  private <T> CompletableFuture<T> reportRead(Supplier<CompletableFuture<T>> read) {
+    EdgeOpcUaClient session = EdgeSessionManager.getInstance().getSession(endpointUri);
+    long start = System.nanoTime();
+    return read.get()
+        .whenComplete((value, e) -> session.report(session.getClientInstance(), start, e));
+  }
+
+  /**
+   * get browse names of static properties of the item type. they are read once in one request
+   *        with DataType and kept in metadata cache of the endpoint.
+   * @return browse names of properties
+   */
+  protected List<String> getMetadataProperties() {
+    List<String> properties = metadataProperties;
+    if (properties == null) {
+      Set<String> names = new LinkedHashSet<String>();
+      names.add(PROPERTY_DEFINITION);
+      names.add(PROPERTY_VALUE_PRECISION);
+      try {
+        String prefix = getNodeType().name() + "_";
+        for (EdgeNodeIdentifier id : EdgeNodeIdentifier.values()) {
+          String name = id.name();
+          if (name.startsWith(prefix) && name.indexOf('_', prefix.length()) < 0
+              && DYNAMIC_PROPERTIES.contains(name.substring(prefix.length())) == false) {
+            names.add(name.substring(prefix.length()));
+          }
+        }
+      } catch (Exception e) {
+        logger.info("node type is not available : {}", e.getMessage());
+      }
+      properties = new ArrayList<String>(names);
+      metadataProperties = properties;
+    }
+    return properties;
+  }
+
+  /**
+   * read value of static property from metadata cache
+   * @param  endpointUri endpoint uri of the item
+   * @param  browseName browse name of property
+   * @return future of property value (null if the item does not have the property)
+   */
+  protected CompletableFuture<Object> readAsyncMetadata(String endpointUri, String browseName) {
+    try {
+      return readAsyncMetadata(getItemNode(), endpointUri, browseName);
+    } catch (Exception e) {
+      CompletableFuture<Object> future = new CompletableFuture<Object>();
+      future.completeExceptionally(e);
+      return future;
+    }
+  }
+
+  private CompletableFuture<Object> readAsyncMetadata(DataItemNode dNode, String endpointUri,
+      String browseName) {
+    EdgeOpcUaClient session = EdgeSessionManager.getInstance().getSession(endpointUri);
+    List<String> properties = getMetadataProperties();
+    if (properties.contains(browseName) == false) {
+      properties = new ArrayList<String>(properties);
+      properties.add(browseName);
+    }
+    final List<String> names = properties;
+    return dNode.getNodeId()
+        .thenCompose(nodeId -> session.getMetadataCache().get(nodeId, names))
+        .thenApply(metadata -> {
+          DataValue value = metadata.getProperty(browseName);
+          return value != null ? value.getValue().getValue() : null;
+        });
+  }
+
   /**
    * @fn boolean checkStatusGood(StatusCode status)
    * check status
@@ -304,8 +613,20 @@ public class EdgeDataItemService implements EdgeAttributeService {
    * @return CompletableFuture<StatusCode>
    */
   protected CompletableFuture<StatusCode> writeAsyncValue(DataItemNode dNode, EdgeMessage msg) {
-    return dNode.writeValue(new DataValue(new Variant(msg.getRequest().getMessage().getValue()),
-        null, null, null, null, null)).thenApply(status -> {
+    if (checkIndexRange(msg) == false) {
+      return CompletableFuture.completedFuture(null);
+    }
+    EdgeOpcUaClient session =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    DataValue value = new DataValue(new Variant(msg.getRequest().getMessage().getValue()), null,
+        null, null, null, null);
+    String indexRange = getIndexRange(msg.getRequest());
+
+    // write is coalesced and batched with other writes to the endpoint
+    return dNode.getNodeId()
+        .thenCompose(nodeId -> session.getWriteBatcher()
+            .write(new WriteValue(nodeId, AttributeId.Value.uid(), indexRange, value)))
+        .thenApply(status -> {
           if (checkStatusGood(status) == false) {
             String errorStatusCode = EdgeStatusCode.UNKNOWN_STATUS_CODE;
             Optional<String[]> statusCodes = StatusCodes.lookup(status.getValue());
@@ -336,8 +657,9 @@ public class EdgeDataItemService implements EdgeAttributeService {
    * @return CompletableFuture<String>
    */
   protected CompletableFuture<String> readAsyncDefinition(DataItemNode dNode, EdgeMessage msg) {
-    return dNode.getDefinition().thenApply(values -> {
-      return values;
+    String uri = msg.getEdgeEndpointInfo().getEndpointUri();
+    return readAsyncMetadata(dNode, uri, PROPERTY_DEFINITION).thenApply(value -> {
+      return value instanceof String ? (String) value : null;
     }).exceptionally(e -> {
       Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
         ErrorHandler.getInstance().addErrorMessage(endpoint,
@@ -369,8 +691,9 @@ public class EdgeDataItemService implements EdgeAttributeService {
    */
   protected CompletableFuture<Double> readAsyncValuePrecision(DataItemNode dNode, EdgeMessage msg)
       throws InterruptedException, ExecutionException {
-    return dNode.getValuePrecision().thenApply(values -> {
-      return values;
+    String uri = msg.getEdgeEndpointInfo().getEndpointUri();
+    return readAsyncMetadata(dNode, uri, PROPERTY_VALUE_PRECISION).thenApply(value -> {
+      return value instanceof Double ? (Double) value : null;
     }).exceptionally(e -> {
       Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
         ErrorHandler.getInstance().addErrorMessage(endpoint,
@@ -386,7 +709,7 @@ public class EdgeDataItemService implements EdgeAttributeService {
    * @param  Object value
    * @return Variant
    */
-  protected Variant readValue(Object value) throws InterruptedException, ExecutionException {
+  protected Variant readValue(Object value) {
     return new Variant(value);
   }
 
@@ -452,37 +775,26 @@ public class EdgeDataItemService implements EdgeAttributeService {
   @Override
   public EdgeResult readAsync(EdgeMessage msg) throws Exception {
     EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(value, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.DataItemType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(value, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.DataItemType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
+    EdgeNodeIdentifier id = getRequestedId(msg);
+    if (checkIndexRange(msg) == false) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
+    } else if (EdgeNodeIdentifier.ReadValueId == id) {
+      readAsyncValue(getItemNode(), msg).thenAccept(values -> {
         Optional.ofNullable(values).ifPresent(value -> {
           addResponse(value, ep, msg);
         });
       });
-    } else {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+    }
+
+    PropertyReader reader = getReaders().get(id);
+    if (reader == null) {
       ErrorHandler.getInstance().addErrorMessage(ep,
           new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
           msg.getRequest().getRequestId());
       return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
     }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+    return completeRead(msg, reader.read());
   }
 
   private void addResponse(Object value, EdgeNodeInfo nodeInfo, EdgeMessage msg) {
@@ -548,8 +860,7 @@ public class EdgeDataItemService implements EdgeAttributeService {
     }
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.BaseDataType.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(this.readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
@@ -588,13 +899,28 @@ public class EdgeDataItemService implements EdgeAttributeService {
   }
 
   /**
-   * get mapper
+   * get mapper (built by setMapper on first access)
    * @return EdgeMapper
    */
-  public EdgeMapper getMapper() {
+  public synchronized EdgeMapper getMapper() {
+    if (mapper == null) {
+      try {
+        setMapper();
+      } catch (Exception e) {
+        e.printStackTrace();
+      }
+    }
     return mapper;
   }
 
+  /**
+   * get access level of the node (read from server on first access)
+   * @return EdgeAccessLevel
+   */
+  protected EdgeAccessLevel getAccessLevel() {
+    return accessLevel;
+  }
+
   /**
    * get property of node
    * @param  variable node
@@ -603,7 +929,7 @@ public class EdgeDataItemService implements EdgeAttributeService {
   public void setProperty(VariableNode v) throws Exception {
     if (v == null)
       return;
-    readAccessLevel = Integer.parseInt(v.readAccessLevel().get().getValue().getValue().toString());
+    accessLevel.setNode(v);
     // for (EdgeNodeIdentifier id : EdgeNodeIdentifier.values()) {
     // if (id.value() == Integer.parseInt(v.getDataType().get().getIdentifier().toString())) {
     // logger.info("data type is {}", id.name());
@@ -621,4 +947,80 @@ public class EdgeDataItemService implements EdgeAttributeService {
   public NodeId getNodeId() {
     return null;
   }
+
+  /**
+   * get node instance of the item (services of sub types return their node instance)
+   * @return DataItemNode
+   */
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
+  /**
+   * get ReadValueId of request. property of the item is addressed by browse name which is the
+   *        last part of its identifier (e.g. EURange of AnalogItemType_EURange).
+   * @param  session EdgeOpcUaClient instance of endpoint
+   * @param  request edge request
+   * @return future of ReadValueId (null if request can not be read in a group)
+   */
+  @Override
+  public CompletableFuture<ReadValueId> getReadValueId(EdgeOpcUaClient session,
+      EdgeRequest request) {
+    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
+    EdgeNodeInfo ep = request.getEdgeNodeInfo();
+    if (ep.getEdgeNodeID() != null && ep.getEdgeNodeID().getEdgeNodeIdentifier() != null) {
+      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
+    }
+    DataItemNode itemNode = null;
+    try {
+      itemNode = getItemNode();
+    } catch (Exception e) {
+      logger.info("item node is not available : {}", e.getMessage());
+      return CompletableFuture.completedFuture(null);
+    }
+
+    final EdgeNodeIdentifier propertyId = id;
+    return itemNode.getNodeId().thenCompose(nodeId -> {
+      if (EdgeNodeIdentifier.ReadValueId == propertyId) {
+        return CompletableFuture.completedFuture(new ReadValueId(nodeId, AttributeId.Value.uid(),
+            getIndexRange(request), QualifiedName.NULL_VALUE));
+      }
+      String name = propertyId.name();
+      return session.getPathResolver()
+          .resolveProperty(nodeId, name.substring(name.lastIndexOf('_') + 1))
+          .thenApply(propertyNodeId -> propertyNodeId == null ? null
+              : new ReadValueId(propertyNodeId, AttributeId.Value.uid(), null,
+                  QualifiedName.NULL_VALUE));
+    });
+  }
+
+  /**
+   * convert DataValue of value or property to response value. Range and EUInformation are
+   *        converted to map as readAsync does.
+   * @param  request edge request
+   * @param  value data value
+   * @return response value
+   */
+  @Override
+  public Object convertValue(EdgeRequest request, DataValue value) {
+    Object obj = value.getValue().getValue();
+    if (obj instanceof ExtensionObject) {
+      Object decoded = ((ExtensionObject) obj).decode();
+      if (decoded instanceof Range) {
+        HashMap<String, String> info = new HashMap<String, String>();
+        info.put("High", ((Range) decoded).getHigh().toString());
+        info.put("Low", ((Range) decoded).getLow().toString());
+        return info;
+      } else if (decoded instanceof EUInformation) {
+        HashMap<String, String> info = new HashMap<String, String>();
+        info.put("Description", ((EUInformation) decoded).getDescription().getText());
+        info.put("DisplayName", ((EUInformation) decoded).getDisplayName().getText());
+        return info;
+      }
+      return decoded;
+    } else if (obj instanceof LocalizedText) {
+      return ((LocalizedText) obj).getText();
+    }
+    return obj;
+  }
 }
@@ -18,38 +18,29 @@
 
 package org.edge.protocol.opcua.providers.services.da;
 
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.MultiStateDiscreteNode;
-import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
 import org.edge.protocol.mapper.api.EdgeMapper;
 import org.edge.protocol.mapper.api.EdgeMapperCommon;
-import org.edge.protocol.opcua.api.ProtocolManager;
-import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
-import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
 import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
 import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
-import org.edge.protocol.opcua.api.common.EdgeVersatility;
-import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeMultiStateDiscreteService extends EdgeDataItemService {
   private MultiStateDiscreteNode node = null;
-  private EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
@@ -59,14 +50,9 @@ public class EdgeMultiStateDiscreteService extends EdgeDataItemService {
   private final Logger logger = LoggerFactory.getLogger(getClass());
 
   public EdgeMultiStateDiscreteService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   private MultiStateDiscreteNode getNodeInstance() {
@@ -79,6 +65,15 @@ public class EdgeMultiStateDiscreteService extends EdgeDataItemService {
     return node;
   }
 
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
   /**
    * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(Milo).
    * @param  valueAilas service provider key
@@ -92,118 +87,18 @@ public class EdgeMultiStateDiscreteService extends EdgeDataItemService {
         .setValueAlias(valueAilas).build();
   }
 
+  /**
+   * add readers of the properties of multi state discrete to dispatch table
+   * @param  table dispatch table
+   */
   @Override
-  public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    try {
-      if (EdgeNodeIdentifier.ReadValueId == id)
-        ret = readValue(getNodeInstance().getValue().get());
-      else if (EdgeNodeIdentifier.MultiStateDiscreteType_Definition == id)
-        ret = readDefinition(getNodeInstance().getDefinition().get());
-      else if (EdgeNodeIdentifier.MultiStateDiscreteType_ValuePrecision == id)
-        ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-      else if (EdgeNodeIdentifier.MultiStateDiscreteType_EnumStrings == id)
-        ret = readEnumStrings();
-      else
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
-
-      if (ret != null && ret.isNotNull()) {
-        EdgeEndpointInfo epInfo =
-            new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-        EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-            .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-            .build();
-        ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-      }
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-  }
-
-  private Variant readEnumStrings() throws InterruptedException, ExecutionException {
-    return new Variant(getNodeInstance().getEnumStrings().get());
-  }
-
-  private CompletableFuture<LocalizedText[]> readAsyncEnumStrings(EdgeMessage msg) {
-    return getNodeInstance().getEnumStrings().thenApply(value -> {
-      return value;
-    }).exceptionally(e -> {
-      Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
-        ErrorHandler.getInstance().addErrorMessage(endpoint,
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-            new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-      });
-      return null;
-    });
-  }
-
-  @Override
-  public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values.getValue().getValue(), ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.MultiStateDiscreteType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.MultiStateDiscreteType_EnumStrings == id) {
-      readAsyncEnumStrings(msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          for (LocalizedText localizedText : values) {
-            logger.info("enum string : {}", localizedText.getText());
-          }
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.MultiStateDiscreteType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else {
-      ErrorHandler.getInstance().addErrorMessage(ep,
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-          msg.getRequest().getRequestId());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "EnumStrings", value -> readEnumStrings(value));
   }
 
-  private void addResponse(Object value, EdgeNodeInfo nodeInfo, EdgeMessage msg) {
-    EdgeEndpointInfo epInfo =
-        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-        .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-    EdgeMessage inputData =
-        new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(
-                newArrayList(new EdgeResponse.Builder(nodeInfo, msg.getRequest().getRequestId())
-                    .setMessage(new EdgeVersatility.Builder(value).build()).build()))
-            .build();
-    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
+  private Variant readEnumStrings(Object value) {
+    return new Variant(value);
   }
 
   @Override
@@ -236,8 +131,7 @@ public class EdgeMultiStateDiscreteService extends EdgeDataItemService {
 
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.UInteger.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
@@ -272,8 +166,4 @@ public class EdgeMultiStateDiscreteService extends EdgeDataItemService {
       });
     });
   }
-
-  public EdgeMapper getMapper() {
-    return mapper;
-  }
 }
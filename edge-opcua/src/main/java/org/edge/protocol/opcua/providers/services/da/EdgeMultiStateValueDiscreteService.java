@@ -19,11 +19,11 @@
 package org.edge.protocol.opcua.providers.services.da;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.MultiStateValueDiscreteNode;
-import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.PropertyNode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
@@ -35,7 +35,6 @@ import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -45,7 +44,6 @@ import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.api.common.EdgeVersatility;
-import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,7 +51,6 @@ import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeMultiStateValueDiscreteService extends EdgeDataItemService {
   private MultiStateValueDiscreteNode node = null;
-  private EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
@@ -63,14 +60,9 @@ public class EdgeMultiStateValueDiscreteService extends EdgeDataItemService {
   private final Logger logger = LoggerFactory.getLogger(getClass());
 
   public EdgeMultiStateValueDiscreteService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   private MultiStateValueDiscreteNode getNodeInstance() {
@@ -83,6 +75,15 @@ public class EdgeMultiStateValueDiscreteService extends EdgeDataItemService {
     return node;
   }
 
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
   /**
    * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(Milo).
    * @param  valueAilas service provider key
@@ -95,81 +96,25 @@ public class EdgeMultiStateValueDiscreteService extends EdgeDataItemService {
         .setValueAlias(valueAilas).build();
   }
 
+  /**
+   * add readers of the properties of multi state value discrete to dispatch table
+   * @param  table dispatch table
+   */
   @Override
-  public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    try {
-      if (EdgeNodeIdentifier.ReadValueId == id)
-        ret = readValue(getNodeInstance().getValue().get());
-      else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_Definition == id)
-        ret = readDefinition(getNodeInstance().getDefinition().get());
-      else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_ValuePrecision == id)
-        ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-      else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_EnumValues == id)
-        ret = readEnumValues();
-      else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_ValueAsText == id)
-        ret = readValueAsText();
-      else
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
-
-      if (ret != null && ret.isNotNull()) {
-        EdgeEndpointInfo epInfo =
-            new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-        EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-            .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-            .build();
-        ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-      }
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-  }
-
-  private Variant readEnumValues() throws InterruptedException, ExecutionException {
-    return new Variant(
-        convertToEnumValuesInfo(getNodeInstance().enumValues().get().getValue().get()));
-  }
-
-  private CompletableFuture<PropertyNode> readAsyncEnumValues(EdgeMessage msg) {
-    return getNodeInstance().enumValues().thenApply(value -> {
-      return value;
-    }).exceptionally(e -> {
-      Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
-        ErrorHandler.getInstance().addErrorMessage(endpoint,
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-            new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-      });
-      return null;
-    });
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "EnumValues", value -> readEnumValues(value));
+    // ValueAsText changes with the value, so it is not kept in metadata cache
+    table.put(EdgeNodeIdentifier.MultiStateValueDiscreteType_ValueAsText,
+        () -> convertAsync(getNodeInstance().getValueAsText(), value -> readValueAsText(value)));
   }
 
-  private Variant readValueAsText() throws InterruptedException, ExecutionException {
-    return new Variant(getNodeInstance().getValueAsText().get().getText());
+  private Variant readEnumValues(Object value) throws InterruptedException, ExecutionException {
+    return new Variant(convertToEnumValuesInfo(value));
   }
 
-  private CompletableFuture<LocalizedText> readAsyncValueAsText(EdgeMessage msg) {
-    return getNodeInstance().getValueAsText().thenApply(value -> {
-      return value;
-    }).exceptionally(e -> {
-      Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
-        ErrorHandler.getInstance().addErrorMessage(endpoint,
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-            new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-      });
-      return null;
-    });
+  private Variant readValueAsText(Object value) {
+    return new Variant(((LocalizedText) value).getText());
   }
 
   private HashMap<String, String> convertToEnumValuesInfo(Object obj)
@@ -188,77 +133,6 @@ public class EdgeMultiStateValueDiscreteService extends EdgeDataItemService {
     return info;
   }
 
-  @Override
-  public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values.getValue().getValue(), ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_EnumValues == id) {
-      readAsyncEnumValues(msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(values -> {
-          property.getValue().thenAccept(value -> {
-            Variant info = null;
-            try {
-              info = new Variant(convertToEnumValuesInfo(value));
-            } catch (InterruptedException | ExecutionException e) {
-              e.printStackTrace();
-            }
-            if (info != null) {
-              addResponse(info.getValue(), ep, msg);
-            }
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.MultiStateValueDiscreteType_ValueAsText == id) {
-      readAsyncValueAsText(msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values.getText(), ep, msg);
-        });
-      });
-    } else {
-      ErrorHandler.getInstance().addErrorMessage(ep,
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-          msg.getRequest().getRequestId());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-  }
-
-  private void addResponse(Object value, EdgeNodeInfo nodeInfo, EdgeMessage msg) {
-    EdgeEndpointInfo epInfo =
-        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-            .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-    EdgeMessage inputData =
-        new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(
-                newArrayList(new EdgeResponse.Builder(nodeInfo, msg.getRequest().getRequestId())
-                    .setMessage(new EdgeVersatility.Builder(value).build()).build()))
-            .build();
-    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-  }
-
   @Override
   public EdgeResult write(EdgeMessage msg) throws Exception {
     writeAsyncValue(getNodeInstance(), msg).thenAccept(status -> {
@@ -293,8 +167,7 @@ public class EdgeMultiStateValueDiscreteService extends EdgeDataItemService {
 
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.Number.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
@@ -329,8 +202,4 @@ public class EdgeMultiStateValueDiscreteService extends EdgeDataItemService {
       });
     });
   }
-
-  public EdgeMapper getMapper() {
-    return mapper;
-  }
 }
@@ -19,9 +19,10 @@
 package org.edge.protocol.opcua.providers.services.da;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.NDimensionArrayItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.PropertyNode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
@@ -34,7 +35,6 @@ import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -52,7 +52,6 @@ import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeNDimensionArrayItemService extends EdgeArrayItemService {
   private NDimensionArrayItemNode node = null;
-  private EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
@@ -62,14 +61,9 @@ public class EdgeNDimensionArrayItemService extends EdgeArrayItemService {
   private final Logger logger = LoggerFactory.getLogger(getClass());
 
   public EdgeNDimensionArrayItemService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   private NDimensionArrayItemNode getNodeInstance() {
@@ -82,6 +76,15 @@ public class EdgeNDimensionArrayItemService extends EdgeArrayItemService {
     return node;
   }
 
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
   /**
    * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(Milo).
    * @param  valueAilas service provider key
@@ -95,55 +98,18 @@ public class EdgeNDimensionArrayItemService extends EdgeArrayItemService {
         .setValueAlias(valueAilas).build();
   }
 
+  /**
+   * add readers of the properties of n-dimension array item to dispatch table
+   * @param  table dispatch table
+   */
   @Override
-  public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      ret = readValue(getNodeInstance().getValue().get());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_Definition == id) {
-      ret = readDefinition(getNodeInstance().getDefinition().get());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_AxisScaleType == id) {
-      ret = readAxisScaleType(getNodeInstance().axisScaleType().get().getValue().get());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_EngineeringUnits == id) {
-      ret = readEngineeringUnits(getNodeInstance().engineeringUnits().get().getValue().get());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_EURange == id) {
-      ret = readEURange(getNodeInstance().eURange().get().getValue().get());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_ValuePrecision == id) {
-      ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_Title == id) {
-      ret = readTitle(getNodeInstance().getTitle().get().getText());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_InstrumentRange == id) {
-      ret = readInstrumentRange(getNodeInstance().instrumentRange().get().getValue().get());
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_AxisDefinition == id) {
-      ret = readXAxisDefinition();
-    } else {
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
-    }
-
-    if (ret != null && ret.isNotNull()) {
-      EdgeEndpointInfo epInfo =
-          new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-              .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-      EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-          .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-          .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-              .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-          .build();
-      ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-    }
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "AxisDefinition", value -> readXAxisDefinition(value));
   }
 
-  private Variant readXAxisDefinition() throws InterruptedException, ExecutionException {
-    return new Variant(
-        convertToXAxisDefInfo(getNodeInstance().axisDefinition().get().getValue().get()));
+  private Variant readXAxisDefinition(Object value) {
+    return new Variant(convertToXAxisDefInfo(value));
   }
 
   private CompletableFuture<PropertyNode> readAsyncXAxisDefinition(EdgeMessage msg) {
@@ -192,101 +158,6 @@ public class EdgeNDimensionArrayItemService extends EdgeArrayItemService {
     return info;
   }
 
-  @Override
-  public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values.getValue().getValue(), ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_EURange == id) {
-      readAsyncEURange(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.Range).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_InstrumentRange == id) {
-      readAsyncInstrumentRange(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.Range).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_EngineeringUnits == id) {
-      readAsyncEngineeringUnits(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.EUInformation).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_Title == id) {
-      readAsyncTitle(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_AxisScaleType == id) {
-      readAsyncAxisScaleType(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(values -> {
-          property.getValue().thenAccept(value -> {
-            addResponse(values, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.NDimensionArrayItemType_AxisDefinition == id) {
-      readAsyncXAxisDefinition(msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertAxisProperty(property).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else {
-      ErrorHandler.getInstance().addErrorMessage(ep,
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-          msg.getRequest().getRequestId());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-  }
-
-  private void addResponse(Object value, EdgeNodeInfo nodeInfo, EdgeMessage msg) {
-    EdgeEndpointInfo epInfo =
-        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-            .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-    EdgeMessage inputData =
-        new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(
-                newArrayList(new EdgeResponse.Builder(nodeInfo, msg.getRequest().getRequestId())
-                    .setMessage(new EdgeVersatility.Builder(value).build()).build()))
-            .build();
-    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-  }
-
   @Override
   public EdgeResult write(EdgeMessage msg) throws Exception {
     writeAsyncValue(getNodeInstance(), msg).thenAccept(status -> {
@@ -321,8 +192,7 @@ public class EdgeNDimensionArrayItemService extends EdgeArrayItemService {
 
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.BaseDataType.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
@@ -398,8 +268,4 @@ public class EdgeNDimensionArrayItemService extends EdgeArrayItemService {
       });
     });
   }
-
-  public EdgeMapper getMapper() {
-    return mapper;
-  }
 }
@@ -18,8 +18,9 @@
 
 package org.edge.protocol.opcua.providers.services.da;
 
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.TwoStateDiscreteNode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
@@ -30,7 +31,6 @@ import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
@@ -40,7 +40,6 @@ import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.api.common.EdgeVersatility;
-import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,7 +47,6 @@ import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeTwoStateDiscreteService extends EdgeDataItemService {
   private TwoStateDiscreteNode node = null;
-  private EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
@@ -56,14 +54,9 @@ public class EdgeTwoStateDiscreteService extends EdgeDataItemService {
   private static Object lock = new Object();
 
   public EdgeTwoStateDiscreteService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   public TwoStateDiscreteNode getNodeInstance() throws Exception {
@@ -76,6 +69,15 @@ public class EdgeTwoStateDiscreteService extends EdgeDataItemService {
     return node;
   }
 
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
   /**
    * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(Milo).
    * @param  valueAilas service provider key
@@ -89,151 +91,19 @@ public class EdgeTwoStateDiscreteService extends EdgeDataItemService {
         .setValueAlias(valueAilas).build();
   }
 
+  /**
+   * add readers of the properties of two state discrete to dispatch table
+   * @param  table dispatch table
+   */
   @Override
-  public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    try {
-      if (EdgeNodeIdentifier.ReadValueId == id)
-        ret = readValue(getNodeInstance().getValue().get());
-      else if (EdgeNodeIdentifier.TwoStateDiscreteType_Definition == id)
-        ret = readDefinition(getNodeInstance().getDefinition().get());
-      else if (EdgeNodeIdentifier.TwoStateDiscreteType_ValuePrecision == id)
-        ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-      else if (EdgeNodeIdentifier.TwoStateDiscreteType_TrueState == id)
-        ret = readTrueState();
-      else if (EdgeNodeIdentifier.TwoStateDiscreteType_FalseState == id)
-        ret = readFalseState();
-      else
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
-
-      if (ret != null && ret.isNotNull()) {
-        EdgeEndpointInfo epInfo =
-            new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-        EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-            .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-            .build();
-        ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-        return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-      }
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-
-  }
-
-  private Variant readTrueState() throws Exception {
-    return new Variant(getNodeInstance().getTrueState().get().getText());
-  }
-
-  private Variant readFalseState() throws Exception {
-    return new Variant(getNodeInstance().getFalseState().get().getText());
-  }
-
-  private CompletableFuture<LocalizedText> readAsyncData(EdgeNodeIdentifier id, EdgeMessage msg)
-      throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    if (EdgeNodeIdentifier.TwoStateDiscreteType_TrueState == id) {
-      return getNodeInstance().getTrueState().thenApply(value -> {
-        return value;
-      }).exceptionally(e -> {
-        Optional.ofNullable(ep).ifPresent(endpoint -> {
-          ErrorHandler.getInstance().addErrorMessage(endpoint,
-              new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-              new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-        });
-        return null;
-      });
-    } else if (EdgeNodeIdentifier.TwoStateDiscreteType_FalseState == id) {
-      return getNodeInstance().getFalseState().thenApply(value -> {
-        return value;
-      }).exceptionally(e -> {
-        Optional.ofNullable(ep).ifPresent(endpoint -> {
-          ErrorHandler.getInstance().addErrorMessage(endpoint,
-              new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-              new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-        });
-        return null;
-      });
-    } else {
-      Optional.ofNullable(ep).ifPresent(endpoint -> {
-        ErrorHandler.getInstance().addErrorMessage(ep,
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-            msg.getRequest().getRequestId());
-      });
-      return null;
-    }
-  }
-
-  @Override
-  public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values.getValue().getValue(), ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.TwoStateDiscreteType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.TwoStateDiscreteType_TrueState == id) {
-      readAsyncData(id, msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values.getText(), ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.TwoStateDiscreteType_FalseState == id) {
-      readAsyncData(id, msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values.getText(), ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.TwoStateDiscreteType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else {
-      ErrorHandler.getInstance().addErrorMessage(ep,
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-          msg.getRequest().getRequestId());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "TrueState", value -> readState(value));
+    addProperty(table, "FalseState", value -> readState(value));
   }
 
-  private void addResponse(Object value, EdgeNodeInfo nodeInfo, EdgeMessage msg) {
-    EdgeEndpointInfo epInfo =
-        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-            .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-    EdgeMessage inputData =
-        new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(
-                newArrayList(new EdgeResponse.Builder(nodeInfo, msg.getRequest().getRequestId())
-                    .setMessage(new EdgeVersatility.Builder(value).build()).build()))
-            .build();
-    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
+  private Variant readState(Object value) {
+    return new Variant(((LocalizedText) value).getText());
   }
 
   @Override
@@ -270,8 +140,7 @@ public class EdgeTwoStateDiscreteService extends EdgeDataItemService {
 
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.Boolean.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
@@ -306,8 +175,4 @@ public class EdgeTwoStateDiscreteService extends EdgeDataItemService {
       });
     });
   }
-
-  public EdgeMapper getMapper() {
-    return mapper;
-  }
 }
@@ -19,9 +19,10 @@
 package org.edge.protocol.opcua.providers.services.da;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.DataItemNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.PropertyNode;
 import org.eclipse.milo.opcua.sdk.client.model.nodes.variables.XYArrayItemNode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
@@ -31,13 +32,9 @@ import org.eclipse.milo.opcua.stack.core.types.structured.AxisInformation;
 import org.eclipse.milo.opcua.stack.core.types.structured.XVType;
 import org.edge.protocol.mapper.api.EdgeMapper;
 import org.edge.protocol.mapper.api.EdgeMapperCommon;
-import org.edge.protocol.opcua.api.ProtocolManager;
-import org.edge.protocol.opcua.api.client.EdgeResponse;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
-import org.edge.protocol.opcua.api.common.EdgeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
-import org.edge.protocol.opcua.api.common.EdgeMessageType;
 import org.edge.protocol.opcua.api.common.EdgeNodeId;
 import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
@@ -49,11 +46,9 @@ import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import static com.google.common.collect.Lists.newArrayList;
 
 public class EdgeXYArrayItemService extends EdgeArrayItemService {
   private XYArrayItemNode node = null;
-  private EdgeMapper mapper = null;
 
   private final int nameSpace;
   private final String endpointUri;
@@ -63,14 +58,9 @@ public class EdgeXYArrayItemService extends EdgeArrayItemService {
   private final Logger logger = LoggerFactory.getLogger(getClass());
 
   public EdgeXYArrayItemService(int nameSpace, String endpointUri) {
+    super(nameSpace, endpointUri);
     this.nameSpace = nameSpace;
     this.endpointUri = endpointUri;
-
-    try {
-      this.setMapper();
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
   }
 
   private XYArrayItemNode getNodeInstance() {
@@ -83,6 +73,15 @@ public class EdgeXYArrayItemService extends EdgeArrayItemService {
     return node;
   }
 
+  /**
+   * get node instance of the item
+   * @return DataItemNode
+   */
+  @Override
+  protected DataItemNode getItemNode() throws Exception {
+    return getNodeInstance();
+  }
+
   /**
    * get EdgeNodeInfo with the parameter to make nodeId of OPCUA library(Milo).
    * @param  valueAilas service provider key
@@ -96,72 +95,28 @@ public class EdgeXYArrayItemService extends EdgeArrayItemService {
         .setValueAlias(valueAilas).build();
   }
 
+  /**
+   * add readers of the properties of XY array item to dispatch table
+   * @param  table dispatch table
+   */
   @Override
-  public EdgeResult readSync(EdgeMessage msg) throws Exception {
-    Variant ret = null;
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id)
-      ret = readValue();
-    else if (EdgeNodeIdentifier.XYArrayItemType_Definition == id)
-      ret = readDefinition(getNodeInstance().getDefinition().get());
-    else if (EdgeNodeIdentifier.XYArrayItemType_AxisScaleType == id)
-      ret = readAxisScaleType(getNodeInstance().axisScaleType().get().getValue().get());
-    else if (EdgeNodeIdentifier.XYArrayItemType_EngineeringUnits == id)
-      ret = readEngineeringUnits(getNodeInstance().engineeringUnits().get().getValue().get());
-    else if (EdgeNodeIdentifier.XYArrayItemType_EURange == id)
-      ret = readEURange(getNodeInstance().eURange().get().getValue().get());
-    else if (EdgeNodeIdentifier.XYArrayItemType_ValuePrecision == id)
-      ret = readValuePrecision(getNodeInstance().getValuePrecision().get());
-    else if (EdgeNodeIdentifier.XYArrayItemType_Title == id)
-      ret = readTitle(getNodeInstance().getTitle().get().getText());
-    else if (EdgeNodeIdentifier.XYArrayItemType_InstrumentRange == id)
-      ret = readInstrumentRange(getNodeInstance().instrumentRange().get().getValue().get());
-    else if (EdgeNodeIdentifier.XYArrayItemType_XAxisDefinition == id)
-      ret = readXAxisDefinition();
-    else
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
-
-    if (ret != null && ret.isNotNull()) {
-      EdgeEndpointInfo epInfo =
-          new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-              .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-      EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
-          .setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-          .setResponses(newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-              .setMessage(new EdgeVersatility.Builder(ret.getValue()).build()).build()))
-          .build();
-      ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-  }
-
-  private Variant readValue() throws InterruptedException, ExecutionException {
-    return new Variant(convertToXVTypeInfo(getNodeInstance().getValue().get()));
+  protected void initReaders(Map<EdgeNodeIdentifier, PropertyReader> table) throws Exception {
+    super.initReaders(table);
+    addProperty(table, "XAxisDefinition", value -> readXAxisDefinition(value));
   }
 
-  private CompletableFuture<Object> readAsyncValue(EdgeMessage msg) {
-    return getNodeInstance().getValue().thenApply(value -> {
-      return value;
-    }).exceptionally(e -> {
-      Optional.ofNullable(msg.getRequest().getEdgeNodeInfo()).ifPresent(endpoint -> {
-        ErrorHandler.getInstance().addErrorMessage(endpoint,
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
-            new EdgeVersatility.Builder(e.getMessage()).build(), msg.getRequest().getRequestId());
-      });
-      return null;
-    });
+  /**
+   * read value of XVType
+   * @param  value XVType value
+   * @return Variant of X and value
+   */
+  @Override
+  protected Variant readValue(Object value) {
+    return new Variant(convertToXVTypeInfo(value));
   }
 
-  private Variant readXAxisDefinition() throws InterruptedException, ExecutionException {
-    return new Variant(
-        convertToAxisDefInfo(getNodeInstance().xAxisDefinition().get().getValue().get()));
+  private Variant readXAxisDefinition(Object value) {
+    return new Variant(convertToAxisDefInfo(value));
   }
 
   private HashMap<String, String> convertToXVTypeInfo(Object obj) {
@@ -211,102 +166,6 @@ public class EdgeXYArrayItemService extends EdgeArrayItemService {
     return info;
   }
 
-  @Override
-  public EdgeResult readAsync(EdgeMessage msg) throws Exception {
-    EdgeNodeInfo ep = msg.getRequest().getEdgeNodeInfo();
-    EdgeNodeIdentifier id = EdgeNodeIdentifier.ReadValueId;
-    if (ep.getEdgeNodeID() != null) {
-      id = ep.getEdgeNodeID().getEdgeNodeIdentifier();
-    }
-
-    if (EdgeNodeIdentifier.ReadValueId == id) {
-      readAsyncValue(msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          Variant info = new Variant(convertToXVTypeInfo(values));
-          addResponse(info.getValue(), ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_Definition == id) {
-      readAsyncDefinition(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_EURange == id) {
-      readAsyncEURange(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.Range).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_InstrumentRange == id) {
-      readAsyncInstrumentRange(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.Range).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_EngineeringUnits == id) {
-      readAsyncEngineeringUnits(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(value -> {
-          convertProperty(property, EdgeNodeIdentifier.EUInformation).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_ValuePrecision == id) {
-      readAsyncValuePrecision(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_Title == id) {
-      readAsyncTitle(getNodeInstance(), msg).thenAccept(values -> {
-        Optional.ofNullable(values).ifPresent(value -> {
-          addResponse(values, ep, msg);
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_AxisScaleType == id) {
-      readAsyncAxisScaleType(getNodeInstance(), msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(values -> {
-          property.getValue().thenAccept(value -> {
-            addResponse(value, ep, msg);
-          });
-        });
-      });
-    } else if (EdgeNodeIdentifier.XYArrayItemType_XAxisDefinition == id) {
-      readAsyncXAxisDefinition(msg).thenAccept(property -> {
-        Optional.ofNullable(property).ifPresent(values -> {
-          convertAxisProperty(property).thenAccept(info -> {
-            addResponse(info, ep, msg);
-          });
-        });
-      });
-    } else {
-      ErrorHandler.getInstance().addErrorMessage(ep,
-          new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build(),
-          msg.getRequest().getRequestId());
-      return new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build();
-    }
-
-    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
-  }
-
-  private void addResponse(Object value, EdgeNodeInfo nodeInfo, EdgeMessage msg) {
-    EdgeEndpointInfo epInfo =
-        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-            .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-    EdgeMessage inputData =
-        new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-            .setResponses(
-                newArrayList(new EdgeResponse.Builder(nodeInfo, msg.getRequest().getRequestId())
-                    .setMessage(new EdgeVersatility.Builder(value).build()).build()))
-            .build();
-    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-  }
-
   @Override
   public EdgeResult write(EdgeMessage msg) throws Exception {
     return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
@@ -342,8 +201,7 @@ public class EdgeXYArrayItemService extends EdgeArrayItemService {
 
     mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_TYPE.name(),
         EdgeNodeIdentifier.BaseDataType.name().toString());
-    mapper.addMappingData(EdgeMapperCommon.PROPERTYVALUE_READWRITE.name(),
-        EdgeIdentifier.convertAccessLevel(readAccessLevel));
+    getAccessLevel().addMappingData(mapper);
 
     EdgeEndpointInfo epInfo =
         new EdgeEndpointInfo.Builder(EdgeOpcUaCommon.WELL_KNOWN_LOCALHOST_URI.getValue()).build();
@@ -420,8 +278,4 @@ public class EdgeXYArrayItemService extends EdgeArrayItemService {
       });
     });
   }
-
-  public EdgeMapper getMapper() {
-    return mapper;
-  }
 }
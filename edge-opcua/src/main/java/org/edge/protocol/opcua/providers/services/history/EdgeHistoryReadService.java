@@ -0,0 +1,399 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.providers.services.history;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.toList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.AggregateConfiguration;
+import org.eclipse.milo.opcua.stack.core.types.structured.HistoryData;
+import org.eclipse.milo.opcua.stack.core.types.structured.HistoryReadDetails;
+import org.eclipse.milo.opcua.stack.core.types.structured.HistoryReadResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.HistoryReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadAtTimeDetails;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadProcessedDetails;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadRawModifiedDetails;
+import org.edge.protocol.opcua.api.ProtocolManager;
+import org.edge.protocol.opcua.api.client.EdgeHistoryReadParameter;
+import org.edge.protocol.opcua.api.client.EdgeResponse;
+import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
+import org.edge.protocol.opcua.api.common.EdgeMessage;
+import org.edge.protocol.opcua.api.common.EdgeMessageType;
+import org.edge.protocol.opcua.api.common.EdgeRequest;
+import org.edge.protocol.opcua.api.common.EdgeResult;
+import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.edge.protocol.opcua.api.common.EdgeVersatility;
+import org.edge.protocol.opcua.session.EdgeChunkedRequest;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
+import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.edge.protocol.opcua.session.EdgeTrafficClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads history data of nodes with HistoryRead service. Continuation points are followed until
+ * all data is read and each page is delivered to the callback as HISTORY_RESPONSE message, one
+ * response per node. Next page is requested only when delivered pages are handled, so memory is
+ * bounded by the page size regardless of the time range.
+ */
+public class EdgeHistoryReadService {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static EdgeHistoryReadService service = null;
+  private static Object lock = new Object();
+  private static Map<Integer, HistoryTask> activeTasks =
+      new ConcurrentHashMap<Integer, HistoryTask>();
+
+  private EdgeHistoryReadService() {
+
+  }
+
+  /**
+   * get EdgeHistoryReadService Instance
+   * @return EdgeHistoryReadService Instance
+   */
+  public static EdgeHistoryReadService getInstance() {
+    synchronized (lock) {
+      if (null == service) {
+        service = new EdgeHistoryReadService();
+      }
+      return service;
+    }
+  }
+
+  /**
+   * close EdgeHistoryReadService Instance
+   */
+  public void close() {
+    for (HistoryTask task : activeTasks.values()) {
+      task.cancel();
+    }
+    service = null;
+  }
+
+  /**
+   * read history data of requests in the message
+   * @param  msg edge message which has request(s) and history read parameter
+   * @param  nodeIds node id of each request
+   * @return result
+   */
+  public EdgeResult historyRead(EdgeMessage msg, List<NodeId> nodeIds) {
+    EdgeOpcUaClient client =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    if (client == null) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_DISCONNECTED).build();
+    }
+    HistoryReadDetails details = getDetails(msg.getHistoryReadParameter());
+    if (details == null) {
+      return new EdgeResult.Builder(EdgeStatusCode.STATUS_PARAM_INVALID).build();
+    }
+    new HistoryTask(client, msg, details).start(nodeIds);
+    return new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build();
+  }
+
+  /**
+   * cancel history read which is in progress and release its continuation points
+   * @param  requestId request id of history read request
+   */
+  public void cancel(int requestId) {
+    HistoryTask task = activeTasks.get(requestId);
+    if (task != null) {
+      task.cancel();
+    }
+  }
+
+  /**
+   * notify that page of history read is handled by callback (next page can be requested)
+   * @param  msg HISTORY_RESPONSE message
+   */
+  public void onPageHandled(EdgeMessage msg) {
+    if (msg.getResponses() == null || msg.getResponses().isEmpty()) {
+      return;
+    }
+    HistoryTask task = activeTasks.get(msg.getResponses().get(0).getRequestId());
+    if (task != null) {
+      task.onPageHandled();
+    }
+  }
+
+  private static HistoryReadDetails getDetails(EdgeHistoryReadParameter param) {
+    if (param == null) {
+      return null;
+    } else if (param.getMode() == EdgeHistoryReadParameter.HISTORY_READ_RAW) {
+      return new ReadRawModifiedDetails(false, toDateTime(param.getStartTime()),
+          toDateTime(param.getEndTime()), uint(param.getNumValuesPerNode()),
+          param.getReturnBounds());
+    } else if (param.getMode() == EdgeHistoryReadParameter.HISTORY_READ_PROCESSED) {
+      if (param.getAggregateType() == null) {
+        return null;
+      }
+      return new ReadProcessedDetails(toDateTime(param.getStartTime()),
+          toDateTime(param.getEndTime()), param.getProcessingInterval(),
+          new NodeId[] {new NodeId(0, param.getAggregateType().value())},
+          new AggregateConfiguration(true, false, ubyte(100), ubyte(100), false));
+    } else if (param.getMode() == EdgeHistoryReadParameter.HISTORY_READ_AT_TIME) {
+      long[] times = param.getReqTimes();
+      DateTime[] reqTimes = new DateTime[times.length];
+      for (int i = 0; i < times.length; i++) {
+        reqTimes[i] = toDateTime(times[i]);
+      }
+      return new ReadAtTimeDetails(reqTimes, param.getUseSimpleBounds());
+    }
+    return null;
+  }
+
+  private static DateTime toDateTime(long millis) {
+    return millis > 0 ? new DateTime(new Date(millis)) : DateTime.MIN_VALUE;
+  }
+
+  private static boolean hasContinuationPoint(ByteString continuationPoint) {
+    return continuationPoint != null && continuationPoint.isNull() == false
+        && continuationPoint.length() > 0;
+  }
+
+  private static DataValue[] getDataValues(HistoryReadResult result) {
+    ExtensionObject data = result.getHistoryData();
+    Object decoded = data != null ? data.decode() : null;
+    if (decoded instanceof HistoryData && ((HistoryData) decoded).getDataValues() != null) {
+      return ((HistoryData) decoded).getDataValues();
+    }
+    return new DataValue[0];
+  }
+
+  private class HistoryTask {
+    private final EdgeOpcUaClient client;
+    // continuation points are valid only on the session which returned them, so all pages and
+    // releases of the task are sent through one of the pooled sessions
+    private final OpcUaClient pooled;
+    private final EdgeMessage msg;
+    private final HistoryReadDetails details;
+    private final EdgeHistoryReadParameter param;
+    private final Queue<HistoryNode> pending = new ArrayDeque<HistoryNode>();
+    private final List<Integer> requestIds = new ArrayList<Integer>();
+    private boolean inFlight = false;
+    private int pendingPages = 0;
+    private boolean cancelled = false;
+    private boolean finished = false;
+
+    HistoryTask(EdgeOpcUaClient client, EdgeMessage msg, HistoryReadDetails details) {
+      this.client = client;
+      this.pooled = client.getClientInstance(EdgeTrafficClass.READ_WRITE);
+      this.msg = msg;
+      this.details = details;
+      this.param = msg.getHistoryReadParameter();
+    }
+
+    synchronized void start(List<NodeId> nodeIds) {
+      List<EdgeResponse> errors = new ArrayList<EdgeResponse>();
+      for (int i = 0; i < nodeIds.size(); i++) {
+        EdgeRequest req = getRequest(i);
+        requestIds.add(req.getRequestId());
+        activeTasks.put(req.getRequestId(), this);
+        if (nodeIds.get(i) == null) {
+          errors.add(getErrorResponse(req, new StatusCode(StatusCodes.Bad_NodeIdUnknown)));
+        } else {
+          pending.add(new HistoryNode(nodeIds.get(i), i, ByteString.NULL_VALUE));
+        }
+      }
+      if (errors.isEmpty() == false) {
+        sendPage(errors);
+      }
+      dispatch();
+      finishIfDone();
+    }
+
+    synchronized void cancel() {
+      if (cancelled || finished) {
+        return;
+      }
+      logger.debug("history read is cancelled, pending nodes={}", pending.size());
+      cancelled = true;
+      release(new ArrayList<HistoryNode>(pending));
+      pending.clear();
+      finishIfDone();
+    }
+
+    synchronized void onPageHandled() {
+      pendingPages--;
+      dispatch();
+      finishIfDone();
+    }
+
+    private EdgeRequest getRequest(int msgIdx) {
+      return msg.getMessageType() == EdgeMessageType.SEND_REQUEST ? msg.getRequest()
+          : msg.getRequests().get(msgIdx);
+    }
+
+    private void dispatch() {
+      if (cancelled || inFlight || pendingPages >= param.getMaxPendingPages()
+          || pending.isEmpty()) {
+        return;
+      }
+      inFlight = true;
+      List<HistoryNode> chunk = new ArrayList<HistoryNode>();
+      client.getOperationLimits().load().thenCompose(limits -> {
+        synchronized (this) {
+          while (chunk.size() < limits.getMaxNodesPerHistoryReadData()
+              && pending.isEmpty() == false) {
+            chunk.add(pending.poll());
+          }
+        }
+        return requestHistoryRead(chunk, false);
+      }).handle((results, e) -> {
+        if (e != null && chunk.isEmpty()) {
+          // operation limits could not be read, so the remaining nodes fail with the error
+          synchronized (this) {
+            chunk.addAll(pending);
+            pending.clear();
+          }
+        }
+        onHistoryReadResults(chunk, results, e);
+        return null;
+      });
+    }
+
+    private CompletableFuture<List<HistoryReadResult>> requestHistoryRead(
+        List<HistoryNode> nodes, boolean release) {
+      List<HistoryReadValueId> ids = new ArrayList<HistoryReadValueId>(nodes.size());
+      for (HistoryNode node : nodes) {
+        ids.add(new HistoryReadValueId(node.nodeId, null, QualifiedName.NULL_VALUE,
+            node.continuationPoint));
+      }
+      long start = System.nanoTime();
+      return pooled.historyRead(details, TimestampsToReturn.Both, release, ids)
+          .whenComplete((response, e) -> client.report(pooled, start, e))
+          .thenApply(response -> toList(response.getResults()));
+    }
+
+    private synchronized void onHistoryReadResults(List<HistoryNode> chunk,
+        List<HistoryReadResult> results, Throwable cause) {
+      inFlight = false;
+      List<EdgeResponse> page = new ArrayList<EdgeResponse>(chunk.size());
+      List<HistoryNode> continuations = new ArrayList<HistoryNode>();
+      List<HistoryNode> failed = new ArrayList<HistoryNode>();
+      for (int i = 0; i < chunk.size(); i++) {
+        HistoryNode node = chunk.get(i);
+        EdgeRequest req = getRequest(node.msgIdx);
+        HistoryReadResult result = results != null && i < results.size() ? results.get(i) : null;
+        if (result == null) {
+          if (hasContinuationPoint(node.continuationPoint)) {
+            failed.add(node);
+          }
+          page.add(getErrorResponse(req, cause != null ? EdgeChunkedRequest.getStatusCode(cause)
+              : new StatusCode(StatusCodes.Bad_UnexpectedError)));
+        } else if (result.getStatusCode().isBad()) {
+          page.add(getErrorResponse(req, result.getStatusCode()));
+        } else {
+          boolean hasNext = hasContinuationPoint(result.getContinuationPoint());
+          if (hasNext) {
+            continuations.add(
+                new HistoryNode(node.nodeId, node.msgIdx, result.getContinuationPoint()));
+          }
+          page.add(new EdgeResponse.Builder(req.getEdgeNodeInfo(), req.getRequestId())
+              .setMessage(new EdgeVersatility.Builder(getDataValues(result)).build())
+              .setResult(new EdgeResult.Builder(hasNext ? EdgeStatusCode.STATUS_HISTORY_CONTINUATION
+                  : EdgeStatusCode.STATUS_OK).build())
+              .build());
+        }
+      }
+      // continuation points of nodes which failed are still held by the server
+      release(failed);
+      if (cancelled) {
+        // release continuation points which are returned after cancel
+        release(continuations);
+      } else {
+        pending.addAll(continuations);
+        sendPage(page);
+      }
+      dispatch();
+      finishIfDone();
+    }
+
+    private void sendPage(List<EdgeResponse> page) {
+      pendingPages++;
+      EdgeEndpointInfo epInfo =
+          new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
+              .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
+      EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
+          .setMessageType(EdgeMessageType.HISTORY_RESPONSE).setResponses(page).build();
+      ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
+    }
+
+    private void release(List<HistoryNode> nodes) {
+      if (nodes.isEmpty()) {
+        return;
+      }
+      requestHistoryRead(nodes, true).exceptionally(e -> {
+        logger.debug("continuation points are not released : {}", e.getMessage());
+        return null;
+      });
+    }
+
+    private void finishIfDone() {
+      if (finished || inFlight || pending.isEmpty() == false
+          || (cancelled == false && pendingPages > 0)) {
+        return;
+      }
+      finished = true;
+      for (Integer requestId : requestIds) {
+        activeTasks.remove(requestId, this);
+      }
+      logger.debug("history read is finished, requests={}", requestIds.size());
+    }
+  }
+
+  private static class HistoryNode {
+    private final NodeId nodeId;
+    private final int msgIdx;
+    private final ByteString continuationPoint;
+
+    HistoryNode(NodeId nodeId, int msgIdx, ByteString continuationPoint) {
+      this.nodeId = nodeId;
+      this.msgIdx = msgIdx;
+      this.continuationPoint = continuationPoint;
+    }
+  }
+
+  private static EdgeResponse getErrorResponse(EdgeRequest req, StatusCode code) {
+    return new EdgeResponse.Builder(req.getEdgeNodeInfo(), req.getRequestId())
+        .setMessage(new EdgeVersatility.Builder(code).build())
+        .setResult(new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR)
+            .setEndpoint(req.getEdgeNodeInfo()).build())
+        .build();
+  }
+}
@@ -18,25 +18,41 @@
 
 package org.edge.protocol.opcua.providers.services.method;
 
-import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.l;
-import java.util.Optional;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ulong;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ushort;
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.toList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ExtensionObject;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.Argument;
 import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.CallMethodResult;
 import org.edge.protocol.opcua.api.ProtocolManager;
 import org.edge.protocol.opcua.api.client.EdgeResponse;
+import org.edge.protocol.opcua.api.common.EdgeNodeIdentifier;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeMessageType;
+import org.edge.protocol.opcua.api.common.EdgeRequest;
 import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.api.common.EdgeVersatility;
+import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.edge.protocol.opcua.session.EdgeChunkedRequest;
 import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
+import org.edge.protocol.opcua.session.EdgeTrafficClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static com.google.common.collect.Lists.newArrayList;
@@ -46,6 +62,12 @@ public class EdgeMethodCaller {
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private static EdgeMethodCaller caller = null;
   private static Object lock = new Object();
+  private static final int MAX_CHUNKS_IN_FLIGHT = 4;
+  private static final String INPUT_ARGUMENTS = "InputArguments";
+  private static final String OUTPUT_ARGUMENTS = "OutputArguments";
+  // argument properties of method node, kept in metadata cache of the endpoint
+  private static final List<String> ARGUMENT_PROPERTIES =
+      Arrays.asList(INPUT_ARGUMENTS, OUTPUT_ARGUMENTS);
 
   private EdgeMethodCaller() {
 
@@ -76,7 +98,7 @@ public class EdgeMethodCaller {
    * execute with parameter for endpoint (Async)
    * 
    * @param msg edge message
-   * @param param parameter
+   * @param param parameter (one input argument, or array which has all input arguments)
    * @param objectId object Id
    * @param methodId method Id
    * @return result
@@ -93,32 +115,33 @@ public class EdgeMethodCaller {
     logger.debug("runMethod method={}", ep.getMethodName());
     EdgeOpcUaClient client =
         EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
-    CompletableFuture<Void> future = new CompletableFuture<>();
     boolean isGood = true;
 
     try {
-      callMethodAsync(client, objectId, methodId, param).exceptionally(ex -> {
-        logger.error("error invoking method()", ex);
-        return -1.0;
-      }).thenAccept(v -> {
-        if (Optional.ofNullable(v).isPresent()) {
-          logger.debug("method result={}", v);
-
-          EdgeEndpointInfo epInfo =
-              new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
-                  .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
-          EdgeMessage inputData =
-              new EdgeMessage.Builder(epInfo).setMessageType(EdgeMessageType.GENERAL_RESPONSE)
-                  .setResponses(
-                      newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
-                          .setMessage(new EdgeVersatility.Builder(v).build()).build()))
-                  .build();
-          ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
-
-        }
-
-        future.complete(null);
-      });
+      getInputArguments(client, methodId)
+          .thenCompose(inputs -> call(client,
+              newArrayList(new CallMethodRequest(objectId, methodId, toVariants(param, inputs)))))
+          .thenApply(results -> {
+            CallMethodResult result = results.get(0);
+            if (result.getStatusCode().isGood() == false) {
+              throw new IllegalStateException(getStatusName(result.getStatusCode()));
+            }
+            // methods without output arguments respond with their status code
+            Object value = toOutputValue(result.getOutputArguments());
+            return value != null ? value : result.getStatusCode();
+          }).whenComplete((v, ex) -> {
+            if (ex != null) {
+              logger.error("error invoking method()", ex);
+              ErrorHandler.getInstance().addErrorMessage(ep,
+                  new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR).build(),
+                  new EdgeVersatility.Builder(ex.getMessage()).build(),
+                  msg.getRequest().getRequestId());
+            } else {
+              logger.debug("method result={}", v);
+              send(msg, newArrayList(new EdgeResponse.Builder(ep, msg.getRequest().getRequestId())
+                  .setMessage(new EdgeVersatility.Builder(v).build()).build()));
+            }
+          });
     } catch (Exception e) {
       e.printStackTrace();
       isGood = false;
@@ -128,35 +151,221 @@ public class EdgeMethodCaller {
   }
 
   /**
-   * Call method (Async)
+   * call methods of all requests with Call service requests which have as many methods as the
+   *        server allows, and send results of all requests in one response message
+   * 
+   * @param msg edge message which has requests
+   * @param services method service of each request (null if it is not available)
+   * @return future which is completed when the response message is sent
+   */
+  public CompletableFuture<Void> executeGroupAsync(EdgeMessage msg,
+      List<EdgeMethodService> services) {
+    EdgeOpcUaClient client =
+        EdgeSessionManager.getInstance().getSession(msg.getEdgeEndpointInfo().getEndpointUri());
+    List<EdgeRequest> requests = msg.getRequests();
+
+    // argument metadata is read once per method node and cached
+    List<CompletableFuture<CallMethodRequest>> futures =
+        new ArrayList<CompletableFuture<CallMethodRequest>>(requests.size());
+    for (int index = 0; index < requests.size(); index++) {
+      EdgeMethodService service = services.get(index);
+      EdgeVersatility param = requests.get(index).getMessage();
+      futures.add(service == null ? CompletableFuture.completedFuture(null)
+          : getInputArguments(client, service.getMethodId())
+              .thenApply(inputs -> new CallMethodRequest(service.getObjectId(),
+                  service.getMethodId(), toVariants(param, inputs))));
+    }
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+        .thenCompose(v -> {
+          List<CallMethodRequest> calls = new ArrayList<CallMethodRequest>();
+          for (CompletableFuture<CallMethodRequest> future : futures) {
+            if (future.join() != null) {
+              calls.add(future.join());
+            }
+          }
+          return client.getOperationLimits().load()
+              .thenCompose(limits -> EdgeChunkedRequest.send(calls,
+                  limits.getMaxNodesPerMethodCall(), MAX_CHUNKS_IN_FLIGHT,
+                  chunk -> call(client, chunk), (call, e) -> new CallMethodResult(
+                      EdgeChunkedRequest.getStatusCode(e), null, null, null)));
+        }).thenAccept(results -> {
+          List<EdgeResponse> responses = new ArrayList<EdgeResponse>(requests.size());
+          int resultIndex = 0;
+          for (int index = 0; index < requests.size(); index++) {
+            EdgeRequest req = requests.get(index);
+            if (futures.get(index).join() == null) {
+              responses.add(getErrorResponse(req, new StatusCode(StatusCodes.Bad_MethodInvalid)));
+              continue;
+            }
+            CallMethodResult result =
+                resultIndex < results.size() ? results.get(resultIndex) : null;
+            resultIndex++;
+            if (result == null) {
+              responses.add(getErrorResponse(req, new StatusCode(StatusCodes.Bad_UnexpectedError)));
+            } else if (result.getStatusCode().isGood() == false) {
+              responses.add(getErrorResponse(req, result.getStatusCode()));
+            } else {
+              Object value = toOutputValue(result.getOutputArguments());
+              responses.add(new EdgeResponse.Builder(req.getEdgeNodeInfo(), req.getRequestId())
+                  .setMessage(new EdgeVersatility.Builder(
+                      value != null ? value : result.getStatusCode()).build())
+                  .setResult(new EdgeResult.Builder(EdgeStatusCode.STATUS_OK).build()).build());
+            }
+          }
+          send(msg, responses);
+        });
+  }
+
+  /**
+   * Call methods (Async)
    * 
    * @param EdgeOpcUaClient client
-   * @param NodeId pNodeId
-   * @param NodeId mNodeId
-   * @param EdgeVariant parameter
-   * @return CompletableFuture<Object>
+   * @param List<CallMethodRequest> requests
+   * @return CompletableFuture<List<CallMethodResult>>
    */
-  private CompletableFuture<Object> callMethodAsync(EdgeOpcUaClient client, NodeId pNodeId,
-      NodeId mNodeId, EdgeVersatility param) throws Exception {
-    logger.debug("callMethodAsync");
-    CallMethodRequest request =
-        new CallMethodRequest(pNodeId, mNodeId, new Variant[] {new Variant(param.getValue())});
-
-    return client.getClientInstance().call(request).thenCompose(result -> {
-      StatusCode statusCode = result.getStatusCode();
-
-      if (statusCode.isGood()) {
-        if (Optional.ofNullable(result.getOutputArguments()).isPresent()) {
-          Double value = (Double) l(result.getOutputArguments()).get(0).getValue();
-          return CompletableFuture.completedFuture(value);
-        } else {
-          return CompletableFuture.completedFuture(null);
-        }
-      } else {
-        CompletableFuture<Object> f = new CompletableFuture<>();
-        f.completeExceptionally(new UaException(statusCode));
-        return f;
-      }
-    });
+  private CompletableFuture<List<CallMethodResult>> call(EdgeOpcUaClient client,
+      List<CallMethodRequest> requests) {
+    logger.debug("call {} methods", requests.size());
+    OpcUaClient pooled = client.getClientInstance(EdgeTrafficClass.READ_WRITE);
+    long start = System.nanoTime();
+    return pooled.call(requests).whenComplete((response, e) -> client.report(pooled, start, e))
+        .thenApply(response -> toList(response.getResults()));
+  }
+
+  /**
+   * get InputArguments of method from metadata cache of the endpoint
+   * 
+   * @param client EdgeOpcUaClient instance
+   * @param methodId method Id
+   * @return future of input arguments (null if they are not available)
+   */
+  private CompletableFuture<Argument[]> getInputArguments(EdgeOpcUaClient client,
+      NodeId methodId) {
+    return client.getMetadataCache().get(methodId, ARGUMENT_PROPERTIES)
+        .thenApply(metadata -> toArguments(metadata.getProperty(INPUT_ARGUMENTS)))
+        .exceptionally(e -> {
+          logger.info("arguments of method are not available : {}", e.getMessage());
+          return null;
+        });
+  }
+
+  private static Argument[] toArguments(DataValue value) {
+    if (value == null || value.getValue().getValue() instanceof ExtensionObject[] == false) {
+      return null;
+    }
+    ExtensionObject[] objects = (ExtensionObject[]) value.getValue().getValue();
+    Argument[] arguments = new Argument[objects.length];
+    for (int i = 0; i < objects.length; i++) {
+      arguments[i] = (Argument) objects[i].decode();
+    }
+    return arguments;
+  }
+
+  /**
+   * make input arguments of parameter. array parameter is spread to arguments when the method
+   *        has as many input arguments, and numbers are converted to data type of arguments.
+   * 
+   * @param param parameter
+   * @param inputs input arguments of method (null if they are unknown)
+   * @return input arguments
+   */
+  private static Variant[] toVariants(EdgeVersatility param, Argument[] inputs) {
+    Object value = param != null ? param.getValue() : null;
+    Object[] values;
+    if (inputs != null && inputs.length == 0) {
+      values = new Object[0];
+    } else if (inputs != null && inputs.length > 1 && value instanceof Object[]
+        && ((Object[]) value).length == inputs.length) {
+      values = (Object[]) value;
+    } else {
+      values = new Object[] {value};
+    }
+
+    Variant[] variants = new Variant[values.length];
+    for (int i = 0; i < values.length; i++) {
+      Argument input = inputs != null && i < inputs.length ? inputs[i] : null;
+      variants[i] = new Variant(convertArgument(values[i], input));
+    }
+    return variants;
+  }
+
+  private static Object convertArgument(Object value, Argument input) {
+    if (value instanceof Number == false || input == null || input.getValueRank() == null
+        || input.getValueRank() >= 0 || input.getDataType() == null
+        || input.getDataType().getNamespaceIndex().intValue() != 0) {
+      return value;
+    }
+    Number number = (Number) value;
+    EdgeNodeIdentifier type = EdgeNodeIdentifier.fromValue(input.getDataType().getIdentifier());
+    if (type == null) {
+      return value;
+    }
+    switch (type) {
+      case Double:
+        return number.doubleValue();
+      case Float:
+        return number.floatValue();
+      case Int64:
+        return number.longValue();
+      case Int32:
+        return number.intValue();
+      case Int16:
+        return number.shortValue();
+      case SByte:
+        return number.byteValue();
+      case Byte:
+        return ubyte(number.longValue());
+      case UInt16:
+        return ushort(number.intValue());
+      case UInt32:
+        return uint(number.longValue());
+      case UInt64:
+        return ulong(number.longValue());
+      default:
+        return value;
+    }
+  }
+
+  /**
+   * get response value of output arguments. each output keeps its own type.
+   * 
+   * @param outputs output arguments
+   * @return value of the output if method has one output, array of values if it has more
+   *         outputs, or null if it has no output
+   */
+  private static Object toOutputValue(Variant[] outputs) {
+    if (outputs == null || outputs.length == 0) {
+      return null;
+    } else if (outputs.length == 1) {
+      return outputs[0].getValue();
+    }
+    Object[] values = new Object[outputs.length];
+    for (int i = 0; i < outputs.length; i++) {
+      values[i] = outputs[i].getValue();
+    }
+    return values;
+  }
+
+  private static String getStatusName(StatusCode code) {
+    return StatusCodes.lookup(code.getValue()).map(names -> names[0])
+        .orElse(EdgeStatusCode.UNKNOWN_STATUS_CODE);
+  }
+
+  private static EdgeResponse getErrorResponse(EdgeRequest req, StatusCode code) {
+    return new EdgeResponse.Builder(req.getEdgeNodeInfo(), req.getRequestId())
+        .setMessage(new EdgeVersatility.Builder(code).build())
+        .setResult(new EdgeResult.Builder(EdgeStatusCode.STATUS_ERROR)
+            .setEndpoint(req.getEdgeNodeInfo()).build())
+        .build();
+  }
+
+  private static void send(EdgeMessage msg, List<EdgeResponse> responses) {
+    EdgeEndpointInfo epInfo =
+        new EdgeEndpointInfo.Builder(msg.getEdgeEndpointInfo().getEndpointUri())
+            .setFuture(msg.getEdgeEndpointInfo().getFuture()).build();
+    EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
+        .setMessageType(EdgeMessageType.GENERAL_RESPONSE).setResponses(responses).build();
+    ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
   }
 }
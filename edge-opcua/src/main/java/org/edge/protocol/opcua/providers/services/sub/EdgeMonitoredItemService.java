@@ -64,6 +64,7 @@ import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.api.common.EdgeVersatility;
 import org.edge.protocol.opcua.queue.ErrorHandler;
+import org.edge.protocol.opcua.session.EdgeOpcUaClient;
 import org.edge.protocol.opcua.session.EdgeSessionManager;
 import org.jooq.lambda.tuple.Tuple2;
 import org.slf4j.Logger;
@@ -247,6 +248,8 @@ public class EdgeMonitoredItemService {
         @Override
         public void onDataChangeNotification(UaSubscription subscription,
             ImmutableList<Tuple2<UaMonitoredItem, DataValue>> itemValues, DateTime publishTime) {
+          EdgeSessionManager.getInstance().getSession(epInfo.getEndpointUri()).getHealthMonitor()
+              .onPublish(subscription, publishTime);
 
           if (req.getCTTFlag() == true) {
             EdgeStatusCode code =
@@ -260,6 +263,8 @@ public class EdgeMonitoredItemService {
             }
           }
 
+          // one builder is reused for all values of this notification
+          EdgeVersatility.Builder builder = new EdgeVersatility.Builder();
           for (Tuple2<UaMonitoredItem, DataValue> itemValue : itemValues) {
             UaMonitoredItem item = itemValue.v1();
             DataValue value = itemValue.v2();
@@ -296,12 +301,20 @@ public class EdgeMonitoredItemService {
                 subscription.getRequestedMaxKeepAliveCount(),
                 subscription.getRevisedMaxKeepAliveCount());
 
+            EdgeOpcUaClient session =
+                EdgeSessionManager.getInstance().getSession(epInfo.getEndpointUri());
+            Object reportValue = value.getValue().getValue();
+            if (session != null) {
+              reportValue =
+                  session.convertArrayValue(item.getReadValueId().getNodeId(), reportValue);
+            }
+            // value of DataValue is already boxed, so it is kept as it is instead of unboxing
+            EdgeVersatility message = builder.setValue(reportValue).build();
             if (isFirstData) {
               EdgeMessage inputData = new EdgeMessage.Builder(epInfo)
                   .setResponses(
                       newArrayList(new EdgeResponse.Builder(nodeInfo, request.getRequestId())
-                          .setMessage(
-                              new EdgeVersatility.Builder(value.getValue().getValue()).build())
+                          .setMessage(message)
                           .build()))
                   .setMessageType(EdgeMessageType.GENERAL_RESPONSE).build();
               ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
@@ -312,8 +325,7 @@ public class EdgeMonitoredItemService {
                 .setResponses(
                     newArrayList(new EdgeResponse.Builder(nodeInfo, request.getRequestId())
                         .setDateTime(publishTime)
-                        .setMessage(
-                            new EdgeVersatility.Builder(value.getValue().getValue()).build())
+                        .setMessage(message)
                         .build()))
                 .setMessageType(EdgeMessageType.REPORT).build();
             ProtocolManager.getProtocolManagerInstance().getRecvDispatcher().putQ(inputData);
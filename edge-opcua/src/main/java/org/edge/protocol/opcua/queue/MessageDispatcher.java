@@ -93,7 +93,8 @@ public class MessageDispatcher extends Thread {
       ProtocolManager send = ProtocolManager.getProtocolManagerInstance();
       send.onSendMessage(data);
     } else if (EdgeMessageType.GENERAL_RESPONSE == data.getMessageType()
-        || EdgeMessageType.BROWSE_RESPONSE == data.getMessageType()) {
+        || EdgeMessageType.BROWSE_RESPONSE == data.getMessageType()
+        || EdgeMessageType.HISTORY_RESPONSE == data.getMessageType()) {
       ProtocolManager receiver = ProtocolManager.getProtocolManagerInstance();
       try {
         receiver.onResponseMessage(data);
@@ -0,0 +1,277 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePathResult;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePathTarget;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePathElement;
+import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolver of browse paths to node ids. A path is a value alias such as "/Device/Value" or
+ * "/2:Device/2:Value", optionally prefixed with the endpoint address of the client as made by
+ * EdgeProviderGenerator (e.g. "localhost:12686/edge-opc-server/Device/Value"). Paths are
+ * translated relative to the Objects folder with batched TranslateBrowsePathsToNodeIds requests
+ * and results are kept in a LRU cache of the endpoint. Properties of nodes (e.g. EURange of
+ * AnalogItem) are resolved and cached in the same way. The cache is invalidated when the session
+ * is lost or by invalidate().
+ */
+public class EdgeBrowsePathResolver {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static final String PATH_SEPARATOR = "/";
+  private static final String NAMESPACE_SEPARATOR = ":";
+  private static final String ENDPOINT_SCHEME = "opc.tcp://";
+  private static final String PROPERTY_SEPARATOR = "#";
+  private final EdgeOpcUaClient client;
+  private final Cache<String, NodeId> cache;
+  private volatile int chunkSize = 100;
+
+  /**
+   * constructor
+   * @param  client EdgeOpcUaClient instance to translate browse paths
+   * @param  cacheSize maximum number of resolved paths kept in the cache
+   */
+  public EdgeBrowsePathResolver(EdgeOpcUaClient client, int cacheSize) {
+    this.client = client;
+    this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+  }
+
+  /**
+   * set the number of browse paths in one TranslateBrowsePathsToNodeIds request
+   * @param  chunkSize number of browse paths
+   */
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+
+  /**
+   * get cached node id of browse path
+   * @param  path browse path
+   * @return node id (null if it is not resolved yet)
+   */
+  public NodeId getCached(String path) {
+    return cache.getIfPresent(path);
+  }
+
+  /**
+   * resolve browse path to node id
+   * @param  path browse path
+   * @return future of node id (null if the path can not be resolved)
+   */
+  public CompletableFuture<NodeId> resolve(String path) {
+    return resolve(Collections.singletonList(path)).thenApply(nodeIds -> nodeIds.get(0));
+  }
+
+  /**
+   * resolve browse paths to node ids. cached paths are returned without request and the others
+   *        are translated in chunks.
+   * @param  paths browse paths
+   * @return future of node ids in the order of paths (null if a path can not be resolved)
+   */
+  public CompletableFuture<List<NodeId>> resolve(List<String> paths) {
+    return resolve(paths, path -> toBrowsePath(path, client.getEndpoint()));
+  }
+
+  /**
+   * resolve property (HasProperty reference) of node to node id
+   * @param  nodeId node id which has the property
+   * @param  browseName browse name of property (namespace 0)
+   * @return future of node id of property (null if the property does not exist)
+   */
+  public CompletableFuture<NodeId> resolveProperty(NodeId nodeId, String browseName) {
+    return resolveProperties(nodeId, Collections.singletonList(browseName))
+        .thenApply(nodeIds -> nodeIds.get(0));
+  }
+
+  /**
+   * resolve properties (HasProperty reference) of node to node ids in one request
+   * @param  nodeId node id which has the properties
+   * @param  browseNames browse names of properties (namespace 0)
+   * @return future of node ids in the order of browse names (null if a property does not exist)
+   */
+  public CompletableFuture<List<NodeId>> resolveProperties(NodeId nodeId,
+      List<String> browseNames) {
+    List<String> keys = new ArrayList<String>(browseNames.size());
+    for (String browseName : browseNames) {
+      keys.add(nodeId.toString() + PROPERTY_SEPARATOR + browseName);
+    }
+    return resolve(keys, key -> new BrowsePath(nodeId,
+        new RelativePath(new RelativePathElement[] {new RelativePathElement(
+            Identifiers.HasProperty, false, true,
+            new QualifiedName(0, key.substring(key.lastIndexOf(PROPERTY_SEPARATOR) + 1)))})));
+  }
+
+  private CompletableFuture<List<NodeId>> resolve(List<String> paths,
+      Function<String, BrowsePath> toPath) {
+    NodeId[] nodeIds = new NodeId[paths.size()];
+    List<Integer> missIdx = new ArrayList<Integer>();
+    for (int i = 0; i < paths.size(); i++) {
+      nodeIds[i] = cache.getIfPresent(paths.get(i));
+      if (nodeIds[i] == null) {
+        missIdx.add(i);
+      }
+    }
+
+    List<CompletableFuture<Void>> requests = new ArrayList<CompletableFuture<Void>>();
+    for (int from = 0; from < missIdx.size(); from += chunkSize) {
+      List<Integer> chunk = missIdx.subList(from, Math.min(from + chunkSize, missIdx.size()));
+      List<BrowsePath> browsePaths = new ArrayList<BrowsePath>();
+      for (int idx : chunk) {
+        browsePaths.add(toPath.apply(paths.get(idx)));
+      }
+      requests.add(translate(browsePaths).thenAccept(results -> {
+        for (int i = 0; i < chunk.size() && i < results.length; i++) {
+          NodeId nodeId = getTargetNodeId(results[i]);
+          if (nodeId != null) {
+            cache.put(paths.get(chunk.get(i)), nodeId);
+            nodeIds[chunk.get(i)] = nodeId;
+          } else {
+            logger.info("browse path is not resolved : {}, {}", paths.get(chunk.get(i)),
+                results[i].getStatusCode());
+          }
+        }
+      }));
+    }
+    return CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[requests.size()]))
+        .thenApply(v -> {
+          List<NodeId> ret = new ArrayList<NodeId>();
+          Collections.addAll(ret, nodeIds);
+          return ret;
+        });
+  }
+
+  /**
+   * remove browse path from the cache
+   * @param  path browse path
+   */
+  public void invalidate(String path) {
+    cache.invalidate(path);
+  }
+
+  /**
+   * remove all browse paths from the cache (address space of server is changed)
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private CompletableFuture<BrowsePathResult[]> translate(List<BrowsePath> browsePaths) {
+    long start = System.nanoTime();
+    return client.getClientInstance(EdgeTrafficClass.BROWSE).translateBrowsePaths(browsePaths)
+        .whenComplete((response, e) -> client.getHealthMonitor().record(start, e))
+        .thenApply(response -> response.getResults() != null ? response.getResults()
+            : new BrowsePathResult[0]);
+  }
+
+  private NodeId getTargetNodeId(BrowsePathResult result) {
+    if (result.getStatusCode().isGood() == false || result.getTargets() == null) {
+      return null;
+    }
+    for (BrowsePathTarget target : result.getTargets()) {
+      // remaining path index is max value of UInt32 when the target is fully resolved
+      if (target.getRemainingPathIndex().longValue() == 0xFFFFFFFFL) {
+        return target.getTargetId().local().orElse(null);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * make browse path from value alias. the leading endpoint address of alias is ignored and each
+   *        element can have the namespace index as prefix ("2:Value"). elements without namespace
+   *        index use the default namespace index.
+   * @param  path browse path
+   * @param  endpointUri endpoint uri of the client (e.g. opc.tcp://localhost:12686/edge-opc-server)
+   * @return browse path relative to the Objects folder
+   */
+  static BrowsePath toBrowsePath(String path, String endpointUri) {
+    String[] names = removeEndpointAddress(path, endpointUri).split(PATH_SEPARATOR);
+    List<RelativePathElement> elements = new ArrayList<RelativePathElement>();
+    for (String name : names) {
+      if (name.isEmpty()) {
+        continue;
+      }
+      elements.add(new RelativePathElement(Identifiers.HierarchicalReferences, false, true,
+          toQualifiedName(name)));
+    }
+    return new BrowsePath(Identifiers.ObjectsFolder,
+        new RelativePath(elements.toArray(new RelativePathElement[elements.size()])));
+  }
+
+  private static String removeEndpointAddress(String path, String endpointUri) {
+    // address of the own endpoint ("host:port/server path") is removed with or without scheme
+    String address = removeScheme(endpointUri);
+    if (address != null) {
+      while (address.endsWith(PATH_SEPARATOR)) {
+        address = address.substring(0, address.length() - 1);
+      }
+      String rest = removeScheme(path);
+      if (address.isEmpty() == false
+          && rest.regionMatches(true, 0, address, 0, address.length())
+          && (rest.length() == address.length()
+              || rest.startsWith(PATH_SEPARATOR, address.length()))) {
+        return rest.substring(address.length());
+      }
+    }
+    // address of other endpoint is removed only with scheme ("opc.tcp://host:port"), so names
+    // such as "Tank:Level" are kept
+    if (path.regionMatches(true, 0, ENDPOINT_SCHEME, 0, ENDPOINT_SCHEME.length()) == false) {
+      return path;
+    }
+    int idx = path.indexOf(PATH_SEPARATOR, ENDPOINT_SCHEME.length());
+    return idx < 0 ? "" : path.substring(idx);
+  }
+
+  private static String removeScheme(String uri) {
+    if (uri != null
+        && uri.regionMatches(true, 0, ENDPOINT_SCHEME, 0, ENDPOINT_SCHEME.length())) {
+      return uri.substring(ENDPOINT_SCHEME.length());
+    }
+    return uri;
+  }
+
+  private static QualifiedName toQualifiedName(String name) {
+    int idx = name.indexOf(NAMESPACE_SEPARATOR);
+    if (idx > 0) {
+      try {
+        return new QualifiedName(Integer.parseInt(name.substring(0, idx)),
+            name.substring(idx + 1));
+      } catch (NumberFormatException e) {
+        // ':' is part of the name
+      }
+    }
+    return new QualifiedName(EdgeOpcUaCommon.DEFAULT_NAMESPACE_INDEX, name);
+  }
+}
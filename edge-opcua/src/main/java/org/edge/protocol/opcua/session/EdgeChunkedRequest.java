@@ -0,0 +1,133 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import com.google.common.collect.Lists;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+
+/**
+ * Request which is split into chunks of operations. Chunks are sent concurrently with a limited
+ * number of requests in progress and their results are reassembled in the order of operations.
+ * When a chunk fails, the result of each operation in the chunk is made from the failure.
+ *
+ * @param <T> type of operation
+ * @param <R> type of operation result
+ */
+public class EdgeChunkedRequest<T, R> {
+  private final List<List<T>> chunks;
+  private final Function<List<T>, CompletableFuture<List<R>>> request;
+  private final BiFunction<T, Throwable, R> failure;
+  private final AtomicReferenceArray<List<R>> results;
+  private final AtomicInteger next = new AtomicInteger(0);
+  private final AtomicInteger remaining;
+  private final CompletableFuture<List<R>> future = new CompletableFuture<List<R>>();
+
+  private EdgeChunkedRequest(List<T> items, int chunkSize,
+      Function<List<T>, CompletableFuture<List<R>>> request, BiFunction<T, Throwable, R> failure) {
+    this.chunks = Lists.partition(items, Math.max(1, chunkSize));
+    this.request = request;
+    this.failure = failure;
+    this.results = new AtomicReferenceArray<List<R>>(chunks.size());
+    this.remaining = new AtomicInteger(chunks.size());
+  }
+
+  /**
+   * send operations in chunks
+   * @param  items operations
+   * @param  chunkSize the maximum number of operations in a request
+   * @param  maxInFlight the maximum number of requests in progress
+   * @param  request function which sends a chunk and returns results in order of the chunk
+   * @param  failure function which makes result of an operation whose request failed
+   * @return future of results in order of items
+   */
+  public static <T, R> CompletableFuture<List<R>> send(List<T> items, int chunkSize,
+      int maxInFlight, Function<List<T>, CompletableFuture<List<R>>> request,
+      BiFunction<T, Throwable, R> failure) {
+    EdgeChunkedRequest<T, R> chunked =
+        new EdgeChunkedRequest<T, R>(items, chunkSize, request, failure);
+    if (chunked.chunks.isEmpty()) {
+      chunked.future.complete(new ArrayList<R>());
+    }
+    for (int i = 0; i < Math.max(1, maxInFlight) && i < chunked.chunks.size(); i++) {
+      chunked.sendNext();
+    }
+    return chunked.future;
+  }
+
+  /**
+   * get status code of failure
+   * @param  cause exception of request
+   * @return status code of UaException, otherwise Bad_UnexpectedError
+   */
+  public static StatusCode getStatusCode(Throwable cause) {
+    for (Throwable e = cause; e != null; e = e.getCause()) {
+      if (e instanceof UaException) {
+        return ((UaException) e).getStatusCode();
+      }
+    }
+    return new StatusCode(StatusCodes.Bad_UnexpectedError);
+  }
+
+  private void sendNext() {
+    int idx = next.getAndIncrement();
+    if (idx >= chunks.size()) {
+      return;
+    }
+    List<T> chunk = chunks.get(idx);
+    CompletableFuture<List<R>> response;
+    try {
+      response = request.apply(chunk);
+    } catch (RuntimeException e) {
+      response = new CompletableFuture<List<R>>();
+      response.completeExceptionally(e);
+    }
+    response.whenComplete((values, e) -> {
+      List<R> chunkResults = new ArrayList<R>(chunk.size());
+      for (int i = 0; i < chunk.size(); i++) {
+        if (e == null && values != null && i < values.size()) {
+          chunkResults.add(values.get(i));
+        } else {
+          chunkResults.add(failure.apply(chunk.get(i), e != null ? e
+              : new UaException(StatusCodes.Bad_UnexpectedError, "result is missing")));
+        }
+      }
+      results.set(idx, chunkResults);
+      if (remaining.decrementAndGet() == 0) {
+        List<R> ret = new ArrayList<R>();
+        for (int i = 0; i < results.length(); i++) {
+          ret.addAll(results.get(i));
+        }
+        future.complete(ret);
+      } else {
+        sendNext();
+      }
+    });
+  }
+}
@@ -0,0 +1,112 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.milo.opcua.stack.client.UaTcpStackClient;
+import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of GetEndpoints results per endpoint uri. Concurrent lookups of the same uri share one
+ * in-flight request and failed lookups are not cached.
+ */
+public class EdgeEndpointCache {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static EdgeEndpointCache cache = null;
+  private static Object lock = new Object();
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+  private volatile long timeToLive = TimeUnit.MINUTES.toMillis(5);
+
+  private EdgeEndpointCache() {}
+
+  /**
+   * get EdgeEndpointCache instance
+   * @return EdgeEndpointCache instance
+   */
+  public static EdgeEndpointCache getInstance() {
+    synchronized (lock) {
+      if (null == cache) {
+        cache = new EdgeEndpointCache();
+      }
+      return cache;
+    }
+  }
+
+  /**
+   * set time-to-live of cached endpoint descriptions
+   * @param  millis time-to-live (milliseconds)
+   */
+  public void setTimeToLive(long millis) {
+    timeToLive = millis;
+  }
+
+  /**
+   * get endpoint descriptions of the server (from cache if not expired)
+   * @param  endpointUri endpoint uri
+   * @return future of endpoint descriptions
+   */
+  public CompletableFuture<EndpointDescription[]> getEndpoints(String endpointUri) {
+    long now = System.currentTimeMillis();
+    Entry entry = entries.compute(endpointUri, (uri, old) -> {
+      if (old != null && (old.expireTime > now || old.future.isDone() == false)) {
+        return old;
+      }
+      logger.debug("request GetEndpoints : {}", uri);
+      return new Entry(UaTcpStackClient.getEndpoints(uri), now + timeToLive);
+    });
+    entry.future.whenComplete((endpoints, e) -> {
+      if (e != null) {
+        entries.remove(endpointUri, entry);
+      }
+    });
+    return entry.future;
+  }
+
+  /**
+   * remove cached endpoint descriptions of the uri
+   * @param  endpointUri endpoint uri
+   */
+  public void invalidate(String endpointUri) {
+    entries.remove(endpointUri);
+  }
+
+  /**
+   * remove all cached endpoint descriptions
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  private static class Entry {
+    private final CompletableFuture<EndpointDescription[]> future;
+    private final long expireTime;
+
+    Entry(CompletableFuture<EndpointDescription[]> future, long expireTime) {
+      this.future = future;
+      this.expireTime = expireTime;
+    }
+  }
+}
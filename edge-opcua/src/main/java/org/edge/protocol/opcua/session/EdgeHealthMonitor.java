@@ -0,0 +1,201 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscriptionManager;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Health monitor of an endpoint. It keeps round-trip time of service calls, keep-alive delay (time
+ * by which a keep-alive arrives later than the revised keep-alive interval of its subscription),
+ * gaps between publish responses and timeout/error counts in the shared metric registry under
+ * "edge.opcua.[endpoint uri].*".
+ */
+public class EdgeHealthMonitor implements UaSubscriptionManager.SubscriptionListener {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static final MetricRegistry registry = new MetricRegistry();
+  private static final String[] METRIC_NAMES =
+      {"rtt", "keepalive.delay", "publish.gap", "timeouts", "errors", "publish.failures"};
+  private final String prefix;
+  private final Timer roundTripTime;
+  private final Histogram keepAliveDelay;
+  private final Histogram publishGap;
+  private final Counter timeouts;
+  private final Counter errors;
+  private final Counter publishFailures;
+  private final AtomicLong lastPublishTime = new AtomicLong(0);
+  private final ConcurrentMap<UInteger, Long> lastSubscriptionPublish =
+      new ConcurrentHashMap<UInteger, Long>();
+
+  /**
+   * constructor
+   * @param  endpointUri endpoint uri which is used as prefix of metric names
+   */
+  public EdgeHealthMonitor(String endpointUri) {
+    prefix = "edge.opcua." + endpointUri + ".";
+    roundTripTime = registry.timer(prefix + METRIC_NAMES[0]);
+    keepAliveDelay = registry.histogram(prefix + METRIC_NAMES[1]);
+    publishGap = registry.histogram(prefix + METRIC_NAMES[2]);
+    timeouts = registry.counter(prefix + METRIC_NAMES[3]);
+    errors = registry.counter(prefix + METRIC_NAMES[4]);
+    publishFailures = registry.counter(prefix + METRIC_NAMES[5]);
+  }
+
+  /**
+   * get metric registry which contains metrics of all endpoints
+   * @return metric registry
+   */
+  public static MetricRegistry getMetricRegistry() {
+    return registry;
+  }
+
+  /**
+   * record result of a service call
+   * @param  startNanos System.nanoTime() when the request is sent
+   * @param  cause exception of the request (null if succeeded)
+   */
+  public void record(long startNanos, Throwable cause) {
+    roundTripTime.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    if (cause != null) {
+      errors.inc();
+      if (isTimeout(cause)) {
+        timeouts.inc();
+      }
+    }
+  }
+
+  /**
+   * record publish response (data change or keep-alive notification)
+   * @param  subscription subscription of the response
+   * @param  publishTime publish time of the response
+   */
+  public void onPublish(UaSubscription subscription, DateTime publishTime) {
+    long now = System.currentTimeMillis();
+    long last = lastPublishTime.getAndSet(now);
+    if (last != 0) {
+      publishGap.update(now - last);
+    }
+    lastSubscriptionPublish.put(subscription.getSubscriptionId(), now);
+  }
+
+  /**
+   * get 99th percentile of round-trip time
+   * @return round-trip time (milliseconds)
+   */
+  public long getRoundTripTime99th() {
+    return TimeUnit.NANOSECONDS.toMillis((long) roundTripTime.getSnapshot().get99thPercentile());
+  }
+
+  /**
+   * get median of round-trip time
+   * @return round-trip time (milliseconds)
+   */
+  public long getRoundTripTimeMedian() {
+    return TimeUnit.NANOSECONDS.toMillis((long) roundTripTime.getSnapshot().getMedian());
+  }
+
+  /**
+   * get the number of timed out requests
+   * @return timeout count
+   */
+  public long getTimeoutCount() {
+    return timeouts.getCount();
+  }
+
+  /**
+   * get the number of failed requests
+   * @return error count
+   */
+  public long getErrorCount() {
+    return errors.getCount();
+  }
+
+  /**
+   * remove metrics of this endpoint from the registry
+   */
+  public void close() {
+    for (String name : METRIC_NAMES) {
+      registry.remove(prefix + name);
+    }
+    lastSubscriptionPublish.clear();
+  }
+
+  @Override
+  public void onKeepAlive(UaSubscription subscription, DateTime publishTime) {
+    // publish time is a server clock, so the delay is measured with the local receive times of
+    // the previous publish response of the subscription and this keep-alive
+    Long last = lastSubscriptionPublish.get(subscription.getSubscriptionId());
+    if (last != null) {
+      double interval = subscription.getRevisedPublishingInterval()
+          * subscription.getRevisedMaxKeepAliveCount().doubleValue();
+      keepAliveDelay.update(Math.max(0, System.currentTimeMillis() - last - (long) interval));
+    }
+    onPublish(subscription, publishTime);
+  }
+
+  @Override
+  public void onStatusChanged(UaSubscription subscription, StatusCode status) {}
+
+  @Override
+  public void onPublishFailure(UaException exception) {
+    publishFailures.inc();
+    if (isTimeout(exception)) {
+      timeouts.inc();
+    }
+  }
+
+  @Override
+  public void onNotificationDataLost(UaSubscription subscription) {
+    logger.debug("notification data lost : {}", prefix);
+  }
+
+  @Override
+  public void onSubscriptionTransferFailed(UaSubscription subscription, StatusCode statusCode) {}
+
+  private boolean isTimeout(Throwable cause) {
+    for (Throwable e = cause; e != null; e = e.getCause()) {
+      if (e instanceof TimeoutException) {
+        return true;
+      }
+      if (e instanceof UaException) {
+        long code = ((UaException) e).getStatusCode().getValue();
+        return code == StatusCodes.Bad_Timeout || code == StatusCodes.Bad_RequestTimeout;
+      }
+    }
+    return false;
+  }
+}
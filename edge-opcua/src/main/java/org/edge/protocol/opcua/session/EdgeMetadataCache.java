@@ -0,0 +1,341 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.toList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseDirection;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.BrowseResultMask;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowseDescription;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReferenceDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metadata cache of nodes of an endpoint. DataType, ArrayDimensions and static properties (e.g.
+ * EURange, EngineeringUnits) of a node are read once in one batched Read request and kept for the
+ * TTL, so that value reads need only the Value attribute. The built-in type of the DataType is
+ * resolved through the DataType hierarchy and kept per DataType. The cache is invalidated when the
+ * session is lost, when a value does not match the built-in type of the cached DataType (model
+ * change) or by invalidate().
+ */
+public class EdgeMetadataCache {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static final int MAX_NODES = 10000;
+  private static final int MAX_TYPE_DEPTH = 16;
+  private static final int LAST_TYPE_ID = 29;
+  private final EdgeOpcUaClient session;
+  private final Cache<NodeId, CompletableFuture<Metadata>> cache;
+  private final ConcurrentMap<NodeId, CompletableFuture<NodeId>> builtinTypes =
+      new ConcurrentHashMap<NodeId, CompletableFuture<NodeId>>();
+
+  /**
+   * constructor
+   * @param  session EdgeOpcUaClient instance to read metadata
+   * @param  ttl time to keep metadata (milliseconds)
+   */
+  public EdgeMetadataCache(EdgeOpcUaClient session, long ttl) {
+    this.session = session;
+    this.cache = CacheBuilder.newBuilder().maximumSize(MAX_NODES)
+        .expireAfterWrite(Math.max(1, ttl), TimeUnit.MILLISECONDS).build();
+  }
+
+  /**
+   * get metadata of node. metadata is read from server if it is not cached or the cached one
+   *        does not have all properties.
+   * @param  nodeId node id
+   * @param  properties browse names of properties
+   * @return future of metadata
+   */
+  public CompletableFuture<Metadata> get(NodeId nodeId, List<String> properties) {
+    CompletableFuture<Metadata> cached = cache.getIfPresent(nodeId);
+    List<String> names = properties;
+    if (cached != null && cached.isDone() && cached.isCompletedExceptionally() == false) {
+      Metadata metadata = cached.join();
+      if (metadata.hasAll(properties)) {
+        return cached;
+      }
+      // properties which are already cached are read again together with new ones
+      Set<String> union = new LinkedHashSet<String>(metadata.properties);
+      union.addAll(properties);
+      names = new ArrayList<String>(union);
+    } else if (cached != null && cached.isDone() == false) {
+      return cached.thenCompose(metadata -> metadata.hasAll(properties)
+          ? CompletableFuture.completedFuture(metadata) : get(nodeId, properties));
+    }
+    CompletableFuture<Metadata> future = load(nodeId, names);
+    cache.put(nodeId, future);
+    future.whenComplete((metadata, e) -> {
+      if (e != null) {
+        cache.asMap().remove(nodeId, future);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * get metadata of node only if it is already loaded
+   * @param  nodeId node id
+   * @return metadata (null if it is not loaded)
+   */
+  public Metadata getIfPresent(NodeId nodeId) {
+    CompletableFuture<Metadata> cached = nodeId != null ? cache.getIfPresent(nodeId) : null;
+    if (cached != null && cached.isDone() && cached.isCompletedExceptionally() == false) {
+      return cached.join();
+    }
+    return null;
+  }
+
+  /**
+   * remove metadata of node from the cache
+   * @param  nodeId node id
+   */
+  public void invalidate(NodeId nodeId) {
+    cache.invalidate(nodeId);
+  }
+
+  /**
+   * remove all metadata from the cache
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+    builtinTypes.clear();
+  }
+
+  /**
+   * get built-in type of data type. HasSubtype references are followed up to a built-in type or
+   *        one of the abstract types Number, Integer, UInteger and Enumeration.
+   * @param  dataType data type
+   * @return future of built-in (or abstract) type (BaseDataType if it can not be resolved)
+   */
+  public CompletableFuture<NodeId> getBuiltinType(NodeId dataType) {
+    if (dataType == null) {
+      return CompletableFuture.completedFuture(Identifiers.BaseDataType);
+    }
+    if (isBuiltinType(dataType)) {
+      return CompletableFuture.completedFuture(dataType);
+    }
+    CompletableFuture<NodeId> future = builtinTypes.get(dataType);
+    if (future == null) {
+      CompletableFuture<NodeId> created = resolveBuiltinType(dataType, MAX_TYPE_DEPTH);
+      future = builtinTypes.putIfAbsent(dataType, created);
+      if (future == null) {
+        future = created;
+        created.whenComplete((type, e) -> {
+          if (e != null) {
+            builtinTypes.remove(dataType, created);
+          }
+        });
+      }
+    }
+    return future.exceptionally(e -> {
+      logger.debug("built-in type is not resolved : {}, {}", dataType, e.getMessage());
+      return Identifiers.BaseDataType;
+    });
+  }
+
+  /**
+   * check whether a value can be a value of the data type
+   * @param  valueType built-in type of the value
+   * @param  builtinType built-in type of the data type (from getBuiltinType)
+   * @return true if the value matches the data type
+   */
+  public static boolean isInstanceOf(NodeId valueType, NodeId builtinType) {
+    if (builtinType == null || Identifiers.BaseDataType.equals(builtinType)
+        || Identifiers.Structure.equals(builtinType)) {
+      return true;
+    }
+    if (valueType == null || isBuiltinType(valueType) == false) {
+      return false;
+    }
+    int id = ((UInteger) valueType.getIdentifier()).intValue();
+    if (Identifiers.Number.equals(builtinType)) {
+      return id >= 2 && id <= 11;
+    } else if (Identifiers.Integer.equals(builtinType)) {
+      return id == 2 || id == 4 || id == 6 || id == 8;
+    } else if (Identifiers.UInteger.equals(builtinType)) {
+      return id == 3 || id == 5 || id == 7 || id == 9;
+    } else if (Identifiers.Enumeration.equals(builtinType)) {
+      return Identifiers.Int32.equals(valueType);
+    }
+    return builtinType.equals(valueType);
+  }
+
+  private static boolean isBuiltinType(NodeId dataType) {
+    if (dataType.getNamespaceIndex().intValue() != 0
+        || dataType.getIdentifier() instanceof UInteger == false) {
+      return false;
+    }
+    int id = ((UInteger) dataType.getIdentifier()).intValue();
+    return id >= 1 && id <= LAST_TYPE_ID;
+  }
+
+  private CompletableFuture<NodeId> resolveBuiltinType(NodeId dataType, int depth) {
+    if (isBuiltinType(dataType)) {
+      return CompletableFuture.completedFuture(dataType);
+    } else if (depth == 0) {
+      return CompletableFuture.completedFuture(Identifiers.BaseDataType);
+    }
+    BrowseDescription browse = new BrowseDescription(dataType, BrowseDirection.Inverse,
+        Identifiers.HasSubtype, false, uint(NodeClass.DataType.getValue()),
+        uint(BrowseResultMask.None.getValue()));
+    OpcUaClient client = session.getClientInstance(EdgeTrafficClass.READ_WRITE);
+    long start = System.nanoTime();
+    return client.browse(browse).whenComplete((result, e) -> session.report(client, start, e))
+        .thenCompose(result -> {
+          ReferenceDescription[] references = result.getReferences();
+          NodeId parent = references != null && references.length > 0
+              ? references[0].getNodeId().local().orElse(null) : null;
+          return parent != null ? resolveBuiltinType(parent, depth - 1)
+              : CompletableFuture.completedFuture(Identifiers.BaseDataType);
+        });
+  }
+
+  private CompletableFuture<Metadata> load(NodeId nodeId, List<String> properties) {
+    return session.getPathResolver().resolveProperties(nodeId, properties)
+        .thenCompose(propertyIds -> {
+          List<ReadValueId> ids = new ArrayList<ReadValueId>();
+          ids.add(new ReadValueId(nodeId, AttributeId.DataType.uid(), null,
+              QualifiedName.NULL_VALUE));
+          ids.add(new ReadValueId(nodeId, AttributeId.ArrayDimensions.uid(), null,
+              QualifiedName.NULL_VALUE));
+          for (NodeId propertyId : propertyIds) {
+            if (propertyId != null) {
+              ids.add(new ReadValueId(propertyId, AttributeId.Value.uid(), null,
+                  QualifiedName.NULL_VALUE));
+            }
+          }
+          OpcUaClient client = session.getClientInstance(EdgeTrafficClass.READ_WRITE);
+          long start = System.nanoTime();
+          return client.read(0.0, TimestampsToReturn.Neither, ids)
+              .whenComplete((response, e) -> session.report(client, start, e))
+              .thenCompose(response -> {
+                List<DataValue> values = toList(response.getResults());
+                Map<String, DataValue> loaded = new HashMap<String, DataValue>();
+                int index = 2;
+                for (int i = 0; i < properties.size(); i++) {
+                  if (propertyIds.get(i) != null && index < values.size()) {
+                    loaded.put(properties.get(i), values.get(index++));
+                  }
+                }
+                Object dataType = values.isEmpty() ? null : values.get(0).getValue().getValue();
+                Object dimensions = values.size() < 2 ? null : values.get(1).getValue().getValue();
+                logger.debug("metadata is loaded : {}, {}", nodeId, loaded.keySet());
+                NodeId type = dataType instanceof NodeId ? (NodeId) dataType : null;
+                int[] arrayDimensions = toDimensions(dimensions);
+                return getBuiltinType(type).thenApply(builtinType -> new Metadata(type,
+                    builtinType, arrayDimensions, properties, loaded));
+              });
+        });
+  }
+
+  private static int[] toDimensions(Object value) {
+    if (value instanceof UInteger[] == false) {
+      return null;
+    }
+    UInteger[] dimensions = (UInteger[]) value;
+    int[] converted = new int[dimensions.length];
+    for (int i = 0; i < dimensions.length; i++) {
+      converted[i] = dimensions[i] != null ? dimensions[i].intValue() : 0;
+    }
+    return converted;
+  }
+
+  /**
+   * metadata of a node
+   */
+  public static class Metadata {
+    private final NodeId dataType;
+    private final NodeId builtinType;
+    private final int[] arrayDimensions;
+    private final List<String> properties;
+    private final Map<String, DataValue> values;
+
+    private Metadata(NodeId dataType, NodeId builtinType, int[] arrayDimensions,
+        List<String> properties, Map<String, DataValue> values) {
+      this.dataType = dataType;
+      this.builtinType = builtinType;
+      this.arrayDimensions = arrayDimensions;
+      this.properties = Collections.unmodifiableList(new ArrayList<String>(properties));
+      this.values = values;
+    }
+
+    /**
+     * get data type of node
+     * @return data type (null if it is not available)
+     */
+    public NodeId getDataType() {
+      return dataType;
+    }
+
+    /**
+     * get built-in type of data type of node
+     * @return built-in (or abstract) type (BaseDataType if it is not available)
+     */
+    public NodeId getBuiltinType() {
+      return builtinType;
+    }
+
+    /**
+     * get ArrayDimensions of node
+     * @return length of each dimension (null if it is not available)
+     */
+    public int[] getArrayDimensions() {
+      return arrayDimensions;
+    }
+
+    /**
+     * get value of property
+     * @param  browseName browse name of property
+     * @return value (null if the node does not have the property)
+     */
+    public DataValue getProperty(String browseName) {
+      return values.get(browseName);
+    }
+
+    private boolean hasAll(List<String> names) {
+      return properties.containsAll(names);
+    }
+  }
+}
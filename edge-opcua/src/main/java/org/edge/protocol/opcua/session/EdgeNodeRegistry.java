@@ -0,0 +1,210 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.sdk.client.SessionActivityListener;
+import org.eclipse.milo.opcua.sdk.client.api.UaSession;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of frequently accessed nodes of an endpoint. A node which is read or written more than
+ * the threshold count is registered with RegisterNodes on each session and the node id returned
+ * by server is used for following Read/Write requests of that session. Registered node ids are
+ * only valid in the session, so they are dropped when the session is lost and hot nodes are
+ * registered again when a new session is activated.
+ */
+public class EdgeNodeRegistry {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final int threshold;
+  private final int maxNodes;
+  private final Map<NodeId, AtomicInteger> accessCounts =
+      new ConcurrentHashMap<NodeId, AtomicInteger>();
+  private final Set<NodeId> hotNodes = ConcurrentHashMap.newKeySet();
+  private final Map<OpcUaClient, SessionNodes> sessions =
+      new ConcurrentHashMap<OpcUaClient, SessionNodes>();
+
+  /**
+   * constructor
+   * @param  threshold access count after which a node is registered (0 disables registration)
+   * @param  maxNodes maximum number of registered nodes per session
+   */
+  public EdgeNodeRegistry(int threshold, int maxNodes) {
+    this.threshold = threshold;
+    this.maxNodes = maxNodes;
+  }
+
+  /**
+   * get node ids to use for Read/Write on the given session. access of the nodes is counted and
+   *        nodes which become hot are registered in background.
+   * @param  client client instance which sends the request
+   * @param  nodeIds node ids of request
+   * @return registered node id if exists, otherwise original node id (same order as nodeIds)
+   */
+  public List<NodeId> lookup(OpcUaClient client, List<NodeId> nodeIds) {
+    if (threshold <= 0) {
+      return nodeIds;
+    }
+    SessionNodes session = sessions.computeIfAbsent(client, c -> new SessionNodes(c));
+    List<NodeId> ret = new ArrayList<NodeId>(nodeIds.size());
+    List<NodeId> toRegister = new ArrayList<NodeId>();
+    for (NodeId nodeId : nodeIds) {
+      NodeId registered = session.registered.get(nodeId);
+      if (registered != null) {
+        ret.add(registered);
+        continue;
+      }
+      ret.add(nodeId);
+      if (isHot(nodeId)) {
+        toRegister.add(nodeId);
+      }
+    }
+    session.register(toRegister);
+    return ret;
+  }
+
+  /**
+   * get node id to use for Read/Write on the given session
+   * @param  client client instance which sends the request
+   * @param  nodeId node id of request
+   * @return registered node id if exists, otherwise original node id
+   */
+  public NodeId lookup(OpcUaClient client, NodeId nodeId) {
+    List<NodeId> nodeIds = new ArrayList<NodeId>(1);
+    nodeIds.add(nodeId);
+    return lookup(client, nodeIds).get(0);
+  }
+
+  /**
+   * stop listening to sessions and drop all registrations
+   */
+  public void close() {
+    for (SessionNodes session : sessions.values()) {
+      session.client.removeSessionActivityListener(session);
+    }
+    sessions.clear();
+    hotNodes.clear();
+    accessCounts.clear();
+  }
+
+  private boolean isHot(NodeId nodeId) {
+    if (hotNodes.contains(nodeId)) {
+      return true;
+    }
+    if (hotNodes.size() >= maxNodes) {
+      return false;
+    }
+    AtomicInteger count = accessCounts.get(nodeId);
+    if (count == null) {
+      // bound the counters to the nodes which can be registered
+      if (accessCounts.size() >= maxNodes * 4) {
+        return false;
+      }
+      count = accessCounts.computeIfAbsent(nodeId, id -> new AtomicInteger(0));
+    }
+    if (count.incrementAndGet() >= threshold) {
+      accessCounts.remove(nodeId);
+      hotNodes.add(nodeId);
+      return true;
+    }
+    return false;
+  }
+
+  private class SessionNodes implements SessionActivityListener {
+    private final OpcUaClient client;
+    private final Map<NodeId, NodeId> registered = new ConcurrentHashMap<NodeId, NodeId>();
+    private final Set<NodeId> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger generation = new AtomicInteger(0);
+    private volatile boolean supported = true;
+
+    SessionNodes(OpcUaClient client) {
+      this.client = client;
+      client.addSessionActivityListener(this);
+    }
+
+    void register(List<NodeId> nodeIds) {
+      List<NodeId> requests = new ArrayList<NodeId>();
+      for (NodeId nodeId : nodeIds) {
+        if (pending.add(nodeId)) {
+          requests.add(nodeId);
+        }
+      }
+      if (requests.isEmpty() || supported == false) {
+        pending.removeAll(requests);
+        return;
+      }
+      int gen = generation.get();
+      client.registerNodes(requests).whenComplete((response, e) -> {
+        pending.removeAll(requests);
+        if (e != null) {
+          if (isServiceUnsupported(e)) {
+            logger.info("RegisterNodes is not supported by server");
+            supported = false;
+          } else {
+            logger.debug("RegisterNodes failed : {}", e.getMessage());
+          }
+          return;
+        }
+        // ignore the result of previous session
+        NodeId[] ids = response.getRegisteredNodeIds();
+        if (generation.get() != gen || ids == null) {
+          return;
+        }
+        for (int i = 0; i < ids.length && i < requests.size(); i++) {
+          registered.put(requests.get(i), ids[i]);
+        }
+        logger.debug("registered nodes : {}", registered.size());
+      });
+    }
+
+    private boolean isServiceUnsupported(Throwable cause) {
+      for (Throwable e = cause; e != null; e = e.getCause()) {
+        if (e instanceof UaException) {
+          return ((UaException) e).getStatusCode().getValue() == StatusCodes.Bad_ServiceUnsupported;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void onSessionActive(UaSession session) {
+      generation.incrementAndGet();
+      registered.clear();
+      register(new ArrayList<NodeId>(hotNodes));
+    }
+
+    @Override
+    public void onSessionInactive(UaSession session) {
+      generation.incrementAndGet();
+      registered.clear();
+    }
+  }
+}
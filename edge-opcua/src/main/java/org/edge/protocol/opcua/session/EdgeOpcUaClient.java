@@ -21,18 +21,19 @@ package org.edge.protocol.opcua.session;
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.sdk.client.SessionActivityListener;
 import org.eclipse.milo.opcua.sdk.client.api.UaSession;
 import org.eclipse.milo.opcua.sdk.client.api.config.OpcUaClientConfig;
-import org.eclipse.milo.opcua.stack.client.UaTcpStackClient;
 import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
 import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.NodeClass;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
 import org.edge.protocol.opcua.api.ProtocolManager;
+import org.edge.protocol.opcua.api.common.EdgeArrayValue;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
 import org.edge.protocol.opcua.api.common.EdgeEndpointConfig;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
@@ -48,6 +49,7 @@ import org.edge.protocol.opcua.providers.EdgeServices;
 import org.edge.protocol.opcua.providers.services.EdgeCustomService;
 import org.edge.protocol.opcua.providers.services.EdgeGroupService;
 import org.edge.protocol.opcua.providers.services.browse.EdgeBrowseService;
+import org.edge.protocol.opcua.providers.services.history.EdgeHistoryReadService;
 import org.edge.protocol.opcua.providers.services.method.EdgeMethodCaller;
 import org.edge.protocol.opcua.providers.services.sub.EdgeMonitoredItemService;
 import org.edge.protocol.opcua.queue.ErrorHandler;
@@ -57,32 +59,70 @@ import org.slf4j.LoggerFactory;
 
 public class EdgeOpcUaClient implements EdgeBaseClient {
   private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static final int MAX_REGISTERED_NODES = 10000;
   private final OpcUaClient client;
   private final String endpointUri;
   private String securityUri = null;
   private boolean viewNodeEnabled = true;
   private EdgeEndpointConfig config = null;
   private CompletableFuture<String> startFuture = null;
+  private final EdgeSessionPool sessionPool;
+  private volatile boolean disconnecting = false;
+  private final EdgeHealthMonitor healthMonitor;
+  private final EdgeBrowsePathResolver pathResolver;
+  private final EdgeNodeRegistry nodeRegistry;
+  private final EdgeOperationLimits operationLimits;
+  private final EdgeWriteBatcher writeBatcher;
+  private final EdgeMetadataCache metadataCache;
 
+  /**
+   * create EdgeOpcUaClient instance (blocks the caller until endpoint descriptions are resolved)
+   * @param  epInfo endpoint information
+   * @deprecated use {@link #create(EdgeEndpointInfo)} or EdgeSessionManager.configureAsync
+   */
+  @Deprecated
   public EdgeOpcUaClient(EdgeEndpointInfo epInfo) throws Exception {
+    this(epInfo, EdgeEndpointCache.getInstance().getEndpoints(epInfo.getEndpointUri()).get());
+  }
+
+  private EdgeOpcUaClient(EdgeEndpointInfo epInfo, EndpointDescription[] endpoints)
+      throws Exception {
     this.endpointUri = epInfo.getEndpointUri();
-    this.client = configure(epInfo);
+    OpcUaClientConfig clientConfig = configure(epInfo, endpoints);
+    this.client = new OpcUaClient(clientConfig);
     this.config = epInfo.getConfig();
     this.viewNodeEnabled = epInfo.getConfig().getViewNodeFlag();
+    this.sessionPool =
+        new EdgeSessionPool(client, clientConfig, epInfo.getConfig().getSessionPoolSize());
+    this.healthMonitor = new EdgeHealthMonitor(endpointUri);
+    this.client.getSubscriptionManager().addSubscriptionListener(healthMonitor);
+    this.pathResolver =
+        new EdgeBrowsePathResolver(this, epInfo.getConfig().getBrowsePathCacheSize());
+    this.nodeRegistry = new EdgeNodeRegistry(epInfo.getConfig().getRegisterNodesThreshold(),
+        MAX_REGISTERED_NODES);
+    this.operationLimits = new EdgeOperationLimits(this);
+    this.writeBatcher =
+        new EdgeWriteBatcher(this, epInfo.getConfig().getWriteCoalesceWindow());
+    this.metadataCache = new EdgeMetadataCache(this, epInfo.getConfig().getMetadataCacheTtl());
+    this.client.addSessionActivityListener(listener);
   }
 
-  Thread connectThread = new Thread() {
-    public void run() {
-      try {
-        connectWithActivityListener();
-      } catch (Exception e) {
-        e.printStackTrace();
-        ErrorHandler.getInstance().addErrorMessage(new EdgeNodeInfo.Builder().build(),
-            new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
-            EdgeOpcUaCommon.DEFAULT_REQUEST_ID);
-      }
-    };
-  };
+  /**
+   * create EdgeOpcUaClient instance without blocking the caller(endpoint descriptions are
+   * resolved through EdgeEndpointCache)
+   * @param  epInfo endpoint information
+   * @return future of EdgeOpcUaClient instance
+   */
+  public static CompletableFuture<EdgeOpcUaClient> create(EdgeEndpointInfo epInfo) {
+    return EdgeEndpointCache.getInstance().getEndpoints(epInfo.getEndpointUri())
+        .thenApply(endpoints -> {
+          try {
+            return new EdgeOpcUaClient(epInfo, endpoints);
+          } catch (Exception e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
 
   SessionActivityListener listener = new SessionActivityListener() {
     @Override
@@ -110,6 +150,7 @@ public class EdgeOpcUaClient implements EdgeBaseClient {
         logger.info("providerThread status : {}", providerThread.getState());
       }
 
+      EdgeReconnectSupervisor.getInstance().onSessionActive(EdgeOpcUaClient.this);
       EdgeEndpointInfo ep = new EdgeEndpointInfo.Builder(endpointUri).setConfig(config).build();
       ProtocolManager.getProtocolManagerInstance().onStatusCallback(ep,
           EdgeStatusCode.STATUS_CONNECTED);
@@ -120,10 +161,16 @@ public class EdgeOpcUaClient implements EdgeBaseClient {
       logger.debug("onSessionInactive session={}, {}", session.getSessionId(),
           session.getSessionName());
       deinitEdgeProvider();
+      pathResolver.invalidateAll();
+      metadataCache.invalidateAll();
+      operationLimits.reset();
 
       EdgeEndpointInfo ep = new EdgeEndpointInfo.Builder(endpointUri).setConfig(config).build();
       ProtocolManager.getProtocolManagerInstance().onStatusCallback(ep,
           EdgeStatusCode.STATUS_DISCONNECTED);
+      if (disconnecting == false) {
+        EdgeReconnectSupervisor.getInstance().onSessionInactive(EdgeOpcUaClient.this);
+      }
     }
   };
 
@@ -143,9 +190,111 @@ public class EdgeOpcUaClient implements EdgeBaseClient {
     return client;
   }
 
-  private OpcUaClient configure(EdgeEndpointInfo ep) throws Exception {
-    EndpointDescription[] endpoints = UaTcpStackClient.getEndpoints(ep.getEndpointUri()).get();
+  /**
+   * get client instance related Milo lib for the given traffic class
+   * @param  traffic traffic class of request
+   * @return client instance (one of the pooled sessions)
+   */
+  public OpcUaClient getClientInstance(EdgeTrafficClass traffic) {
+    return sessionPool.getClient(traffic);
+  }
+
+  /**
+   * get session pool of this endpoint
+   * @return session pool
+   */
+  public EdgeSessionPool getSessionPool() {
+    return sessionPool;
+  }
+
+  /**
+   * get health monitor of this endpoint
+   * @return health monitor
+   */
+  public EdgeHealthMonitor getHealthMonitor() {
+    return healthMonitor;
+  }
+
+  /**
+   * get browse path resolver of this endpoint
+   * @return EdgeBrowsePathResolver instance
+   */
+  public EdgeBrowsePathResolver getPathResolver() {
+    return pathResolver;
+  }
+
+  /**
+   * get registry of registered nodes (RegisterNodes) of this endpoint
+   * @return EdgeNodeRegistry instance
+   */
+  public EdgeNodeRegistry getNodeRegistry() {
+    return nodeRegistry;
+  }
+
+  /**
+   * get operation limits of this endpoint
+   * @return EdgeOperationLimits instance
+   */
+  public EdgeOperationLimits getOperationLimits() {
+    return operationLimits;
+  }
+
+  /**
+   * get write pipeline of this endpoint
+   * @return EdgeWriteBatcher instance
+   */
+  public EdgeWriteBatcher getWriteBatcher() {
+    return writeBatcher;
+  }
+
+  /**
+   * get metadata cache of this endpoint
+   * @return EdgeMetadataCache instance
+   */
+  public EdgeMetadataCache getMetadataCache() {
+    return metadataCache;
+  }
+
+  /**
+   * get configuration of this endpoint
+   * @return EdgeEndpointConfig instance
+   */
+  public EdgeEndpointConfig getEndpointConfig() {
+    return config;
+  }
+
+  /**
+   * convert array value to EdgeArrayValue (flat primitive array or ByteBuffer with shape) if
+   *        array value mode of this endpoint is not ARRAY_VALUE_BOXED. shape is taken from cached
+   *        ArrayDimensions of the node when the value is flat.
+   * @param  nodeId node id of the value (null if it is unknown)
+   * @param  value value
+   * @return EdgeArrayValue, or value itself if it is not converted
+   */
+  public Object convertArrayValue(NodeId nodeId, Object value) {
+    int mode = config.getArrayValueMode();
+    if (mode == EdgeOpcUaCommon.ARRAY_VALUE_BOXED || EdgeArrayValue.isSupported(value) == false) {
+      return value;
+    }
+    EdgeMetadataCache.Metadata metadata = metadataCache.getIfPresent(nodeId);
+    return new EdgeArrayValue.Builder(value)
+        .setDimensions(metadata != null ? metadata.getArrayDimensions() : null).setMode(mode)
+        .build();
+  }
+
+  /**
+   * report result of a service call which is sent through one of the pooled sessions
+   * @param  pooled client instance which is used (from getClientInstance)
+   * @param  startNanos System.nanoTime() when the request is sent
+   * @param  cause exception of the request (null if succeeded)
+   */
+  public void report(OpcUaClient pooled, long startNanos, Throwable cause) {
+    healthMonitor.record(startNanos, cause);
+    sessionPool.report(pooled, System.nanoTime() - startNanos, cause == null);
+  }
 
+  private OpcUaClientConfig configure(EdgeEndpointInfo ep, EndpointDescription[] endpoints)
+      throws Exception {
     for (int i = 0; i < endpoints.length; i++) {
       logger.debug("endpoint={}, {}, {}", endpoints[i].getEndpointUrl(),
           endpoints[i].getSecurityLevel(), endpoints[i].getSecurityPolicyUri());
@@ -187,13 +336,16 @@ public class EdgeOpcUaClient implements EdgeBaseClient {
           .setRequestTimeout(uint(ep.getConfig().getRequestTimeout())).build();
     }
 
-    return new OpcUaClient(clientConfig);
+    return clientConfig;
   }
 
-  private void connectWithActivityListener() throws Exception {
+  private CompletableFuture<EdgeOpcUaClient> connectWithActivityListener() {
     logger.info("opcua connect");
-    client.addSessionActivityListener(listener);
-    client.connect().get();
+    disconnecting = false;
+    return client.connect().thenApply(c -> {
+      sessionPool.connect();
+      return this;
+    });
   }
 
   private void registerCommonEdgeProvider() {
@@ -249,9 +401,25 @@ public class EdgeOpcUaClient implements EdgeBaseClient {
    * @throws excepiton
    */
   public void connect(String endpoint, CompletableFuture<String> future) throws Exception {
+    connectAsync(future).exceptionally(e -> {
+      logger.error("connect failed : {}", e.getMessage());
+      ErrorHandler.getInstance().addErrorMessage(
+          new EdgeEndpointInfo.Builder(endpoint).setFuture(future).build(),
+          new EdgeNodeInfo.Builder().build(),
+          new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
+          EdgeOpcUaCommon.DEFAULT_REQUEST_ID);
+      return null;
+    });
+  }
+
+  /**
+   * connect to endpoint without blocking the caller
+   * @param  future future which is delivered to status callback
+   * @return future which is completed when the session is connected
+   */
+  public CompletableFuture<EdgeOpcUaClient> connectAsync(CompletableFuture<String> future) {
     startFuture = future;
-    connectWithActivityListener();
-    // connectThread.start();
+    return connectWithActivityListener();
   }
 
   /**
@@ -260,6 +428,10 @@ public class EdgeOpcUaClient implements EdgeBaseClient {
    */
   public void disconnect() throws Exception {
     try {
+      disconnecting = true;
+      EdgeReconnectSupervisor.getInstance().unregister(endpointUri);
+      nodeRegistry.close();
+      sessionPool.disconnect();
       client.disconnect().get();
       logger.info("disconnected");
     } catch (InterruptedException | ExecutionException e) {
@@ -275,7 +447,17 @@ public class EdgeOpcUaClient implements EdgeBaseClient {
    * @throws excepiton
    */
   public void terminate() throws Exception {
+    close();
     EdgeMethodCaller.getInstance().close();
+    EdgeHistoryReadService.getInstance().close();
     EdgeProviderGenerator.getInstance().close();
   }
+
+  /**
+   * release resources of this endpoint (metrics of the health monitor)
+   */
+  public void close() {
+    client.getSubscriptionManager().removeSubscriptionListener(healthMonitor);
+    healthMonitor.close();
+  }
 }
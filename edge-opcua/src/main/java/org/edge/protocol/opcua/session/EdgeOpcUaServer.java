@@ -44,6 +44,7 @@ import org.edge.protocol.opcua.api.common.EdgeResult;
 import org.edge.protocol.opcua.api.common.EdgeStatusCode;
 import org.edge.protocol.opcua.namespace.EdgeNamespace;
 import org.edge.protocol.opcua.namespace.EdgeNamespaceManager;
+import org.edge.protocol.opcua.node.EdgeMethodExecutor;
 import org.edge.protocol.opcua.node.loader.EdgeDataAccessLoader;
 import org.edge.protocol.opcua.providers.services.method.EdgeMethodCaller;
 import org.edge.protocol.opcua.session.auth.KeyStoreLoader;
@@ -158,6 +159,9 @@ public class EdgeOpcUaServer {
         .setIdentityValidator(new CompositeValidator(usernameValidator, x509IdentityValidator))
         .build();
 
+    EdgeMethodExecutor.getInstance().configure(config.getMethodWorkerPoolSize(),
+        config.getMethodQueueSize());
+
     server = new OpcUaServer(serverConfig);
     server.startup().thenApply(sub -> {
       ProtocolManager.getProtocolManagerInstance().onStatusCallback(epInfo,
@@ -232,5 +236,6 @@ public class EdgeOpcUaServer {
     EdgeDataAccessLoader.getInstance().close();
     EdgeNamespaceManager.getInstance().close();
     EdgeMethodCaller.getInstance().close();
+    EdgeMethodExecutor.getInstance().close();
   }
 }
@@ -0,0 +1,167 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Operation limits (Server.ServerCapabilities.OperationLimits) of an endpoint. Limits are read
+ * once per session and requests with many operations are split by them.
+ */
+public class EdgeOperationLimits {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  /** number of operations per request when server does not set a limit */
+  public static final int DEFAULT_MAX_NODES = 1000;
+  private static final List<NodeId> LIMIT_NODES = new ArrayList<NodeId>();
+  private final EdgeOpcUaClient client;
+  private volatile CompletableFuture<EdgeOperationLimits> future = null;
+  private volatile int maxNodesPerRead = 0;
+  private volatile int maxNodesPerWrite = 0;
+  private volatile int maxNodesPerBrowse = 0;
+  private volatile int maxNodesPerMethodCall = 0;
+  private volatile int maxNodesPerHistoryReadData = 0;
+
+  static {
+    LIMIT_NODES.add(Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerRead);
+    LIMIT_NODES.add(Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerWrite);
+    LIMIT_NODES.add(Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerBrowse);
+    LIMIT_NODES.add(Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerMethodCall);
+    LIMIT_NODES.add(
+        Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerHistoryReadData);
+  }
+
+  /**
+   * constructor
+   * @param  client EdgeOpcUaClient instance to read limits
+   */
+  public EdgeOperationLimits(EdgeOpcUaClient client) {
+    this.client = client;
+  }
+
+  /**
+   * read operation limits from server if they are not read in current session
+   * @return future which is completed when limits are available (defaults are used if server
+   *         does not provide them)
+   */
+  public CompletableFuture<EdgeOperationLimits> load() {
+    CompletableFuture<EdgeOperationLimits> loaded = future;
+    if (loaded != null) {
+      return loaded;
+    }
+    synchronized (this) {
+      if (future == null) {
+        CompletableFuture<EdgeOperationLimits> created =
+            new CompletableFuture<EdgeOperationLimits>();
+        future = created;
+        client.getClientInstance().readValues(0.0, TimestampsToReturn.Neither, LIMIT_NODES)
+            .whenComplete((values, e) -> {
+              if (e != null) {
+                // defaults are used for this request, and limits are read again by next load
+                logger.info("operation limits are not available : {}", e.getMessage());
+                synchronized (this) {
+                  if (future == created) {
+                    future = null;
+                  }
+                }
+              } else {
+                maxNodesPerRead = toLimit(values.get(0));
+                maxNodesPerWrite = toLimit(values.get(1));
+                maxNodesPerBrowse = toLimit(values.get(2));
+                maxNodesPerMethodCall = toLimit(values.get(3));
+                maxNodesPerHistoryReadData = toLimit(values.get(4));
+                logger.debug("operation limits : read={}, write={}, browse={}, call={}",
+                    maxNodesPerRead, maxNodesPerWrite, maxNodesPerBrowse, maxNodesPerMethodCall);
+              }
+              created.complete(this);
+            });
+      }
+      return future;
+    }
+  }
+
+  /**
+   * forget limits of current session (they are read again in next session)
+   */
+  public synchronized void reset() {
+    future = null;
+  }
+
+  /**
+   * get the maximum number of nodes in a Read request
+   * @return number of nodes
+   */
+  public int getMaxNodesPerRead() {
+    return getLimit(maxNodesPerRead);
+  }
+
+  /**
+   * get the maximum number of nodes in a Write request
+   * @return number of nodes
+   */
+  public int getMaxNodesPerWrite() {
+    return getLimit(maxNodesPerWrite);
+  }
+
+  /**
+   * get the maximum number of nodes in a Browse request
+   * @return number of nodes
+   */
+  public int getMaxNodesPerBrowse() {
+    return getLimit(maxNodesPerBrowse);
+  }
+
+  /**
+   * get the maximum number of methods in a Call request
+   * @return number of methods
+   */
+  public int getMaxNodesPerMethodCall() {
+    return getLimit(maxNodesPerMethodCall);
+  }
+
+  /**
+   * get the maximum number of nodes in a HistoryRead request for data
+   * @return number of nodes
+   */
+  public int getMaxNodesPerHistoryReadData() {
+    return getLimit(maxNodesPerHistoryReadData);
+  }
+
+  private static int getLimit(int limit) {
+    return limit > 0 ? limit : DEFAULT_MAX_NODES;
+  }
+
+  private static int toLimit(DataValue value) {
+    if (value.getStatusCode().isGood() && value.getValue().getValue() instanceof UInteger) {
+      return (int) Math.min(Integer.MAX_VALUE,
+          ((UInteger) value.getValue().getValue()).longValue());
+    }
+    return 0;
+  }
+}
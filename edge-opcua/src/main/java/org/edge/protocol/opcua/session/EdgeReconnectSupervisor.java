@@ -0,0 +1,215 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.edge.protocol.opcua.api.ProtocolManager;
+import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
+import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Supervises sessions which became inactive. Each endpoint is reconnected with decorrelated jitter
+ * backoff through connect() of the Milo client, which joins the reconnect of its session state
+ * machine instead of starting another one. The number of reconnect attempts in progress is limited
+ * globally, and requests to endpoints whose reconnect failed repeatedly are rejected (circuit
+ * breaker) until they come back.
+ */
+public class EdgeReconnectSupervisor {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static EdgeReconnectSupervisor supervisor = null;
+  private static Object lock = new Object();
+  private final ConcurrentMap<String, EndpointState> states =
+      new ConcurrentHashMap<String, EndpointState>();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "edge-reconnect-supervisor");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private volatile Semaphore permits = new Semaphore(4);
+  private volatile long baseDelay = 1000;
+  private volatile long maxDelay = 60000;
+  private volatile int failureThreshold = 5;
+
+  public enum State {
+    CONNECTED, RECONNECTING, OPEN
+  }
+
+  private EdgeReconnectSupervisor() {}
+
+  /**
+   * get EdgeReconnectSupervisor instance
+   * @return EdgeReconnectSupervisor instance
+   */
+  public static EdgeReconnectSupervisor getInstance() {
+    synchronized (lock) {
+      if (null == supervisor) {
+        supervisor = new EdgeReconnectSupervisor();
+      }
+      return supervisor;
+    }
+  }
+
+  /**
+   * set backoff delay range
+   * @param  base first delay (milliseconds)
+   * @param  max maximum delay (milliseconds)
+   */
+  public void setBackoff(long base, long max) {
+    baseDelay = base;
+    maxDelay = max;
+  }
+
+  /**
+   * set the maximum number of reconnect attempts in progress at the same time
+   * @param  count maximum attempts (all endpoints)
+   */
+  public void setMaxConcurrentAttempts(int count) {
+    permits = new Semaphore(Math.max(1, count));
+  }
+
+  /**
+   * set the number of consecutive failed reconnect attempts after which the circuit is opened
+   * @param  count failure threshold
+   */
+  public void setFailureThreshold(int count) {
+    failureThreshold = Math.max(1, count);
+  }
+
+  /**
+   * check whether requests can be sent to the endpoint
+   * @param  endpointUri endpoint uri
+   * @return false if the circuit of the endpoint is open
+   */
+  public boolean isAvailable(String endpointUri) {
+    EndpointState state = states.get(endpointUri);
+    return state == null || state.state != State.OPEN;
+  }
+
+  /**
+   * get supervisor state of the endpoint
+   * @param  endpointUri endpoint uri
+   * @return state
+   */
+  public State getState(String endpointUri) {
+    EndpointState state = states.get(endpointUri);
+    return state == null ? State.CONNECTED : state.state;
+  }
+
+  /**
+   * notify that the session of the client is active
+   * @param  client EdgeOpcUaClient instance
+   */
+  public void onSessionActive(EdgeOpcUaClient client) {
+    EndpointState state = states.remove(client.getEndpoint());
+    if (state != null) {
+      logger.info("session is recovered : {}, attempts={}", client.getEndpoint(), state.attempts);
+    }
+  }
+
+  /**
+   * notify that the session of the client is inactive and schedule reconnect
+   * @param  client EdgeOpcUaClient instance
+   */
+  public void onSessionInactive(EdgeOpcUaClient client) {
+    EndpointState state = new EndpointState(client);
+    if (states.putIfAbsent(client.getEndpoint(), state) == null) {
+      notifyStatus(client, EdgeStatusCode.STATUS_RECONNECTING);
+      schedule(state);
+    }
+  }
+
+  /**
+   * stop supervising the endpoint (e.g. disconnected by user)
+   * @param  endpointUri endpoint uri
+   */
+  public void unregister(String endpointUri) {
+    EndpointState state = states.remove(endpointUri);
+    if (state != null) {
+      state.cancelled = true;
+    }
+  }
+
+  private void schedule(EndpointState state) {
+    // decorrelated jitter: the delay is between base and three times the previous delay, so the
+    // first attempts are spread out and never sent immediately after the session is lost.
+    // slow endpoints get at least twice their 99th percentile round-trip time as base delay
+    long base = Math.max(baseDelay, 2 * state.client.getHealthMonitor().getRoundTripTime99th());
+    long ceiling = Math.max(base, Math.min(maxDelay, state.delay * 3));
+    state.delay = ceiling > base ? ThreadLocalRandom.current().nextLong(base, ceiling + 1) : base;
+    logger.debug("reconnect is scheduled : {}, delay={}ms", state.client.getEndpoint(),
+        state.delay);
+    scheduler.schedule(() -> attempt(state), state.delay, TimeUnit.MILLISECONDS);
+  }
+
+  private void attempt(EndpointState state) {
+    // the session became active again (onSessionActive removed the state) or was unregistered
+    if (state.cancelled || states.get(state.client.getEndpoint()) != state) {
+      return;
+    }
+    Semaphore semaphore = permits;
+    if (semaphore.tryAcquire() == false) {
+      // too many endpoints are reconnecting, it is not counted as a failed attempt
+      schedule(state);
+      return;
+    }
+    state.client.getClientInstance().connect().whenComplete((c, e) -> {
+      semaphore.release();
+      if (e == null) {
+        onSessionActive(state.client);
+        return;
+      }
+      state.attempts++;
+      logger.info("reconnect failed : {}, attempts={}, {}", state.client.getEndpoint(),
+          state.attempts, e.getMessage());
+      if (state.attempts >= failureThreshold && state.state != State.OPEN) {
+        state.state = State.OPEN;
+        notifyStatus(state.client, EdgeStatusCode.STATUS_CIRCUIT_OPEN);
+      }
+      schedule(state);
+    });
+  }
+
+  private void notifyStatus(EdgeOpcUaClient client, EdgeStatusCode status) {
+    EdgeEndpointInfo ep = new EdgeEndpointInfo.Builder(client.getEndpoint()).build();
+    ProtocolManager.getProtocolManagerInstance().onStatusCallback(ep, status);
+  }
+
+  private static class EndpointState {
+    private final EdgeOpcUaClient client;
+    private volatile State state = State.RECONNECTING;
+    private volatile int attempts = 0;
+    private volatile long delay = 0;
+    private volatile boolean cancelled = false;
+
+    EndpointState(EdgeOpcUaClient client) {
+      this.client = client;
+    }
+  }
+}
@@ -21,19 +21,29 @@
 package org.edge.protocol.opcua.session;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import org.eclipse.milo.opcua.stack.client.UaTcpStackClient;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
 import org.edge.protocol.opcua.api.common.EdgeEndpointConfig;
 import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
 import org.edge.protocol.opcua.api.common.EdgeMessage;
 import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
+import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
+import org.edge.protocol.opcua.api.common.EdgeResult;
+import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.edge.protocol.opcua.queue.ErrorHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class EdgeSessionManager {
     private final Logger logger = LoggerFactory.getLogger(getClass());
   private final EdgeBaseSessionMap sessionMap = new EdgeSessionMap();
+  private final ConcurrentMap<String, CompletableFuture<EdgeOpcUaClient>> pending =
+      new ConcurrentHashMap<String, CompletableFuture<EdgeOpcUaClient>>();
   private static EdgeSessionManager session = null;
   private static Object lock = new Object();
 
@@ -60,13 +70,87 @@ public class EdgeSessionManager {
   }
 
   /**
-   * insert EdgeOpcUaClient instance with endpoint uri(key)
+   * insert EdgeOpcUaClient instance with endpoint uri(key) (blocks until configureAsync is done)
    * @param  ep EdgeEndpoint which has configuration information
    */
   public void configure(EdgeEndpointInfo ep) throws Exception {
-    if (false == sessionMap.containsKey(ep.getEndpointUri())) {
-      sessionMap.put(ep.getEndpointUri(), new EdgeOpcUaClient(ep));
+    configureAsync(ep).get();
+  }
+
+  /**
+   * insert EdgeOpcUaClient instance with endpoint uri(key) without blocking the caller
+   * @param  ep EdgeEndpoint which has configuration information
+   * @return future of EdgeOpcUaClient instance related to the endpoint
+   */
+  public CompletableFuture<EdgeOpcUaClient> configureAsync(EdgeEndpointInfo ep) {
+    String endpointUri = ep.getEndpointUri();
+    EdgeOpcUaClient client = getSession(endpointUri);
+    if (client != null) {
+      return CompletableFuture.completedFuture(client);
+    }
+    // concurrent calls for the same endpoint share one in-flight creation
+    CompletableFuture<EdgeOpcUaClient> future = new CompletableFuture<EdgeOpcUaClient>();
+    CompletableFuture<EdgeOpcUaClient> inFlight = pending.putIfAbsent(endpointUri, future);
+    if (inFlight != null) {
+      return inFlight;
+    }
+    EdgeOpcUaClient.create(ep).thenApply(created -> {
+      EdgeOpcUaClient old = sessionMap.putIfAbsent(endpointUri, created);
+      if (old != null) {
+        created.close();
+        return old;
+      }
+      return created;
+    }).whenComplete((created, e) -> {
+      pending.remove(endpointUri, future);
+      if (e != null) {
+        future.completeExceptionally(e);
+      } else {
+        future.complete(created);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * configure and connect to endpoint without blocking the caller
+   * @param  ep EdgeEndpoint which has configuration information
+   * @return future which is completed when the session is connected
+   */
+  public CompletableFuture<EdgeOpcUaClient> connectAsync(EdgeEndpointInfo ep) {
+    return configureAsync(ep).thenCompose(client -> client.connectAsync(ep.getFuture()));
+  }
+
+  /**
+   * configure and connect to several endpoints concurrently
+   * @param  endpoints endpoint list
+   * @param  parallelism maximum number of connections in progress at the same time
+   * @return future which is completed when all endpoints are tried (failed endpoints are
+   *         reported through ErrorHandler)
+   */
+  public CompletableFuture<Void> connectAll(List<EdgeEndpointInfo> endpoints, int parallelism) {
+    Queue<EdgeEndpointInfo> pending = new ConcurrentLinkedQueue<EdgeEndpointInfo>(endpoints);
+    List<CompletableFuture<Void>> workers = new ArrayList<CompletableFuture<Void>>();
+    for (int i = 0; i < Math.max(1, Math.min(parallelism, endpoints.size())); i++) {
+      workers.add(connectNext(pending));
     }
+    return CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[workers.size()]));
+  }
+
+  private CompletableFuture<Void> connectNext(Queue<EdgeEndpointInfo> pending) {
+    EdgeEndpointInfo ep = pending.poll();
+    if (ep == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return connectAsync(ep).handle((client, e) -> {
+      if (e != null) {
+        logger.warn("connect failed : {}, {}", ep.getEndpointUri(), e.getMessage());
+        ErrorHandler.getInstance().addErrorMessage(ep, new EdgeNodeInfo.Builder().build(),
+            new EdgeResult.Builder(EdgeStatusCode.STATUS_INTERNAL_ERROR).build(),
+            EdgeOpcUaCommon.DEFAULT_REQUEST_ID);
+      }
+      return null;
+    }).thenCompose(v -> connectNext(pending));
   }
 
   /**
@@ -118,7 +202,8 @@ public class EdgeSessionManager {
    */
   public ArrayList<EdgeEndpointInfo> getEndpoints(EdgeMessage msg) throws Exception {
     String endpointUri = msg.getEdgeEndpointInfo().getEndpointUri();
-    EndpointDescription[] endpoints = UaTcpStackClient.getEndpoints(endpointUri).get();
+    EndpointDescription[] endpoints =
+        EdgeEndpointCache.getInstance().getEndpoints(endpointUri).get();
     ArrayList<EdgeEndpointInfo> endpointList = new ArrayList<EdgeEndpointInfo>();
     for (int i = 0; i < endpoints.length; i++) {
       logger.debug("endpoint={}, {}, {}", endpoints[i].getEndpointUrl(),
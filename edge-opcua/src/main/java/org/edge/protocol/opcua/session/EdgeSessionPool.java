@@ -0,0 +1,189 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.sdk.client.SessionActivityListener;
+import org.eclipse.milo.opcua.sdk.client.api.UaSession;
+import org.eclipse.milo.opcua.sdk.client.api.config.OpcUaClientConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of sessions towards a single endpoint. The primary session (index 0) is dedicated to
+ * subscription and browse traffic, read/write traffic is balanced over the other sessions.
+ */
+public class EdgeSessionPool {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static final int MAX_CONSECUTIVE_FAILURES = 3;
+  private final List<PooledSession> sessions = new ArrayList<PooledSession>();
+  private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+  /**
+   * constructor
+   * @param  primary primary client (dedicated to subscription traffic)
+   * @param  config client configuration shared with the additional sessions
+   * @param  size total number of sessions in the pool (including primary)
+   */
+  public EdgeSessionPool(OpcUaClient primary, OpcUaClientConfig config, int size) {
+    sessions.add(new PooledSession(primary));
+    for (int i = 1; i < size; i++) {
+      sessions.add(new PooledSession(new OpcUaClient(config)));
+    }
+  }
+
+  /**
+   * connect additional sessions of the pool (primary session is managed by owner)
+   * @return future which is completed when all sessions are tried
+   */
+  public CompletableFuture<Void> connect() {
+    List<CompletableFuture<?>> futures = new ArrayList<CompletableFuture<?>>();
+    for (int i = 1; i < sessions.size(); i++) {
+      PooledSession session = sessions.get(i);
+      session.client.addSessionActivityListener(session);
+      futures.add(session.client.connect().handle((client, e) -> {
+        if (e != null) {
+          logger.warn("pooled session connect failed : {}", e.getMessage());
+          session.failures.incrementAndGet();
+        }
+        return null;
+      }));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+  }
+
+  /**
+   * disconnect additional sessions of the pool (primary session is managed by owner)
+   * @return future which is completed when all sessions are disconnected
+   */
+  public CompletableFuture<Void> disconnect() {
+    List<CompletableFuture<?>> futures = new ArrayList<CompletableFuture<?>>();
+    for (int i = 1; i < sessions.size(); i++) {
+      PooledSession session = sessions.get(i);
+      session.client.removeSessionActivityListener(session);
+      session.active.set(false);
+      futures.add(session.client.disconnect().handle((client, e) -> null));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+  }
+
+  /**
+   * get client instance for traffic class
+   * @param  traffic traffic class of request
+   * @return client instance
+   */
+  public OpcUaClient getClient(EdgeTrafficClass traffic) {
+    if (traffic != EdgeTrafficClass.READ_WRITE || sessions.size() == 1) {
+      return sessions.get(0).client;
+    }
+    // round-robin over healthy sessions, the faster of two adjacent candidates is taken
+    int count = sessions.size() - 1;
+    int start = Math.abs(nextIndex.getAndIncrement() % count);
+    PooledSession selected = null;
+    for (int i = 0; i < count; i++) {
+      PooledSession session = sessions.get(1 + (start + i) % count);
+      if (session.isHealthy() == false) {
+        continue;
+      }
+      if (selected != null) {
+        return session.latency.get() < selected.latency.get() ? session.client
+            : selected.client;
+      }
+      selected = session;
+    }
+    return selected != null ? selected.client : sessions.get(0).client;
+  }
+
+  /**
+   * report result of a request which is sent through the given client
+   * @param  client client instance which is used
+   * @param  latencyNanos round-trip time of the request
+   * @param  success whether request has succeeded
+   */
+  public void report(OpcUaClient client, long latencyNanos, boolean success) {
+    for (PooledSession session : sessions) {
+      if (session.client == client) {
+        // exponential moving average, updated atomically since responses complete concurrently
+        session.latency.accumulateAndGet(latencyNanos, (avg, sample) -> avg + (sample - avg) / 8);
+        if (success) {
+          session.failures.set(0);
+        } else if (session.failures.incrementAndGet() == MAX_CONSECUTIVE_FAILURES) {
+          logger.warn("pooled session is marked unhealthy");
+        }
+        return;
+      }
+    }
+  }
+
+  /**
+   * get the number of healthy sessions in the pool
+   * @return healthy session count
+   */
+  public int getHealthySessionCount() {
+    int count = 0;
+    for (int i = 1; i < sessions.size(); i++) {
+      if (sessions.get(i).isHealthy()) {
+        count++;
+      }
+    }
+    return count + 1;
+  }
+
+  /**
+   * get pool size
+   * @return the number of sessions
+   */
+  public int size() {
+    return sessions.size();
+  }
+
+  private static class PooledSession implements SessionActivityListener {
+    private final OpcUaClient client;
+    private final AtomicBoolean active = new AtomicBoolean(false);
+    private final AtomicInteger failures = new AtomicInteger(0);
+    private final AtomicLong latency = new AtomicLong(0);
+
+    PooledSession(OpcUaClient client) {
+      this.client = client;
+    }
+
+    boolean isHealthy() {
+      return active.get() && failures.get() < MAX_CONSECUTIVE_FAILURES;
+    }
+
+    @Override
+    public void onSessionActive(UaSession session) {
+      active.set(true);
+      failures.set(0);
+    }
+
+    @Override
+    public void onSessionInactive(UaSession session) {
+      active.set(false);
+    }
+  }
+}
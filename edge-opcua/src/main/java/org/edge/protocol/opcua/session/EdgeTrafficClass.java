@@ -0,0 +1,43 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+public enum EdgeTrafficClass {
+  SUBSCRIPTION(0, "publish and monitored item traffic (dedicated session)"),
+  BROWSE(1, "browse and address space traffic"),
+  READ_WRITE(2, "read, write and method traffic (load-balanced)");
+
+  private int code;
+  private String description;
+
+  private EdgeTrafficClass(int code, String description) {
+    this.code = code;
+    this.description = description;
+  }
+
+  public int getCode() {
+    return code;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,208 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import static org.eclipse.milo.opcua.stack.core.util.ConversionUtil.toList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write pipeline of an endpoint. Writes are collected for the coalesce window, writes to the same
+ * node (and attribute, index range) are coalesced keeping the last value, and collected writes
+ * are sent in one Write request split by MaxNodesPerWrite. Each caller gets its own result, and
+ * only one batch is in flight at a time so that writes to a node are applied in order.
+ */
+public class EdgeWriteBatcher {
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private static final int MAX_CHUNKS_IN_FLIGHT = 4;
+  private static final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "edge-write-batcher");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private final Function<List<WriteValue>, CompletableFuture<List<StatusCode>>> request;
+  private final long window;
+  private Map<List<Object>, PendingWrite> pending = new LinkedHashMap<List<Object>, PendingWrite>();
+  private boolean scheduled = false;
+
+  /**
+   * constructor
+   * @param  session EdgeOpcUaClient instance to write
+   * @param  window coalesce window (milliseconds)
+   */
+  public EdgeWriteBatcher(EdgeOpcUaClient session, long window) {
+    this(window,
+        values -> session.getOperationLimits().load()
+            .thenCompose(limits -> EdgeChunkedRequest.send(values, limits.getMaxNodesPerWrite(),
+                MAX_CHUNKS_IN_FLIGHT, chunk -> writeChunk(session, chunk),
+                (value, e) -> EdgeChunkedRequest.getStatusCode(e))));
+  }
+
+  /**
+   * constructor
+   * @param  window coalesce window (milliseconds)
+   * @param  request function which sends collected writes and returns results in the same order
+   */
+  EdgeWriteBatcher(long window,
+      Function<List<WriteValue>, CompletableFuture<List<StatusCode>>> request) {
+    this.request = request;
+    this.window = Math.max(0, window);
+  }
+
+  /**
+   * add write to the next batch
+   * @param  value write value
+   * @return future of status code of the write (status code of the last value if coalesced)
+   */
+  public CompletableFuture<StatusCode> write(WriteValue value) {
+    CompletableFuture<StatusCode> future = new CompletableFuture<StatusCode>();
+    List<Object> key =
+        Arrays.<Object>asList(value.getNodeId(), value.getAttributeId(), value.getIndexRange());
+    boolean schedule = false;
+    synchronized (this) {
+      PendingWrite write = pending.get(key);
+      if (write == null) {
+        pending.put(key, new PendingWrite(value, future));
+      } else {
+        write.value = value;
+        write.callers.add(future);
+      }
+      if (scheduled == false) {
+        scheduled = true;
+        schedule = true;
+      }
+    }
+    if (schedule) {
+      scheduler.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+    }
+    return future;
+  }
+
+  /**
+   * add writes to the next batch
+   * @param  values write values
+   * @return future of status codes in order of values
+   */
+  public CompletableFuture<List<StatusCode>> write(List<WriteValue> values) {
+    List<CompletableFuture<StatusCode>> futures =
+        new ArrayList<CompletableFuture<StatusCode>>(values.size());
+    for (WriteValue value : values) {
+      futures.add(write(value));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+        .thenApply(v -> {
+          List<StatusCode> results = new ArrayList<StatusCode>(futures.size());
+          for (CompletableFuture<StatusCode> future : futures) {
+            results.add(future.join());
+          }
+          return results;
+        });
+  }
+
+  private void flush() {
+    List<PendingWrite> batch;
+    synchronized (this) {
+      batch = new ArrayList<PendingWrite>(pending.values());
+      pending = new LinkedHashMap<List<Object>, PendingWrite>();
+      if (batch.isEmpty()) {
+        scheduled = false;
+        return;
+      }
+    }
+    try {
+      List<WriteValue> values = new ArrayList<WriteValue>(batch.size());
+      for (PendingWrite write : batch) {
+        values.add(write.value);
+      }
+      logger.debug("write batch size = {}", values.size());
+
+      request.apply(values).whenComplete((results, e) -> complete(batch, results, e));
+    } catch (Exception e) {
+      logger.warn("write batch failed", e);
+      complete(batch, null, e);
+    }
+  }
+
+  private void complete(List<PendingWrite> batch, List<StatusCode> results, Throwable e) {
+    for (int index = 0; index < batch.size(); index++) {
+      if (e != null) {
+        batch.get(index).complete(EdgeChunkedRequest.getStatusCode(e));
+      } else if (index < results.size()) {
+        batch.get(index).complete(results.get(index));
+      } else {
+        batch.get(index).complete(new StatusCode(StatusCodes.Bad_UnexpectedError));
+      }
+    }
+    boolean next;
+    synchronized (this) {
+      next = pending.isEmpty() == false;
+      scheduled = next;
+    }
+    if (next) {
+      scheduler.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static CompletableFuture<List<StatusCode>> writeChunk(EdgeOpcUaClient session,
+      List<WriteValue> writeValues) {
+    OpcUaClient client = session.getClientInstance(EdgeTrafficClass.READ_WRITE);
+    List<WriteValue> registered = new ArrayList<WriteValue>(writeValues.size());
+    for (WriteValue value : writeValues) {
+      registered.add(new WriteValue(session.getNodeRegistry().lookup(client, value.getNodeId()),
+          value.getAttributeId(), value.getIndexRange(), value.getValue()));
+    }
+    long start = System.nanoTime();
+    return client.write(registered).whenComplete((response, e) -> session.report(client, start, e))
+        .thenApply(response -> toList(response.getResults()));
+  }
+
+  private static class PendingWrite {
+    private WriteValue value;
+    private final List<CompletableFuture<StatusCode>> callers =
+        new ArrayList<CompletableFuture<StatusCode>>(1);
+
+    private PendingWrite(WriteValue value, CompletableFuture<StatusCode> caller) {
+      this.value = value;
+      this.callers.add(caller);
+    }
+
+    private void complete(StatusCode code) {
+      for (CompletableFuture<StatusCode> caller : callers) {
+        caller.complete(code);
+      }
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.api.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.junit.Test;
+
+public class EdgeArrayValueTest {
+
+  @Test
+  public void testFlattenMatrix() {
+    Double[][] value = {{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(value).build();
+
+    assertEquals(EdgeNodeIdentifier.Double, array.getType());
+    assertArrayEquals(new int[] {2, 3}, array.getDimensions());
+    assertEquals(6, array.getLength());
+    assertArrayEquals(new double[] {1.0, 2.0, 3.0, 4.0, 5.0, 6.0}, (double[]) array.getArray(),
+        0.0);
+    assertNull(array.getBuffer());
+  }
+
+  @Test
+  public void testFlattenThreeDimensions() {
+    Integer[][][] value = {{{1, 2}, {3, 4}}, {{5, 6}, {7, 8}}, {{9, 10}, {11, 12}}};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(value).build();
+
+    assertEquals(EdgeNodeIdentifier.Int32, array.getType());
+    assertArrayEquals(new int[] {3, 2, 2}, array.getDimensions());
+    assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, (int[]) array.getArray());
+  }
+
+  @Test
+  public void testUnsignedElements() {
+    UInteger[] value = {UInteger.valueOf(1), UInteger.MAX};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(value).build();
+
+    assertEquals(EdgeNodeIdentifier.UInt32, array.getType());
+    assertArrayEquals(new long[] {1L, UInteger.MAX_VALUE}, (long[]) array.getArray());
+  }
+
+  @Test
+  public void testFlatValueWithDimensions() {
+    Float[] value = {1f, 2f, 3f, 4f, 5f, 6f};
+    EdgeArrayValue array =
+        new EdgeArrayValue.Builder(value).setDimensions(new int[] {3, 2}).build();
+    assertArrayEquals(new int[] {3, 2}, array.getDimensions());
+
+    // dimensions which do not match the number of elements are ignored
+    array = new EdgeArrayValue.Builder(value).setDimensions(new int[] {4, 2}).build();
+    assertArrayEquals(new int[] {6}, array.getDimensions());
+  }
+
+  @Test
+  public void testPrimitiveValue() {
+    long[] value = {1L, 2L, 3L};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(value).build();
+
+    assertEquals(EdgeNodeIdentifier.Int64, array.getType());
+    assertArrayEquals(new int[] {3}, array.getDimensions());
+    assertArrayEquals(value, (long[]) array.getArray());
+  }
+
+  @Test
+  public void testBufferMode() {
+    Double[] value = {1.5, -2.5};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(value)
+        .setMode(EdgeOpcUaCommon.ARRAY_VALUE_BUFFER).build();
+
+    assertNull(array.getArray());
+    ByteBuffer buffer = array.getBuffer();
+    assertFalse(buffer.isDirect());
+    assertEquals(ByteOrder.nativeOrder(), buffer.order());
+    assertEquals(16, buffer.remaining());
+    assertEquals(1.5, buffer.getDouble(0), 0.0);
+    assertEquals(-2.5, buffer.getDouble(8), 0.0);
+  }
+
+  @Test
+  public void testDirectBufferMode() {
+    Boolean[][] value = {{true, false}, {false, true}};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(value)
+        .setMode(EdgeOpcUaCommon.ARRAY_VALUE_DIRECT_BUFFER).build();
+
+    ByteBuffer buffer = array.getBuffer();
+    assertTrue(buffer.isDirect());
+    assertArrayEquals(new int[] {2, 2}, array.getDimensions());
+    assertEquals(4, buffer.remaining());
+    assertEquals(1, buffer.get(0));
+    assertEquals(0, buffer.get(1));
+    assertEquals(0, buffer.get(2));
+    assertEquals(1, buffer.get(3));
+  }
+
+  @Test
+  public void testByteStringBuffer() {
+    byte[] bytes = {1, 2, 3};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(ByteString.of(bytes))
+        .setMode(EdgeOpcUaCommon.ARRAY_VALUE_BUFFER).build();
+
+    assertEquals(EdgeNodeIdentifier.Byte, array.getType());
+    assertArrayEquals(new int[] {3}, array.getDimensions());
+    assertEquals(3, array.getBuffer().remaining());
+    assertEquals(3, array.getBuffer().get(2));
+  }
+
+  @Test
+  public void testEmptyArray() {
+    Double[][] value = {{}, {}};
+    EdgeArrayValue array = new EdgeArrayValue.Builder(value).build();
+
+    assertArrayEquals(new int[] {2, 0}, array.getDimensions());
+    assertEquals(0, array.getLength());
+  }
+
+  @Test
+  public void testRaggedArrayIsNotSupported() {
+    assertFalse(EdgeArrayValue.isSupported(new Double[][] {{1.0, 2.0}, {3.0}}));
+    assertFalse(EdgeArrayValue.isSupported(new Double[][] {{1.0}, {2.0, 3.0}}));
+    assertFalse(EdgeArrayValue.isSupported(new Double[][] {{}, {1.0}}));
+    assertFalse(EdgeArrayValue.isSupported(new Double[][] {null, {1.0}}));
+    assertFalse(EdgeArrayValue.isSupported(new Double[][] {{1.0}, null}));
+    assertTrue(EdgeArrayValue.isSupported(new Double[][] {{1.0}, {2.0}}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRaggedArrayIsRejected() {
+    new EdgeArrayValue.Builder(new Integer[][] {{1, 2}, {3}}).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLeadingEmptyArrayIsRejected() {
+    new EdgeArrayValue.Builder(new Integer[][] {{}, {1, 2}}).build();
+  }
+
+  @Test
+  public void testUnsupportedValue() {
+    assertFalse(EdgeArrayValue.isSupported(null));
+    assertFalse(EdgeArrayValue.isSupported(1.0));
+    assertFalse(EdgeArrayValue.isSupported(new String[] {"a"}));
+  }
+}
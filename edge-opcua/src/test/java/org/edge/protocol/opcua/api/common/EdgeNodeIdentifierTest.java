@@ -0,0 +1,58 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.api.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.junit.Test;
+
+public class EdgeNodeIdentifierTest {
+
+  @Test
+  public void testFromValue() {
+    assertEquals(EdgeNodeIdentifier.Boolean, EdgeNodeIdentifier.fromValue(1));
+    assertEquals(EdgeNodeIdentifier.Double, EdgeNodeIdentifier.fromValue(11));
+    assertEquals(EdgeNodeIdentifier.RootFolder, EdgeNodeIdentifier.fromValue(84));
+    assertEquals(EdgeNodeIdentifier.DataItemType, EdgeNodeIdentifier.fromValue(2365));
+  }
+
+  @Test
+  public void testFromValueOfAllIdentifiers() {
+    for (EdgeNodeIdentifier id : EdgeNodeIdentifier.values()) {
+      // identifiers which share a numeric id are mapped to the first one
+      assertEquals(id.value(), EdgeNodeIdentifier.fromValue(id.value().intValue()).value());
+    }
+  }
+
+  @Test
+  public void testFromNumericIdentifier() {
+    assertEquals(EdgeNodeIdentifier.Double, EdgeNodeIdentifier.fromValue(UInteger.valueOf(11)));
+    assertEquals(EdgeNodeIdentifier.RootFolder,
+        EdgeNodeIdentifier.fromValue(Integer.valueOf(84)));
+  }
+
+  @Test
+  public void testFromUnknownValue() {
+    assertNull(EdgeNodeIdentifier.fromValue(-1));
+    assertNull(EdgeNodeIdentifier.fromValue(Integer.MAX_VALUE));
+    assertNull(EdgeNodeIdentifier.fromValue("84"));
+    assertNull(EdgeNodeIdentifier.fromValue((Object) null));
+  }
+}
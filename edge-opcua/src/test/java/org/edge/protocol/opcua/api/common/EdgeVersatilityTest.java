@@ -0,0 +1,107 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.api.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class EdgeVersatilityTest {
+
+  @Test
+  public void testDouble() {
+    EdgeVersatility value = new EdgeVersatility.Builder().setDouble(-1.25).build();
+    assertTrue(value.isPrimitive());
+    assertFalse(value.isNull());
+    assertEquals(EdgeNodeIdentifier.Double, value.getVariableType());
+    assertEquals(-1.25, value.getDouble(), 0.0);
+    assertEquals(-1.25f, value.getFloat(), 0.0f);
+    assertEquals(-1L, value.getLong());
+    assertEquals(Double.valueOf(-1.25), value.getValue());
+  }
+
+  @Test
+  public void testFloat() {
+    EdgeVersatility value = new EdgeVersatility.Builder().setFloat(-3.5f).build();
+    assertEquals(EdgeNodeIdentifier.Float, value.getVariableType());
+    assertEquals(-3.5f, value.getFloat(), 0.0f);
+    assertEquals(-3.5, value.getDouble(), 0.0);
+    assertEquals(Float.valueOf(-3.5f), value.getValue());
+  }
+
+  @Test
+  public void testLong() {
+    EdgeVersatility value = new EdgeVersatility.Builder().setLong(Long.MIN_VALUE).build();
+    assertEquals(EdgeNodeIdentifier.Int64, value.getVariableType());
+    assertEquals(Long.MIN_VALUE, value.getLong());
+    assertEquals(Long.valueOf(Long.MIN_VALUE), value.getValue());
+  }
+
+  @Test
+  public void testInt() {
+    EdgeVersatility value = new EdgeVersatility.Builder().setInt(-7).build();
+    assertEquals(EdgeNodeIdentifier.Integer, value.getVariableType());
+    assertEquals(-7, value.getInt());
+    assertEquals(-7.0, value.getDouble(), 0.0);
+    assertTrue(value.getBoolean());
+    assertEquals(Integer.valueOf(-7), value.getValue());
+  }
+
+  @Test
+  public void testBoolean() {
+    EdgeVersatility value = new EdgeVersatility.Builder().setBoolean(true).build();
+    assertEquals(EdgeNodeIdentifier.Boolean, value.getVariableType());
+    assertTrue(value.getBoolean());
+    assertEquals(Boolean.TRUE, value.getValue());
+    assertFalse(new EdgeVersatility.Builder().setBoolean(false).build().getBoolean());
+  }
+
+  @Test
+  public void testUnboxed() {
+    EdgeVersatility.Builder builder = new EdgeVersatility.Builder();
+    EdgeVersatility value = builder.setUnboxed(Double.valueOf(2.5)).build();
+    assertTrue(value.isPrimitive());
+    assertEquals(2.5, value.getDouble(), 0.0);
+
+    // builder is reused for the next value
+    value = builder.setUnboxed(Integer.valueOf(3)).build();
+    assertTrue(value.isPrimitive());
+    assertEquals(3, value.getInt());
+
+    value = builder.setUnboxed("text").build();
+    assertFalse(value.isPrimitive());
+    assertEquals(EdgeNodeIdentifier.String, value.getVariableType());
+    assertEquals("text", value.getValue());
+  }
+
+  @Test
+  public void testBoxedValue() {
+    EdgeVersatility value = new EdgeVersatility.Builder(Double.valueOf(4.5)).build();
+    assertFalse(value.isPrimitive());
+    assertEquals(4.5, value.getDouble(), 0.0);
+    assertEquals(4L, value.getLong());
+  }
+
+  @Test
+  public void testNull() {
+    assertTrue(new EdgeVersatility.Builder().build().isNull());
+    assertTrue(new EdgeVersatility.Builder(null).build().isNull());
+  }
+}
@@ -0,0 +1,156 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.providers.services;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
+import org.edge.protocol.opcua.api.client.EdgeResponse;
+import org.edge.protocol.opcua.api.common.EdgeEndpointInfo;
+import org.edge.protocol.opcua.api.common.EdgeMessage;
+import org.edge.protocol.opcua.api.common.EdgeNodeInfo;
+import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
+import org.edge.protocol.opcua.api.common.EdgeRequest;
+import org.edge.protocol.opcua.api.common.EdgeStatusCode;
+import org.edge.protocol.opcua.providers.services.da.EdgeAttributeService;
+import org.edge.protocol.opcua.providers.services.da.EdgeDataItemService;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EdgeGroupResultTest {
+  private final String endpointUri = EdgeOpcUaCommon.DEFAULT_ENDPOINT.getValue();
+  private EdgeMessage msg;
+  private EdgeGroupResult result;
+
+  private static ReadValueId newReadValueId(String node) {
+    return new ReadValueId(new NodeId(2, node), AttributeId.Value.uid(), null,
+        QualifiedName.NULL_VALUE);
+  }
+
+  @Before
+  public void setUp() {
+    List<EdgeRequest> requests = new ArrayList<EdgeRequest>();
+    for (String alias : Arrays.asList("r0", "r1", "r2", "r3")) {
+      requests.add(
+          new EdgeRequest.Builder(new EdgeNodeInfo.Builder().setValueAlias(alias).build())
+              .build());
+    }
+    msg = new EdgeMessage.Builder(new EdgeEndpointInfo.Builder(endpointUri).build())
+        .setRequests(requests).build();
+
+    // r1 has no attribute service, so it is not read
+    EdgeAttributeService service = new EdgeDataItemService(2, endpointUri);
+    List<EdgeAttributeService> services = Arrays.asList(service, null, service, service);
+    List<ReadValueId> ids =
+        Arrays.asList(newReadValueId("n0"), null, newReadValueId("n2"), newReadValueId("n3"));
+    result = new EdgeGroupResult(msg, services, ids);
+  }
+
+  @Test
+  public void testRequestIndex() {
+    List<ReadValueId> ids = result.getReadValueIds();
+    assertEquals(3, ids.size());
+    assertEquals(new NodeId(2, "n0"), ids.get(0).getNodeId());
+    assertEquals(new NodeId(2, "n2"), ids.get(1).getNodeId());
+    assertEquals(new NodeId(2, "n3"), ids.get(2).getNodeId());
+
+    assertEquals(0, result.getRequestIndex(0));
+    assertEquals(2, result.getRequestIndex(1));
+    assertEquals(3, result.getRequestIndex(2));
+    assertEquals(msg.getRequests().get(3), result.getRequest(2));
+  }
+
+  @Test
+  public void testReadResponses() {
+    List<EdgeResponse> responses = result.getReadResponses(
+        Arrays.asList(new DataValue(new Variant(1.5)),
+            new DataValue(new StatusCode(StatusCodes.Bad_NodeIdUnknown)),
+            new DataValue(new Variant("text"))));
+
+    assertEquals(4, responses.size());
+    for (int index = 0; index < responses.size(); index++) {
+      assertEquals(msg.getRequests().get(index).getRequestId(),
+          responses.get(index).getRequestId());
+    }
+    assertEquals(EdgeStatusCode.STATUS_OK, responses.get(0).getResult().getStatusCode());
+    assertEquals(1.5, responses.get(0).getMessage().getValue());
+    assertEquals(EdgeStatusCode.STATUS_ERROR, responses.get(1).getResult().getStatusCode());
+    assertEquals(StatusCodes.Bad_NotSupported,
+        ((StatusCode) responses.get(1).getMessage().getValue()).getValue());
+    assertEquals(EdgeStatusCode.STATUS_ERROR, responses.get(2).getResult().getStatusCode());
+    assertEquals(StatusCodes.Bad_NodeIdUnknown,
+        ((StatusCode) responses.get(2).getMessage().getValue()).getValue());
+    assertEquals(EdgeStatusCode.STATUS_OK, responses.get(3).getResult().getStatusCode());
+    assertEquals("text", responses.get(3).getMessage().getValue());
+  }
+
+  @Test
+  public void testMissingReadResponses() {
+    List<EdgeResponse> responses =
+        result.getReadResponses(Arrays.asList(new DataValue(new Variant(1))));
+
+    assertEquals(4, responses.size());
+    assertEquals(EdgeStatusCode.STATUS_OK, responses.get(0).getResult().getStatusCode());
+    assertEquals(StatusCodes.Bad_UnexpectedError,
+        ((StatusCode) responses.get(2).getMessage().getValue()).getValue());
+    assertEquals(StatusCodes.Bad_UnexpectedError,
+        ((StatusCode) responses.get(3).getMessage().getValue()).getValue());
+  }
+
+  @Test
+  public void testWriteResponses() {
+    List<EdgeResponse> responses = result.getWriteResponses(Arrays.asList(
+        new StatusCode(StatusCodes.Bad_TypeMismatch), StatusCode.GOOD, StatusCode.GOOD));
+
+    assertEquals(4, responses.size());
+    assertEquals(EdgeStatusCode.STATUS_ERROR, responses.get(0).getResult().getStatusCode());
+    assertEquals(StatusCodes.Bad_TypeMismatch,
+        ((StatusCode) responses.get(0).getMessage().getValue()).getValue());
+    assertEquals(StatusCodes.Bad_NotSupported,
+        ((StatusCode) responses.get(1).getMessage().getValue()).getValue());
+    assertEquals(EdgeStatusCode.STATUS_OK, responses.get(2).getResult().getStatusCode());
+    assertEquals(EdgeStatusCode.STATUS_OK, responses.get(3).getResult().getStatusCode());
+  }
+
+  @Test
+  public void testGroupErrorResponses() {
+    List<EdgeResponse> responses = EdgeGroupResult.getErrorResponses(msg,
+        new CompletionException(new UaException(StatusCodes.Bad_TooManyOperations)));
+
+    assertEquals(4, responses.size());
+    for (int index = 0; index < responses.size(); index++) {
+      assertEquals(msg.getRequests().get(index).getRequestId(),
+          responses.get(index).getRequestId());
+      assertEquals(EdgeStatusCode.STATUS_ERROR, responses.get(index).getResult().getStatusCode());
+      assertEquals(StatusCodes.Bad_TooManyOperations,
+          ((StatusCode) responses.get(index).getMessage().getValue()).getValue());
+    }
+  }
+}
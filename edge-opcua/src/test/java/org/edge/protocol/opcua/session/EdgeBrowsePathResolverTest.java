@@ -0,0 +1,104 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
+import org.eclipse.milo.opcua.stack.core.types.structured.BrowsePath;
+import org.eclipse.milo.opcua.stack.core.types.structured.RelativePathElement;
+import org.edge.protocol.opcua.api.common.EdgeOpcUaCommon;
+import org.junit.Test;
+
+public class EdgeBrowsePathResolverTest {
+  private static final String ENDPOINT_URI = "opc.tcp://localhost:12686/edge-opc-server";
+
+  private static List<QualifiedName> getNames(BrowsePath path) {
+    List<QualifiedName> names = new ArrayList<QualifiedName>();
+    for (RelativePathElement element : path.getRelativePath().getElements()) {
+      names.add(element.getTargetName());
+    }
+    return names;
+  }
+
+  private static List<QualifiedName> getNames(String... names) {
+    List<QualifiedName> ret = new ArrayList<QualifiedName>();
+    for (String name : names) {
+      ret.add(new QualifiedName(EdgeOpcUaCommon.DEFAULT_NAMESPACE_INDEX, name));
+    }
+    return ret;
+  }
+
+  @Test
+  public void testPath() {
+    BrowsePath path = EdgeBrowsePathResolver.toBrowsePath("/Device/Value", ENDPOINT_URI);
+    assertEquals(Identifiers.ObjectsFolder, path.getStartingNode());
+    assertEquals(getNames("Device", "Value"), getNames(path));
+  }
+
+  @Test
+  public void testAliasOfProviderGenerator() {
+    // alias of custom node is made as (endpointUri + path).substring(10)
+    String alias = (ENDPOINT_URI + "/Device/Value").substring(10);
+    assertEquals(getNames("Device", "Value"),
+        getNames(EdgeBrowsePathResolver.toBrowsePath(alias, ENDPOINT_URI)));
+  }
+
+  @Test
+  public void testEndpointAddressWithScheme() {
+    assertEquals(getNames("Device", "Value"), getNames(EdgeBrowsePathResolver
+        .toBrowsePath("OPC.TCP://localhost:12686/edge-opc-server/Device/Value", ENDPOINT_URI)));
+  }
+
+  @Test
+  public void testEndpointWithoutPath() {
+    String endpointUri = "opc.tcp://localhost:12686";
+    assertEquals(getNames("Device", "Value"), getNames(
+        EdgeBrowsePathResolver.toBrowsePath("localhost:12686/Device/Value", endpointUri)));
+    assertEquals(getNames("Device", "Value"), getNames(EdgeBrowsePathResolver
+        .toBrowsePath("opc.tcp://localhost:12686/Device/Value", endpointUri)));
+  }
+
+  @Test
+  public void testOtherEndpointAddress() {
+    // address of other endpoint is removed only with scheme
+    assertEquals(getNames("edge-opc-server", "Device"), getNames(EdgeBrowsePathResolver
+        .toBrowsePath("opc.tcp://remote:4840/edge-opc-server/Device", ENDPOINT_URI)));
+    assertEquals(getNames("remote:4840", "Device"), getNames(
+        EdgeBrowsePathResolver.toBrowsePath("remote:4840/Device", ENDPOINT_URI)));
+  }
+
+  @Test
+  public void testNamePrefixedWithEndpointAddress() {
+    // the address must be followed by path separator
+    assertEquals(getNames("localhost:12686", "edge-opc-server2", "Value"), getNames(
+        EdgeBrowsePathResolver.toBrowsePath("localhost:12686/edge-opc-server2/Value",
+            ENDPOINT_URI)));
+  }
+
+  @Test
+  public void testNamespaceIndex() {
+    BrowsePath path = EdgeBrowsePathResolver.toBrowsePath("/3:Device/Tank:Level", ENDPOINT_URI);
+    assertEquals(Arrays.asList(new QualifiedName(3, "Device"),
+        new QualifiedName(EdgeOpcUaCommon.DEFAULT_NAMESPACE_INDEX, "Tank:Level")), getNames(path));
+  }
+}
@@ -0,0 +1,148 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.junit.Test;
+
+public class EdgeChunkedRequestTest {
+
+  private static List<Integer> range(int size) {
+    List<Integer> items = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(i);
+    }
+    return items;
+  }
+
+  @Test
+  public void testResultsInOrderOfItems() throws Exception {
+    List<CompletableFuture<List<String>>> responses =
+        Collections.synchronizedList(new ArrayList<CompletableFuture<List<String>>>());
+    List<List<Integer>> chunks = Collections.synchronizedList(new ArrayList<List<Integer>>());
+    CompletableFuture<List<String>> future =
+        EdgeChunkedRequest.send(range(7), 3, 3, chunk -> {
+          CompletableFuture<List<String>> response = new CompletableFuture<List<String>>();
+          chunks.add(chunk);
+          responses.add(response);
+          return response;
+        }, (item, e) -> "failed");
+
+    assertEquals(3, chunks.size());
+    assertEquals(Arrays.asList(0, 1, 2), chunks.get(0));
+    assertEquals(Arrays.asList(3, 4, 5), chunks.get(1));
+    assertEquals(Arrays.asList(6), chunks.get(2));
+
+    // chunks are completed in reverse order, results are still in order of items
+    for (int i = chunks.size() - 1; i >= 0; i--) {
+      List<String> values = new ArrayList<String>();
+      for (int item : chunks.get(i)) {
+        values.add("value" + item);
+      }
+      responses.get(i).complete(values);
+    }
+    assertEquals(Arrays.asList("value0", "value1", "value2", "value3", "value4", "value5",
+        "value6"), future.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testMaxInFlight() throws Exception {
+    AtomicInteger inFlight = new AtomicInteger(0);
+    AtomicInteger maxInFlight = new AtomicInteger(0);
+    List<CompletableFuture<List<Integer>>> responses =
+        Collections.synchronizedList(new ArrayList<CompletableFuture<List<Integer>>>());
+    CompletableFuture<List<Integer>> future = EdgeChunkedRequest.send(range(10), 2, 2, chunk -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      CompletableFuture<List<Integer>> response = new CompletableFuture<List<Integer>>();
+      responses.add(response);
+      return response.whenComplete((values, e) -> inFlight.decrementAndGet())
+          .thenApply(values -> chunk);
+    }, (item, e) -> -1);
+
+    for (int i = 0; i < responses.size(); i++) {
+      responses.get(i).complete(null);
+    }
+    assertEquals(range(10), future.get(1, TimeUnit.SECONDS));
+    assertEquals(5, responses.size());
+    assertEquals(2, maxInFlight.get());
+  }
+
+  @Test
+  public void testFailedChunk() throws Exception {
+    CompletableFuture<List<StatusCode>> future = EdgeChunkedRequest.send(range(5), 2, 1, chunk -> {
+      CompletableFuture<List<StatusCode>> response = new CompletableFuture<List<StatusCode>>();
+      if (chunk.contains(2)) {
+        response.completeExceptionally(new UaException(StatusCodes.Bad_TooManyOperations));
+      } else {
+        List<StatusCode> codes = new ArrayList<StatusCode>();
+        for (int i = 0; i < chunk.size(); i++) {
+          codes.add(StatusCode.GOOD);
+        }
+        response.complete(codes);
+      }
+      return response;
+    }, (item, e) -> EdgeChunkedRequest.getStatusCode(e));
+
+    List<StatusCode> results = future.get(1, TimeUnit.SECONDS);
+    assertEquals(5, results.size());
+    assertTrue(results.get(0).isGood());
+    assertTrue(results.get(1).isGood());
+    assertEquals(StatusCodes.Bad_TooManyOperations, results.get(2).getValue());
+    assertEquals(StatusCodes.Bad_TooManyOperations, results.get(3).getValue());
+    assertTrue(results.get(4).isGood());
+  }
+
+  @Test
+  public void testMissingResults() throws Exception {
+    List<StatusCode> results = EdgeChunkedRequest.<Integer, StatusCode>send(range(3), 3, 1,
+        chunk -> CompletableFuture.completedFuture(Arrays.asList(StatusCode.GOOD)),
+        (item, e) -> EdgeChunkedRequest.getStatusCode(e)).get(1, TimeUnit.SECONDS);
+
+    assertTrue(results.get(0).isGood());
+    assertEquals(StatusCodes.Bad_UnexpectedError, results.get(1).getValue());
+    assertEquals(StatusCodes.Bad_UnexpectedError, results.get(2).getValue());
+  }
+
+  @Test
+  public void testRequestThrows() throws Exception {
+    List<String> results = EdgeChunkedRequest.<Integer, String>send(range(2), 1, 2, chunk -> {
+      throw new IllegalStateException("not connected");
+    }, (item, e) -> "failed" + item).get(1, TimeUnit.SECONDS);
+
+    assertEquals(Arrays.asList("failed0", "failed1"), results);
+  }
+
+  @Test
+  public void testEmptyItems() throws Exception {
+    assertTrue(EdgeChunkedRequest.<Integer, String>send(new ArrayList<Integer>(), 3, 1,
+        chunk -> CompletableFuture.completedFuture(new ArrayList<String>()),
+        (item, e) -> "failed").get(1, TimeUnit.SECONDS).isEmpty());
+  }
+}
@@ -0,0 +1,143 @@
+/******************************************************************
+ *
+ * Copyright 2017 Samsung Electronics All Rights Reserved.
+ *
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ ******************************************************************/
+
+package org.edge.protocol.opcua.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.milo.opcua.stack.core.AttributeId;
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
+import org.junit.Test;
+
+public class EdgeWriteBatcherTest {
+  private static final long WINDOW = 50;
+
+  private static WriteValue newWriteValue(String node, Object value) {
+    return newWriteValue(node, null, value);
+  }
+
+  private static WriteValue newWriteValue(String node, String indexRange, Object value) {
+    return new WriteValue(new NodeId(2, node), AttributeId.Value.uid(), indexRange,
+        new DataValue(new Variant(value)));
+  }
+
+  @Test
+  public void testCoalesceWritesToSameNode() throws Exception {
+    List<List<WriteValue>> batches =
+        Collections.synchronizedList(new ArrayList<List<WriteValue>>());
+    EdgeWriteBatcher batcher = new EdgeWriteBatcher(WINDOW, values -> {
+      batches.add(values);
+      List<StatusCode> results = new ArrayList<StatusCode>();
+      for (WriteValue value : values) {
+        results.add(((Integer) value.getValue().getValue().getValue()) < 0
+            ? new StatusCode(StatusCodes.Bad_OutOfRange) : StatusCode.GOOD);
+      }
+      return CompletableFuture.completedFuture(results);
+    });
+
+    CompletableFuture<StatusCode> first = batcher.write(newWriteValue("a", 1));
+    CompletableFuture<StatusCode> other = batcher.write(newWriteValue("b", -1));
+    CompletableFuture<StatusCode> last = batcher.write(newWriteValue("a", 2));
+    CompletableFuture<StatusCode> range = batcher.write(newWriteValue("a", "0:1", 3));
+
+    assertTrue(last.get(1, TimeUnit.SECONDS).isGood());
+    // coalesced write gets the status code of the last value
+    assertTrue(first.get(1, TimeUnit.SECONDS).isGood());
+    assertEquals(StatusCodes.Bad_OutOfRange, other.get(1, TimeUnit.SECONDS).getValue());
+    assertTrue(range.get(1, TimeUnit.SECONDS).isGood());
+
+    assertEquals(1, batches.size());
+    List<WriteValue> batch = batches.get(0);
+    // index range is part of key, so it is not coalesced with write of whole value
+    assertEquals(3, batch.size());
+    assertEquals(new NodeId(2, "a"), batch.get(0).getNodeId());
+    assertEquals(2, batch.get(0).getValue().getValue().getValue());
+    assertEquals(new NodeId(2, "b"), batch.get(1).getNodeId());
+    assertEquals("0:1", batch.get(2).getIndexRange());
+  }
+
+  @Test
+  public void testWriteList() throws Exception {
+    EdgeWriteBatcher batcher = new EdgeWriteBatcher(WINDOW, values -> {
+      List<StatusCode> results = new ArrayList<StatusCode>();
+      for (int i = 0; i < values.size(); i++) {
+        results.add(i == 0 ? StatusCode.GOOD : new StatusCode(StatusCodes.Bad_TypeMismatch));
+      }
+      return CompletableFuture.completedFuture(results);
+    });
+
+    List<StatusCode> results = batcher.write(Arrays.asList(newWriteValue("a", 1),
+        newWriteValue("b", 2), newWriteValue("a", 3))).get(1, TimeUnit.SECONDS);
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isGood());
+    assertEquals(StatusCodes.Bad_TypeMismatch, results.get(1).getValue());
+    assertTrue(results.get(2).isGood());
+  }
+
+  @Test
+  public void testNextBatchAfterCompletion() throws Exception {
+    List<CompletableFuture<List<StatusCode>>> responses =
+        Collections.synchronizedList(new ArrayList<CompletableFuture<List<StatusCode>>>());
+    EdgeWriteBatcher batcher = new EdgeWriteBatcher(WINDOW, values -> {
+      CompletableFuture<List<StatusCode>> response = new CompletableFuture<List<StatusCode>>();
+      responses.add(response);
+      return response;
+    });
+
+    CompletableFuture<StatusCode> first = batcher.write(newWriteValue("a", 1));
+    Thread.sleep(WINDOW * 4);
+    assertEquals(1, responses.size());
+
+    // only one batch is in flight, so the write waits for the previous batch
+    CompletableFuture<StatusCode> second = batcher.write(newWriteValue("a", 2));
+    Thread.sleep(WINDOW * 4);
+    assertEquals(1, responses.size());
+
+    responses.get(0).complete(Arrays.asList(StatusCode.GOOD));
+    assertTrue(first.get(1, TimeUnit.SECONDS).isGood());
+    Thread.sleep(WINDOW * 4);
+    assertEquals(2, responses.size());
+    responses.get(1).completeExceptionally(new UaException(StatusCodes.Bad_Timeout));
+    assertEquals(StatusCodes.Bad_Timeout, second.get(1, TimeUnit.SECONDS).getValue());
+  }
+
+  @Test
+  public void testRequestThrows() throws Exception {
+    EdgeWriteBatcher batcher = new EdgeWriteBatcher(0, values -> {
+      throw new IllegalStateException("not connected");
+    });
+
+    assertEquals(StatusCodes.Bad_UnexpectedError,
+        batcher.write(newWriteValue("a", 1)).get(1, TimeUnit.SECONDS).getValue());
+    // batcher is not stuck after failure
+    assertEquals(StatusCodes.Bad_UnexpectedError,
+        batcher.write(newWriteValue("b", 1)).get(1, TimeUnit.SECONDS).getValue());
+  }
+}